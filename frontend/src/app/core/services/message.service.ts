@@ -1,4 +1,5 @@
 import { Injectable } from '@angular/core';
+import { HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { ApiService } from './api.service';
 
@@ -20,6 +21,19 @@ export interface Message {
   attachmentSize?: string;
 }
 
+export interface HistoryCursor {
+  before?: number;
+  after?: number;
+  limit?: number;
+}
+
+export interface CursorPage<T> {
+  success: boolean;
+  data: T[];
+  nextCursor?: number;
+  hasMore: boolean;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -68,6 +82,25 @@ export class MessageService {
     return this.apiService.get<Message[]>(`${this.basePath}/conversation/${otherUserId}`);
   }
 
+  /** Chat history page, oldest first: `before` loads older messages, `after` only newer ones. */
+  getConversationHistory(otherUserId: number, cursor: HistoryCursor = {}): Observable<CursorPage<Message>> {
+    return this.apiService.get<CursorPage<Message>>(
+      `${this.basePath}/conversation/${otherUserId}/history`, this.historyParams(cursor));
+  }
+
+  getProjectHistory(projectId: number, cursor: HistoryCursor = {}): Observable<CursorPage<Message>> {
+    return this.apiService.get<CursorPage<Message>>(
+      `${this.basePath}/project/${projectId}/history`, this.historyParams(cursor));
+  }
+
+  private historyParams(cursor: HistoryCursor): HttpParams {
+    let params = new HttpParams();
+    if (cursor.before != null) params = params.set('before', cursor.before);
+    if (cursor.after != null) params = params.set('after', cursor.after);
+    if (cursor.limit != null) params = params.set('limit', cursor.limit);
+    return params;
+  }
+
   sendMessage(message: Message): Observable<Message> {
     return this.apiService.post<Message>(this.basePath, message);
   }
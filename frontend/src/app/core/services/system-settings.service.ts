@@ -16,6 +16,8 @@ export interface SystemSettings {
   jwtValidityMinutes: number;
   maxLoginAttempts: number;
   lockoutDurationMinutes: number;
+  ipMaxFailedLogins: number;
+  ipBlockMinutes: number;
   passwordMinLength: number;
   passwordRequireUppercase: boolean;
   passwordRequireDigit: boolean;
@@ -38,6 +40,36 @@ export interface SystemSettings {
   backupRetentionDays: number;
   // Général — uploads
   maxFileUploadMb: number;
+  // Rétention — days to keep (0 = forever), per-type overrides keyed by type name
+  notificationRetentionDays: number;
+  activityLogRetentionDays: number;
+  notificationRetentionByType: Record<string, number>;
+  activityLogRetentionByType: Record<string, number>;
+  retentionArchiveEnabled: boolean;
+}
+
+export interface RetentionTableStats {
+  table: string;
+  rows: number;
+  dataBytes: number;
+  indexBytes: number;
+  oldestCreatedAt: string | null;
+  purgedLastRun: number;
+  archivedLastRun: number;
+  purgedSinceStartup: number;
+}
+
+export interface RetentionStatus {
+  running: boolean;
+  currentStep: string | null;
+  lastRunStartedAt: string | null;
+  lastRunFinishedAt: string | null;
+  lastRunComplete: boolean;
+  lastRunError: string | null;
+  archiveDir: string;
+  archiveFiles: number;
+  archiveBytes: number;
+  tables: RetentionTableStats[];
 }
 
 export interface PasswordPolicy {
@@ -93,4 +125,20 @@ export class SystemSettingsService {
       tap(s => this.settingsSubject.next(s))
     );
   }
+
+  updateRetention(patch: Partial<SystemSettings>): Observable<SystemSettings> {
+    return this.api.put<SystemSettings>('/settings/retention', patch).pipe(
+      tap(s => this.settingsSubject.next(s))
+    );
+  }
+
+  /** Table sizes and purge progress (admin). */
+  getRetentionStatus(): Observable<RetentionStatus> {
+    return this.api.get<RetentionStatus>('/settings/retention/status');
+  }
+
+  /** Starts a purge in the background; poll {@link getRetentionStatus} for progress. */
+  runRetention(): Observable<RetentionStatus> {
+    return this.api.post<RetentionStatus>('/settings/retention/run', {});
+  }
 }
@@ -3,8 +3,8 @@ import { CommonModule } from '@angular/common';
 import { AnalyticsService } from '../../../core/services/analytics.service';
 
 interface Kpi { label: string; value: string; tone: string; }
-interface LoadPoint { minute: string; cpu: number; memory: number; requests: number; avgMs: number; }
-interface SlowEp { endpoint: string; avgMs: number; maxMs: number; count: number; }
+interface LoadPoint { minute: string; cpu: number; memory: number; requests: number; avgMs: number; p95Ms: number; }
+interface SlowEp { endpoint: string; avgMs: number; maxMs: number; count: number; p50Ms: number; p95Ms: number; p99Ms: number; }
 interface RecentErr { status: number; endpoint: string; at: string; }
 
 @Component({
@@ -56,6 +56,7 @@ interface RecentErr { status: number; endpoint: string; at: string; }
                 <div class="rtip-r"><i class="d" style="background:var(--accent)"></i>Mémoire<b>{{ serverLoad[hoverI].memory }}%</b></div>
                 <div class="rtip-r"><i class="d" style="background:var(--text-muted)"></i>Requêtes<b>{{ serverLoad[hoverI].requests }}</b></div>
                 <div class="rtip-r"><i class="d" style="background:var(--success)"></i>Latence<b>{{ serverLoad[hoverI].avgMs }} ms</b></div>
+                <div class="rtip-r"><i class="d" style="background:var(--warning)"></i>p95<b>{{ serverLoad[hoverI].p95Ms }} ms</b></div>
               </div>
             </ng-container>
           </div>
@@ -71,11 +72,11 @@ interface RecentErr { status: number; endpoint: string; at: string; }
     <!-- Two lists -->
     <div class="perf-cols">
       <div class="page-card anim" style="--d:.16s">
-        <div class="page-card-header"><h3 class="card-title">Top endpoints les plus lents</h3></div>
+        <div class="page-card-header"><h3 class="card-title">Top endpoints les plus lents (p95, 60 min)</h3></div>
         <ul class="ep-list">
           <li *ngFor="let s of slowest">
             <span class="ep-path">{{ s.endpoint }}</span>
-            <span class="badge" [ngClass]="latencyTone(s.avgMs)">{{ s.avgMs }} ms</span>
+            <span class="badge" [ngClass]="latencyTone(s.p95Ms)" [title]="'p50 ' + s.p50Ms + ' ms · p99 ' + s.p99Ms + ' ms · ' + s.count + ' req.'">p95 {{ s.p95Ms }} ms</span>
           </li>
           <li *ngIf="slowest.length === 0"><span class="empty">Aucune requête enregistrée pour l'instant.</span></li>
         </ul>
@@ -193,8 +194,8 @@ export class AdminPerformanceComponent implements OnInit, OnDestroy {
       next: (r: any) => {
         const d = r && r.data ? r.data : r;
         if (!d) return;
-        this.serverLoad = (d.serverLoad || []).map((p: any) => ({ minute: p.minute, cpu: p.cpu || 0, memory: p.memory || 0, requests: p.requests || 0, avgMs: p.avgMs || 0 }));
-        this.slowest = (d.slowest || []).map((s: any) => ({ endpoint: s.endpoint, avgMs: s.avgMs || 0, maxMs: s.maxMs || 0, count: s.count || 0 }));
+        this.serverLoad = (d.serverLoad || []).map((p: any) => ({ minute: p.minute, cpu: p.cpu || 0, memory: p.memory || 0, requests: p.requests || 0, avgMs: p.avgMs || 0, p95Ms: p.p95Ms || 0 }));
+        this.slowest = (d.slowest || []).map((s: any) => ({ endpoint: s.endpoint, avgMs: s.avgMs || 0, maxMs: s.maxMs || 0, count: s.count || 0, p50Ms: s.p50Ms || 0, p95Ms: s.p95Ms || 0, p99Ms: s.p99Ms || 0 }));
         this.recentErrors = (d.recentErrors || []).map((e: any) => ({ status: e.status, endpoint: e.endpoint, at: e.at }));
 
         this.kpis[0].value = `${Math.round(d.avgResponseMs || 0)} ms`;
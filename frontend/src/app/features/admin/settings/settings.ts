@@ -41,6 +41,8 @@ export class AdminSettingsComponent implements OnInit, OnDestroy {
   jwtValidity: number = 60;
   maxAttempts: number = 5;
   lockoutDuration: number = 15;
+  ipMaxFailures: number = 20;
+  ipBlockMinutes: number = 60;
   passwordMinLength: number = 12;
   passwordExpiry: number = 90;
   pwUpper: boolean = true;
@@ -136,6 +138,8 @@ export class AdminSettingsComponent implements OnInit, OnDestroy {
         this.jwtValidity = s.jwtValidityMinutes ?? this.jwtValidity;
         this.maxAttempts = s.maxLoginAttempts ?? this.maxAttempts;
         this.lockoutDuration = s.lockoutDurationMinutes ?? this.lockoutDuration;
+        this.ipMaxFailures = s.ipMaxFailedLogins ?? this.ipMaxFailures;
+        this.ipBlockMinutes = s.ipBlockMinutes ?? this.ipBlockMinutes;
         this.passwordMinLength = s.passwordMinLength ?? this.passwordMinLength;
         this.pwUpper = s.passwordRequireUppercase ?? this.pwUpper;
         this.pwDigit = s.passwordRequireDigit ?? this.pwDigit;
@@ -288,6 +292,8 @@ export class AdminSettingsComponent implements OnInit, OnDestroy {
       jwtValidityMinutes: this.jwtValidity,
       maxLoginAttempts: this.maxAttempts,
       lockoutDurationMinutes: this.lockoutDuration,
+      ipMaxFailedLogins: this.ipMaxFailures,
+      ipBlockMinutes: this.ipBlockMinutes,
       passwordMinLength: this.passwordMinLength,
       passwordRequireUppercase: this.pwUpper,
       passwordRequireDigit: this.pwDigit,
@@ -27,7 +27,8 @@ export interface DisplayNotification {
 }
 
 export interface DisplayConversation {
-  senderId: number;
+  /** The other participant of a direct thread; null for project threads. */
+  senderId: number | null;
   senderName: string;
   preview: string;
   isRead: boolean;
@@ -378,14 +379,15 @@ export class HeaderComponent implements OnInit {
   }
 
   private mapConversation(m: any): DisplayConversation {
-    const senderName = m.senderName
+    // Inbox entries (ConversationDTO) name the other participant; plain messages name the sender.
+    const senderName = m.otherUserName ?? m.projectName ?? m.senderName
       ?? (m.sender?.firstName ? `${m.sender.firstName} ${m.sender.lastName}` : 'Unknown');
     return {
-      senderId: m.senderId ?? m.sender?.id ?? 0,
+      senderId: m.projectId != null ? null : (m.otherUserId ?? m.senderId ?? m.sender?.id ?? null),
       senderName,
-      preview: m.content ?? m.lastMessage ?? '',
-      isRead: m.isRead ?? m.read ?? false,
-      displayTime: this.formatTime(m.createdAt ?? m.sentAt ?? '')
+      preview: m.lastMessage ?? m.content ?? '',
+      isRead: m.unreadCount != null ? m.unreadCount === 0 : (m.isRead ?? m.read ?? false),
+      displayTime: this.formatTime(m.lastMessageTime ?? m.createdAt ?? m.sentAt ?? '')
     };
   }
 
@@ -403,7 +405,10 @@ export class HeaderComponent implements OnInit {
     if (!conv.isRead) {
       conv.isRead = true;
       this.badges.decMessages(1);
-      this.messageService.markConversationAsRead(conv.senderId).subscribe({ error: () => {} });
+      // Only direct threads are marked read in bulk; project threads are read on the messages page.
+      if (conv.senderId != null) {
+        this.messageService.markConversationAsRead(conv.senderId).subscribe({ error: () => {} });
+      }
     }
     this.showMessages = false;
     this.goToMessages();
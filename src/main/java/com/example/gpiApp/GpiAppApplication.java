@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -11,7 +12,9 @@ import java.sql.Statement;
 
 // @EnableAsync makes the @Async e-mail methods run off the request thread, so sending (or a
 // misconfigured/unreachable SMTP host) never blocks the HTTP response.
+// @EnableScheduling drives background housekeeping such as the nightly analytics rollup reconcile.
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class GpiAppApplication {
 
@@ -10,12 +10,14 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
 
 /**
  * Times every API request and reports latency + status to {@link MetricsService},
  * so the admin performance page reads real throughput, latency and error metrics.
+ * Requests are grouped by the controller's route template rather than the concrete path.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -35,7 +37,12 @@ public class MetricsFilter extends OncePerRequestFilter {
             // Only track API traffic; ignore static assets and docs.
             if (uri != null && uri.startsWith("/api/")) {
                 long ms = (System.nanoTime() - start) / 1_000_000;
-                metricsService.record(request.getMethod(), uri, response.getStatus(), ms);
+                // The matched handler pattern (/api/tasks/{id}) is a cache key MetricsService has seen
+                // before; it is absent when no handler ran (404, or rejected by security), and those
+                // requests all share one route rather than keying on the client-chosen path.
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String route = pattern instanceof String p ? p : null;
+                metricsService.record(request.getMethod(), route, response.getStatus(), ms);
             }
         }
     }
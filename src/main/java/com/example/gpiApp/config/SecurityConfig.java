@@ -2,17 +2,23 @@ package com.example.gpiApp.config;
 
 import com.example.gpiApp.config.security.CustomAuthenticationSuccessHandler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +26,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @Configuration
@@ -43,7 +51,39 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Prometheus scrapes with HTTP Basic using {@code metrics.scrape.username}/{@code metrics.scrape.password};
+     * while no password is configured the endpoint is refused to everyone.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http,
+                                                     @Value("${metrics.scrape.username:prometheus}") String username,
+                                                     @Value("${metrics.scrape.password:}") String password) throws Exception {
+        byte[] expected = password.getBytes(StandardCharsets.UTF_8);
+        AuthenticationManager scrapeCredentials = authentication -> {
+            byte[] given = String.valueOf(authentication.getCredentials()).getBytes(StandardCharsets.UTF_8);
+            if (expected.length == 0 || !username.equals(authentication.getName()) || !MessageDigest.isEqual(expected, given)) {
+                throw new BadCredentialsException("Invalid scrape credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                    AuthorityUtils.createAuthorityList("ROLE_METRICS"));
+        };
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> {
+                if (expected.length == 0) auth.anyRequest().denyAll();
+                else auth.anyRequest().hasAuthority("ROLE_METRICS");
+            })
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authenticationManager(scrapeCredentials)
+            .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -57,6 +97,8 @@ public class SecurityConfig {
                     "/api/settings/password-policy",
                     "/actuator/health",
                     "/actuator/info",
+                    // STOMP/SockJS handshake; the session authenticates with the JWT on CONNECT
+                    "/ws/**",
                     "/error",
                     "/css/**",
                     "/js/**",
@@ -1,18 +1,75 @@
 package com.example.gpiApp.config;
 
+import com.example.gpiApp.config.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over SockJS on {@code /ws}.
+ *
+ * With {@code websocket.broker.mode=simple} (default) the in-memory broker only reaches sockets on
+ * this JVM. With {@code relay}, {@code /topic} and {@code /queue} are relayed to an external STOMP
+ * broker (RabbitMQ with the STOMP plugin, ActiveMQ Artemis, ...) so several replicas can run behind
+ * the load balancer: user sessions are shared through the registry broadcast, and messages for a
+ * user connected to another node are re-published on the unresolved-user broadcast.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+    public static final String UNRESOLVED_USER_BROADCAST = "/topic/unresolved-user-destination";
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final String brokerMode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+
+    public WebSocketConfig(
+            StompAuthChannelInterceptor stompAuthChannelInterceptor,
+            @Value("${websocket.broker.mode:simple}") String brokerMode,
+            @Value("${websocket.broker.relay.host:localhost}") String relayHost,
+            @Value("${websocket.broker.relay.port:61613}") int relayPort,
+            @Value("${websocket.broker.relay.login:guest}") String relayLogin,
+            @Value("${websocket.broker.relay.passcode:guest}") String relayPasscode,
+            @Value("${websocket.broker.relay.virtual-host:}") String relayVirtualHost) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.brokerMode = brokerMode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast(UNRESOLVED_USER_BROADCAST)
+                    .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -23,4 +80,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    /** CONNECT frames carry the JWT; see {@link StompAuthChannelInterceptor}. */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
 }
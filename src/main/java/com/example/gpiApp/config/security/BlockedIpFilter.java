@@ -0,0 +1,49 @@
+package com.example.gpiApp.config.security;
+
+import com.example.gpiApp.dto.ApiResponse;
+import com.example.gpiApp.service.IpBlocklistService;
+import com.example.gpiApp.service.IpResolverService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Refuses every request from a blocked IP address or range with 403, before the Spring Security
+ * chain runs, so a blocked source costs neither JWT parsing nor a database query. The client IP is
+ * resolved the same way login attempts record it, which is what admins block from the console.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class BlockedIpFilter extends OncePerRequestFilter {
+
+    private final IpBlocklistService ipBlocklist;
+    private final IpResolverService ipResolver;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!ipBlocklist.isBlocked(ipResolver.resolveClientIp(request))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ipBlocklist.recordRejection();
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Votre adresse IP a été bloquée. Contactez un administrateur."));
+    }
+}
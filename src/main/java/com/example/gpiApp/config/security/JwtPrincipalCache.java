@@ -0,0 +1,149 @@
+package com.example.gpiApp.config.security;
+
+import com.example.gpiApp.service.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the {@link UserDetails} behind a JWT, so {@link JwtRequestFilter} does not
+ * reload the user row on every API call.
+ *
+ * Entries are keyed by token subject and issue time, live at most {@code security.principal-cache.ttl-seconds}
+ * and the cache never holds more than {@code security.principal-cache.max-entries}. Account changes
+ * (update, suspension, deletion, password change) call {@link #invalidate(String)} so they take
+ * effect on the next request rather than after the TTL.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Bumped by every invalidation; a load that raced one is returned but not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public JwtPrincipalCache(
+            @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached principal for this token, or loads it with {@code loader} (which may throw,
+     * in which case nothing is cached). A TTL of 0 disables caching.
+     */
+    public UserDetails get(String subject, long issuedAt, Function<String, UserDetails> loader) {
+        if (ttlMillis <= 0) {
+            misses.increment();
+            return loader.apply(subject);
+        }
+        Key key = new Key(subject, issuedAt);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        UserDetails principal = loader.apply(subject);
+        if (entries.size() >= maxEntries) evict(now);
+        entries.put(key, new Entry(principal, now + ttlMillis));
+        if (generation.get() != loadedAt) entries.remove(key);
+        return principal;
+    }
+
+    /**
+     * Drops every cached token of {@code subject}. Inside a transaction the removal is repeated
+     * after commit, so a request racing the change cannot re-cache the old row.
+     */
+    public void invalidate(String subject) {
+        if (subject == null) return;
+        removeSubject(subject);
+        TransactionHooks.afterCommit(() -> removeSubject(subject));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void removeSubject(String subject) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(k -> k.subject.equals(subject));
+    }
+
+    /** Removes expired entries; if the cache is still full, drops an arbitrary eighth of it. */
+    private void evict(long now) {
+        int before = entries.size();
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        if (entries.size() >= maxEntries) {
+            int toDrop = Math.max(1, maxEntries / 8);
+            Iterator<Key> it = entries.keySet().iterator();
+            while (toDrop-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        evictions.add(Math.max(0, before - entries.size()));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Key {
+        final String subject;
+        final long issuedAt;
+
+        Key(String subject, long issuedAt) {
+            this.subject = subject;
+            this.issuedAt = issuedAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.issuedAt == issuedAt && k.subject.equals(subject);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * subject.hashCode() + Long.hashCode(issuedAt);
+        }
+    }
+
+    private static final class Entry {
+        final UserDetails principal;
+        final long expiresAt;
+
+        Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gpiApp.config.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -30,12 +34,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
+        long issuedAt = 0;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = jwtUtil.parseVerifiedClaims(jwt);
+                username = claims.getSubject();
+                issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0;
             } catch (Exception ex) {
                 logger.warn("Could not extract username from JWT (token may be expired or invalid)");
             }
@@ -43,9 +50,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = principalCache.get(username, issuedAt, userDetailsService::loadUserByUsername);
 
-                if (jwtUtil.validateToken(jwt, userDetails) && userDetails.isEnabled()) {
+                if (jwtUtil.validateToken(claims, userDetails) && userDetails.isEnabled()) {
                     UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     usernamePasswordAuthenticationToken
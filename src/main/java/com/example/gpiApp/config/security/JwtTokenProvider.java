@@ -1,6 +1,8 @@
 package com.example.gpiApp.config.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,15 +19,22 @@ import java.util.function.Function;
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Long expiration;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // The key and parser are immutable and thread-safe: build them once, not per token.
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenProvider(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") Long expiration,
+            @Value("${security.token-cache.ttl-seconds:30}") long tokenCacheTtlSeconds,
+            @Value("${security.token-cache.max-entries:10000}") int tokenCacheMaxEntries) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(tokenCacheTtlSeconds * 1000, tokenCacheMaxEntries);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -39,10 +48,27 @@ public class JwtTokenProvider {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry and returns its claims, parsing it at most once per
+     * {@code security.token-cache.ttl-seconds}. The returned claims are shared and must not be modified.
+     *
+     * @throws JwtException when the token is malformed, forged or expired
+     * @throws IllegalArgumentException when the token is null or blank
+     */
+    public Claims parseVerifiedClaims(String token) {
+        long now = System.currentTimeMillis();
+        Claims claims = verifiedTokens.get(token, now);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims, now);
+        }
+        return claims;
+    }
+
     public String getUsernameFromJWT(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -52,32 +78,15 @@ public class JwtTokenProvider {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return claimsResolver.apply(parseVerifiedClaims(token));
     }
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
+            parseVerifiedClaims(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-} 
\ No newline at end of file
+}
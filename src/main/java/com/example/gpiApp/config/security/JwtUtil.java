@@ -1,9 +1,12 @@
 package com.example.gpiApp.config.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -22,8 +25,16 @@ public class JwtUtil {
 
     private final com.example.gpiApp.service.SystemSettingsService systemSettingsService;
 
-    public JwtUtil(com.example.gpiApp.service.SystemSettingsService systemSettingsService) {
+    // The key and parser are immutable and thread-safe: build them once, not per token.
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(com.example.gpiApp.service.SystemSettingsService systemSettingsService,
+                   @Value("${security.token-cache.ttl-seconds:30}") long tokenCacheTtlSeconds,
+                   @Value("${security.token-cache.max-entries:10000}") int tokenCacheMaxEntries) {
         this.systemSettingsService = systemSettingsService;
+        this.verifiedTokens = new VerifiedTokenCache(tokenCacheTtlSeconds * 1000, tokenCacheMaxEntries);
     }
 
     public String generateToken(Authentication authentication) {
@@ -48,13 +59,25 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + validity))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the token's signature and expiry and returns its claims, parsing it at most once per
+     * {@code security.token-cache.ttl-seconds}. The returned claims are shared and must not be modified.
+     *
+     * @throws JwtException when the token is malformed, forged or expired
+     * @throws IllegalArgumentException when the token is null or blank
+     */
+    public Claims parseVerifiedClaims(String token) {
+        long now = System.currentTimeMillis();
+        Claims claims = verifiedTokens.get(token, now);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims, now);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -66,24 +89,18 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return claimsResolver.apply(parseVerifiedClaims(token));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(parseVerifiedClaims(token), userDetails);
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /** Checks claims already returned by {@link #parseVerifiedClaims(String)} against the loaded user. */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && (expiration == null || expiration.after(new Date()));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.gpiApp.config.security;
+
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP sessions and guards project chat subscriptions.
+ *
+ * The SockJS handshake cannot carry a bearer token, so the client sends it as the
+ * {@code Authorization} header of the STOMP CONNECT frame. The session principal is named after
+ * the user id, which is what {@code convertAndSendToUser(userId.toString(), ...)} routes on.
+ * Subscriptions are allow-listed: the user's own queues ({@code /user/queue/<name>}), the
+ * {@code /topic/notifications} broadcast, and {@code /topic/project.{id}}, which requires being the
+ * project's manager, creator or a member of one of its teams (admins may watch any project).
+ * Anything else is refused, including broker patterns such as {@code /topic/**} or
+ * {@code /topic/#} (both brokers expand them to every matching topic), session queues addressed
+ * without {@code /user}, and the broker-relay bookkeeping topics.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    static final String PROJECT_TOPIC_PREFIX = "/topic/project.";
+    static final String NOTIFICATIONS_TOPIC = "/topic/notifications";
+    private static final Pattern USER_QUEUE = Pattern.compile("/user/queue/[A-Za-z0-9_-]+");
+    private static final Pattern PROJECT_TOPIC = Pattern.compile(Pattern.quote(PROJECT_TOPIC_PREFIX) + "(\\d{1,18})");
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> authorizeSubscription(accessor.getUser(), accessor.getDestination());
+            case SEND -> requireUser(accessor.getUser());
+            default -> { }
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Missing bearer token on STOMP CONNECT");
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseVerifiedClaims(header.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AccessDeniedException("Invalid token on STOMP CONNECT");
+        }
+        allUsers user = userRepository.findByEmail(claims.getSubject())
+                .filter(allUsers::isActive)
+                .orElseThrow(() -> new AccessDeniedException("Unknown or suspended account"));
+        return new UsernamePasswordAuthenticationToken(user.getId().toString(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+    }
+
+    void authorizeSubscription(Principal principal, String destination) {
+        requireUser(principal);
+        if (destination == null) throw new AccessDeniedException("SUBSCRIBE without a destination");
+        if (USER_QUEUE.matcher(destination).matches() || NOTIFICATIONS_TOPIC.equals(destination)) return;
+        Matcher project = PROJECT_TOPIC.matcher(destination);
+        if (!project.matches()) {
+            throw new AccessDeniedException("Subscriptions to " + destination + " are not allowed");
+        }
+        Long projectId = Long.valueOf(project.group(1));
+        if (!canJoinProjectChat(principal, projectId)) {
+            throw new AccessDeniedException("Not a participant of project " + projectId);
+        }
+    }
+
+    /** Whether the STOMP user may read or signal in the project's chat. */
+    public boolean canJoinProjectChat(Principal principal, Long projectId) {
+        if (principal instanceof Authentication auth && auth.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+            return true;
+        }
+        return principal != null && projectRepository.isParticipant(projectId, Long.valueOf(principal.getName()));
+    }
+
+    private static void requireUser(Principal principal) {
+        if (principal == null) throw new AccessDeniedException("STOMP session is not authenticated");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.gpiApp.config.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Claims of tokens whose signature has already been verified, so a client sending the same bearer
+ * token on every call pays for HMAC verification and JSON parsing once per TTL.
+ *
+ * Entries are keyed by the SHA-256 of the token (raw tokens are not kept in memory) and never outlive
+ * the token's own {@code exp}. Each signer owns its own instance: a token verified under one key must
+ * never be accepted by a parser holding another. Cached claims are shared between requests and must
+ * be treated as read-only.
+ */
+final class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    VerifiedTokenCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    boolean isEnabled() {
+        return ttlMillis > 0 && maxEntries > 0;
+    }
+
+    /** Cached claims of {@code token}, or {@code null} when it has to be verified. */
+    Claims get(String token, long now) {
+        if (!isEnabled()) return null;
+        ByteBuffer key = key(token);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.claims;
+        }
+        if (entry != null) entries.remove(key, entry);
+        misses.increment();
+        return null;
+    }
+
+    /** Remembers claims that were just verified; they are dropped no later than the token expires. */
+    void put(String token, Claims claims, long now) {
+        if (!isEnabled()) return;
+        long expiresAt = now + ttlMillis;
+        Date exp = claims.getExpiration();
+        if (exp != null) expiresAt = Math.min(expiresAt, exp.getTime());
+        if (expiresAt <= now) return;
+        if (entries.size() >= maxEntries) evict(now);
+        entries.put(key(token), new Entry(claims, expiresAt));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    /** Removes expired entries; if still full, drops an arbitrary eighth. */
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        if (entries.size() >= maxEntries) {
+            int toDrop = Math.max(1, maxEntries / 8);
+            Iterator<ByteBuffer> it = entries.keySet().iterator();
+            while (toDrop-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    private static ByteBuffer key(String token) {
+        return ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        final Claims claims;
+        final long expiresAt;
+
+        Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.gpiApp.controller;
 
+import com.example.gpiApp.config.security.JwtPrincipalCache;
 import com.example.gpiApp.dto.ApiResponse;
 import com.example.gpiApp.dto.analytics.AdminReportsDTO;
 import com.example.gpiApp.dto.analytics.ManagerAnalyticsDTO;
 import com.example.gpiApp.dto.analytics.PerformanceDTO;
+import com.example.gpiApp.dto.analytics.WebSocketStatsDTO;
 import com.example.gpiApp.entity.allUsers;
 import com.example.gpiApp.repository.UserRepository;
 import com.example.gpiApp.service.AnalyticsService;
 import com.example.gpiApp.service.MetricsService;
+import com.example.gpiApp.service.WebSocketStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +32,8 @@ public class AnalyticsController {
     private final AnalyticsService analyticsService;
     private final UserRepository userRepository;
     private final MetricsService metricsService;
+    private final JwtPrincipalCache principalCache;
+    private final WebSocketStatsService webSocketStatsService;
 
     @Operation(summary = "Get admin portfolio reports",
             description = "Portfolio-wide KPIs and time series (status over time, burndown, DAU, resolution trend, top performers, team load, tickets) derived from real data.")
@@ -39,10 +44,28 @@ public class AnalyticsController {
     }
 
     @Operation(summary = "Get live API performance metrics",
-            description = "Real request metrics captured by the metrics filter: latency, throughput, error rate, per-minute load, slowest endpoints and recent 5xx errors.")
+            description = "Real request metrics captured by the metrics filter: latency percentiles, throughput, error rate, per-minute load, slowest endpoints, recent 5xx errors and JWT principal cache hit/miss counters. `window` (1-60 minutes) sets the span of the percentiles and slowest endpoints.")
     @GetMapping("/admin/performance")
-    public ResponseEntity<ApiResponse<PerformanceDTO>> getPerformance() {
-        return ResponseEntity.ok(ApiResponse.success("Performance metrics", metricsService.snapshot()));
+    public ResponseEntity<ApiResponse<PerformanceDTO>> getPerformance(
+            @org.springframework.web.bind.annotation.RequestParam(defaultValue = "60") int window) {
+        PerformanceDTO performance = metricsService.snapshot(window);
+        long hits = principalCache.getHits();
+        long lookups = hits + principalCache.getMisses();
+        performance.setPrincipalCache(PerformanceDTO.CacheStats.builder()
+                .hits(hits)
+                .misses(principalCache.getMisses())
+                .hitRatePct(lookups == 0 ? 0 : Math.round(hits * 1000.0 / lookups) / 10.0)
+                .evictions(principalCache.getEvictions())
+                .size(principalCache.size())
+                .build());
+        return ResponseEntity.ok(ApiResponse.success("Performance metrics", performance));
+    }
+
+    @Operation(summary = "Get WebSocket broker and session stats",
+            description = "Broker mode (simple or relay) and availability, connected users (cluster-wide in relay mode), this node's STOMP sessions by transport, and Spring's STOMP, relay and executor counters.")
+    @GetMapping("/admin/websocket")
+    public ResponseEntity<ApiResponse<WebSocketStatsDTO>> getWebSocketStats() {
+        return ResponseEntity.ok(ApiResponse.success("WebSocket stats", webSocketStatsService.snapshot()));
     }
 
     @Operation(summary = "Get manager portfolio analytics",
@@ -14,6 +14,7 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -39,6 +40,7 @@ public class AuthController {
     private final com.example.gpiApp.service.LoginAttemptService loginAttemptService;
     private final com.example.gpiApp.service.SystemSettingsService systemSettingsService;
     private final com.example.gpiApp.service.IpResolverService ipResolver;
+    private final com.example.gpiApp.service.LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
@@ -56,6 +58,13 @@ public class AuthController {
                     .body(ApiResponse.error("Votre adresse IP a été bloquée. Contactez un administrateur."));
         }
 
+        // Brute-force backoff per IP is decided in memory, before any lookup or BCrypt check.
+        ResponseEntity<?> throttled = throttled(loginRateLimiter.check(ip, null));
+        if (throttled != null) return throttled;
+
+        // Account failures are keyed on the resolved user's email (the typed name when unknown),
+        // so alternating between username and email does not split the account's window.
+        String account = identifier;
         try {
             String usernameOrEmail = loginRequest.getUsername();
             if (usernameOrEmail == null || usernameOrEmail.trim().isEmpty()) {
@@ -67,8 +76,12 @@ public class AuthController {
             }
 
             String finalIdentifier = usernameOrEmail;
-            allUsers user = userRepository.findByEmail(finalIdentifier)
-                    .or(() -> userRepository.findByUsername(finalIdentifier))
+            java.util.Optional<allUsers> found = userRepository.findByEmail(finalIdentifier)
+                    .or(() -> userRepository.findByUsername(finalIdentifier));
+            account = found.map(allUsers::getEmail).orElse(finalIdentifier);
+            throttled = throttled(loginRateLimiter.check(null, account));
+            if (throttled != null) return throttled;
+            allUsers user = found
                     .orElseThrow(() -> new org.springframework.security.authentication.BadCredentialsException("User not found"));
 
             if (!user.isActive()) {
@@ -100,6 +113,7 @@ public class AuthController {
                     return ResponseEntity.ok(java.util.Map.of("twoFactorRequired", true));
                 }
                 if (!totpService.verifyCode(user.getTwoFactorSecret(), code)) {
+                    loginRateLimiter.recordFailure(ip, account);
                     loginAttemptService.logLoginAttempt(user.getUsername(), user.getEmail(),
                             com.example.gpiApp.entity.LoginAttempt.LoginStatus.FAILURE, ip, userAgent,
                             "Code 2FA invalide", user.getId());
@@ -115,10 +129,12 @@ public class AuthController {
             loginAttemptService.logLoginAttempt(user.getUsername(), user.getEmail(),
                     com.example.gpiApp.entity.LoginAttempt.LoginStatus.SUCCESS, ip, userAgent,
                     "Connexion réussie", user.getId());
+            loginRateLimiter.recordSuccess(account);
 
             return ResponseEntity.ok(new LoginResponse(jwt, user));
         } catch (org.springframework.security.core.AuthenticationException e) {
             // Record the failed attempt (bad credentials, user not found, etc.).
+            loginRateLimiter.recordFailure(ip, account);
             loginAttemptService.logLoginAttempt(identifier, identifier,
                     com.example.gpiApp.entity.LoginAttempt.LoginStatus.FAILURE, ip, userAgent,
                     e.getMessage() != null ? e.getMessage() : "Identifiants invalides", null);
@@ -127,7 +143,18 @@ public class AuthController {
         }
     }
 
-    /** Real client IP — honours X-Forwarded-For and substitutes the machine IP for loopback (local dev). */
+    /** 429 with {@code Retry-After} when the rate limiter refuses the attempt, else null. */
+    private ResponseEntity<?> throttled(com.example.gpiApp.service.LoginRateLimiter.Verdict verdict) {
+        if (verdict.allowed()) return null;
+        String message = verdict.scope() == com.example.gpiApp.service.LoginRateLimiter.Scope.ACCOUNT
+                ? "Trop de tentatives de connexion pour ce compte. Réessayez dans " + verdict.retryAfterSeconds() + " s."
+                : "Trop de tentatives de connexion depuis votre adresse IP. Réessayez dans " + verdict.retryAfterSeconds() + " s.";
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(verdict.retryAfterSeconds()))
+                .body(ApiResponse.error(message));
+    }
+
+    /** Real client IP — X-Forwarded-For only via a trusted proxy; the machine IP for loopback (local dev). */
     private String clientIp(HttpServletRequest request) {
         return ipResolver.resolveClientIp(request);
     }
@@ -175,17 +202,15 @@ public class AuthController {
 
             // Alert every admin so they can review and activate the new account.
             try {
-                for (allUsers admin : userRepository.findByRole(allUsers.Role.ADMIN)) {
-                    notificationService.createNotification(
-                        admin.getId(),
-                        "Nouvelle inscription à valider",
-                        "L'utilisateur " + savedUser.getFirstName() + " " + savedUser.getLastName()
-                            + " (" + savedUser.getEmail() + ") attend l'activation de son compte.",
-                        Notification.NotificationType.SYSTEM,
-                        null,
-                        null
-                    );
-                }
+                notificationService.createNotifications(
+                    userRepository.findIdsByRole(allUsers.Role.ADMIN),
+                    "Nouvelle inscription à valider",
+                    "L'utilisateur " + savedUser.getFirstName() + " " + savedUser.getLastName()
+                        + " (" + savedUser.getEmail() + ") attend l'activation de son compte.",
+                    Notification.NotificationType.SYSTEM,
+                    null,
+                    null
+                );
             } catch (Exception ignore) {
                 // Notifying admins is best-effort; never fail registration on it.
             }
@@ -0,0 +1,29 @@
+package com.example.gpiApp.controller;
+
+import com.example.gpiApp.config.security.StompAuthChannelInterceptor;
+import com.example.gpiApp.dto.TypingEventDTO;
+import com.example.gpiApp.service.MessageDeliveryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/** Inbound STOMP frames of the chat ({@code /app/...}); the session principal is the user id. */
+@Controller
+@RequiredArgsConstructor
+public class ChatSocketController {
+
+    private final MessageDeliveryService messageDeliveryService;
+    private final StompAuthChannelInterceptor stompAuth;
+
+    @MessageMapping("/typing")
+    public void typing(@Payload TypingEventDTO event, Principal principal) {
+        Long userId = Long.valueOf(principal.getName());
+        if (event.getProjectId() != null && !stompAuth.canJoinProjectChat(principal, event.getProjectId())) {
+            return;
+        }
+        messageDeliveryService.typing(userId, event.getRecipientId(), event.getProjectId());
+    }
+}
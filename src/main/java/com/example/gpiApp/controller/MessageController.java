@@ -2,12 +2,14 @@ package com.example.gpiApp.controller;
 
 import com.example.gpiApp.dto.*;
 import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.ProjectRepository;
 import com.example.gpiApp.repository.UserRepository;
 import com.example.gpiApp.service.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,9 @@ public class MessageController {
     
     private final MessageService messageService;
     private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    
+    private static final String NOT_A_PARTICIPANT = "Not a participant of this project";
     
     @GetMapping
     public ResponseEntity<PagedResponse<MessageDTO>> getAllMessages(
@@ -79,13 +84,16 @@ public class MessageController {
     }
     
     @GetMapping("/conversations")
-    public ResponseEntity<ApiResponse<List<MessageDTO>>> getConversations(
-            Authentication authentication) {
+    public ResponseEntity<CursorResponse<ConversationDTO>> getConversations(
+            Authentication authentication,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
         Long userId = getCurrentUserId(authentication);
         if (userId == null) {
-            return ResponseEntity.badRequest().body(ApiResponse.error("User not authenticated"));
+            return ResponseEntity.badRequest().body(
+                    CursorResponse.<ConversationDTO>builder().success(false).message("User not authenticated").build());
         }
-        return ResponseEntity.ok(messageService.getConversations(userId));
+        return ResponseEntity.ok(messageService.getConversations(userId, before, limit));
     }
     
     @GetMapping("/conversation/{otherUserId}")
@@ -106,10 +114,44 @@ public class MessageController {
     
     @GetMapping("/project/{projectId}")
     public ResponseEntity<ApiResponse<List<MessageDTO>>> getProjectMessages(
-            @PathVariable Long projectId) {
+            @PathVariable Long projectId,
+            Authentication authentication) {
+        if (!canReadProjectChat(authentication, projectId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error(NOT_A_PARTICIPANT));
+        }
         return ResponseEntity.ok(messageService.getProjectMessages(projectId));
     }
     
+    /** Chat history page: {@code before} loads older messages, {@code after} only newer ones. */
+    @GetMapping("/conversation/{otherUserId}/history")
+    public ResponseEntity<CursorResponse<MessageDTO>> getConversationHistory(
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(
+                    CursorResponse.<MessageDTO>builder().success(false).message("User not authenticated").build());
+        }
+        return ResponseEntity.ok(messageService.getDirectHistory(userId, otherUserId, before, after, limit));
+    }
+    
+    @GetMapping("/project/{projectId}/history")
+    public ResponseEntity<CursorResponse<MessageDTO>> getProjectHistory(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        if (!canReadProjectChat(authentication, projectId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                    CursorResponse.<MessageDTO>builder().success(false).message(NOT_A_PARTICIPANT).build());
+        }
+        return ResponseEntity.ok(messageService.getProjectHistory(projectId, before, after, limit));
+    }
+    
     @PutMapping("/read/{senderId}")
     public ResponseEntity<ApiResponse<Void>> markAsRead(
             @PathVariable Long senderId,
@@ -123,6 +165,16 @@ public class MessageController {
         return ResponseEntity.ok(messageService.markSingleAsRead(id));
     }
     
+    /** Same rule as the {@code /topic/project.{id}} subscription: admins, or the project's participants. */
+    private boolean canReadProjectChat(Authentication authentication, Long projectId) {
+        if (authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+            return true;
+        }
+        Long userId = getCurrentUserId(authentication);
+        return userId != null && projectRepository.isParticipant(projectId, userId);
+    }
+    
     private Long getCurrentUserId(Authentication authentication) {
         if (authentication != null && authentication.getName() != null) {
             String name = authentication.getName();
@@ -1,17 +1,34 @@
 package com.example.gpiApp.controller;
 
+import com.example.gpiApp.dto.ApiResponse;
+import com.example.gpiApp.dto.report.ReportJobDTO;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.UserRepository;
+import com.example.gpiApp.service.ReportJobService;
 import com.example.gpiApp.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import net.sf.jasperreports.engine.JRException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -20,6 +37,8 @@ import java.nio.charset.StandardCharsets;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final UserRepository userRepository;
 
     // ── Existing endpoints ──────────────────────────────────────────────────
 
@@ -112,16 +131,64 @@ public class ReportController {
 
     @GetMapping("/tasks/csv")
     @Operation(summary = "Export all tasks as CSV")
-    public ResponseEntity<byte[]> exportTasksCsv() {
-        String csv = reportService.generateTasksCsv();
-        return csvResponse(csv, "tasks_export.csv");
+    public ResponseEntity<StreamingResponseBody> exportTasksCsv() {
+        return csvResponse(reportService::writeTasksCsv, "tasks_export.csv");
     }
 
     @GetMapping("/projects/csv")
     @Operation(summary = "Export all projects as CSV")
-    public ResponseEntity<byte[]> exportProjectsCsv() {
-        String csv = reportService.generateProjectsCsv();
-        return csvResponse(csv, "projects_export.csv");
+    public ResponseEntity<StreamingResponseBody> exportProjectsCsv() {
+        return csvResponse(reportService::writeProjectsCsv, "projects_export.csv");
+    }
+
+    // ── Background report jobs ───────────────────────────────────────────────
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Queue a PDF report; returns a job id to poll or wait for over WebSocket")
+    public ResponseEntity<ApiResponse<ReportJobDTO>> submitReportJob(
+            @Parameter(description = "Report type: tasks, projects, users, project-health, team-allocation, milestone-delivery")
+            @RequestParam String type,
+            @Parameter(description = "Project ID (optional, tasks report only)")
+            @RequestParam(required = false) Long projectId,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("User not authenticated"));
+        }
+        ReportJobService.ReportType reportType = ReportJobService.ReportType.fromSlug(type).orElse(null);
+        if (reportType == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Unknown report type: " + type));
+        }
+        try {
+            ReportJobDTO job = reportJobService.submit(reportType, projectId, userId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Report job queued", job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many reports in progress, please retry shortly"));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get the status of a report job")
+    public ResponseEntity<ApiResponse<ReportJobDTO>> getReportJob(@PathVariable String jobId, Authentication authentication) {
+        return reportJobService.getJob(jobId, getCurrentUserId(authentication))
+                .map(job -> ResponseEntity.ok(ApiResponse.success(job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Report job not found")));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    @Operation(summary = "Download the PDF produced by a completed report job")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId, Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        Optional<ReportJobDTO> job = reportJobService.getJob(jobId, userId);
+        Optional<Path> artifact = reportJobService.getArtifact(jobId, userId);
+        if (job.isEmpty() || artifact.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", job.get().getFileName());
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(artifact.get()));
     }
 
     // ── Helpers ──────────────────────────────────────────────────────────────
@@ -133,12 +200,48 @@ public class ReportController {
         return ResponseEntity.ok().headers(headers).body(data);
     }
 
-    private ResponseEntity<byte[]> csvResponse(String csv, String filename) {
-        byte[] data = csv.getBytes(StandardCharsets.UTF_8);
+    /**
+     * Streams a CSV body: rows are written straight to the response as the service reads them, so
+     * nothing is buffered beyond one page and the download starts before the export is finished.
+     */
+    private ResponseEntity<StreamingResponseBody> csvResponse(CsvWriter csv, String filename) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
         headers.setContentDispositionFormData("attachment", filename);
-        return ResponseEntity.ok().headers(headers).body(data);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            try {
+                csv.write(writer);
+                writer.flush();
+            } catch (IOException e) {
+                // Usually the client went away mid-download; headers are already sent.
+                log.warn("CSV export {} interrupted: {}", filename, e.getMessage());
+            }
+        };
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @FunctionalInterface
+    private interface CsvWriter {
+        void write(Writer out) throws IOException;
+    }
+
+    private Long getCurrentUserId(Authentication authentication) {
+        if (authentication != null && authentication.getName() != null) {
+            String name = authentication.getName();
+            try {
+                return Long.parseLong(name);
+            } catch (NumberFormatException e) {
+                return userRepository.findByEmail(name)
+                        .map(allUsers::getId)
+                        .orElseGet(() ->
+                            userRepository.findByUsername(name)
+                                    .map(allUsers::getId)
+                                    .orElse(null)
+                        );
+            }
+        }
+        return null;
     }
 
     private static final org.slf4j.Logger log =
@@ -1,6 +1,8 @@
 package com.example.gpiApp.controller;
 
+import com.example.gpiApp.dto.RetentionStatusDTO;
 import com.example.gpiApp.dto.SystemSettingsDTO;
+import com.example.gpiApp.service.RetentionService;
 import com.example.gpiApp.service.SystemSettingsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class SystemSettingsController {
 
     private final SystemSettingsService settingsService;
+    private final RetentionService retentionService;
 
     @Operation(summary = "Get system settings")
     @GetMapping
@@ -68,4 +71,29 @@ public class SystemSettingsController {
     public ResponseEntity<SystemSettingsDTO> updateBackup(@RequestBody SystemSettingsDTO dto) {
         return ResponseEntity.ok(settingsService.updateBackup(dto));
     }
+
+    @Operation(summary = "Update notification / activity-log retention (admin only)",
+            description = "Days to keep per table, with per-type overrides keyed by type name (0 = keep forever), and whether purged rows are archived.")
+    @PutMapping("/retention")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<SystemSettingsDTO> updateRetention(@RequestBody SystemSettingsDTO dto) {
+        return ResponseEntity.ok(settingsService.updateRetention(dto));
+    }
+
+    @Operation(summary = "Get retention status (admin only)",
+            description = "Row counts and on-disk sizes of the notifications and activity_logs tables, oldest row, rows purged and archived by the last run, and the archive directory size.")
+    @GetMapping("/retention/status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<RetentionStatusDTO> getRetentionStatus() {
+        return ResponseEntity.ok(retentionService.getStatus());
+    }
+
+    @Operation(summary = "Run the retention purge now (admin only)",
+            description = "Starts a purge in the background; 409 if one is already running. Poll the status endpoint for progress.")
+    @PostMapping("/retention/run")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<RetentionStatusDTO> runRetention() {
+        boolean started = retentionService.triggerPurge();
+        return ResponseEntity.status(started ? 202 : 409).body(retentionService.getStatus());
+    }
 }
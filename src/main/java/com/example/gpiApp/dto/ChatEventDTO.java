@@ -0,0 +1,32 @@
+package com.example.gpiApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything that happened in one conversation during one delivery tick, as seen by the receiver.
+ * Fields without news are null. {@code threadKey} matches {@link ConversationDTO#getThreadKey()}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatEventDTO {
+    private String threadKey;
+    private Long otherUserId;
+    private Long projectId;
+    /** New messages, oldest first. */
+    private List<MessageDTO> messages;
+    /** Change to the receiver's unread count for this conversation. */
+    private Integer unreadDelta;
+    /** Read receipt: {@code readBy} has read every message up to {@code readUpTo}, and/or {@code readMessageIds}. */
+    private Long readBy;
+    private Long readUpTo;
+    private List<Long> readMessageIds;
+    /** Users who were typing during the tick. */
+    private List<Long> typingUserIds;
+}
@@ -0,0 +1,28 @@
+package com.example.gpiApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One inbox entry: a direct thread ({@code otherUserId}) or a project chat ({@code projectId}). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationDTO {
+    private String threadKey;
+    private Long otherUserId;
+    private String otherUserName;
+    private Long projectId;
+    private String projectName;
+    private Long lastMessageId;
+    private String lastMessage;
+    private String lastAttachmentType;
+    private LocalDateTime lastMessageTime;
+    private Long lastSenderId;
+    private String lastSenderName;
+    private Integer unreadCount;
+}
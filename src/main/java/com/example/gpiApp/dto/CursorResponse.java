@@ -0,0 +1,34 @@
+package com.example.gpiApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A keyset page: pass {@code nextCursor} back as the cursor parameter to fetch the following page.
+ * {@code nextCursor} is null once {@code hasMore} is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorResponse<T> {
+    private boolean success;
+    private String message;
+    private List<T> data;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public static <T> CursorResponse<T> of(List<T> data, Long nextCursor, boolean hasMore) {
+        return CursorResponse.<T>builder()
+                .success(true)
+                .message("Data retrieved successfully")
+                .data(data)
+                .nextCursor(hasMore ? nextCursor : null)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.gpiApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Table sizes and purge progress for the admin retention screen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetentionStatusDTO {
+
+    private boolean running;
+    private String currentStep;             // e.g. "notifications/MESSAGE" while running
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastRunFinishedAt;
+    private boolean lastRunComplete;        // false when the run stopped at the batch budget
+    private String lastRunError;
+    private String archiveDir;
+    private int archiveFiles;
+    private long archiveBytes;
+    private List<TableStats> tables;
+
+    @Data @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class TableStats {
+        private String table;
+        private long rows;                  // InnoDB estimate on MySQL, exact elsewhere
+        private long dataBytes;
+        private long indexBytes;
+        private LocalDateTime oldestCreatedAt;
+        private long purgedLastRun;
+        private long archivedLastRun;
+        private long purgedSinceStartup;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * Carrier for the admin Configuration screen (General + Security tabs).
  */
@@ -26,6 +28,8 @@ public class SystemSettingsDTO {
     private Integer jwtValidityMinutes;
     private Integer maxLoginAttempts;
     private Integer lockoutDurationMinutes;
+    private Integer ipMaxFailedLogins;
+    private Integer ipBlockMinutes;
     private Integer passwordMinLength;
     private Boolean passwordRequireUppercase;
     private Boolean passwordRequireDigit;
@@ -51,4 +55,11 @@ public class SystemSettingsDTO {
 
     // Général (uploads)
     private Integer maxFileUploadMb;
+
+    // Rétention — days per table, per-type overrides keyed by enum name; 0 = keep forever
+    private Integer notificationRetentionDays;
+    private Integer activityLogRetentionDays;
+    private Map<String, Integer> notificationRetentionByType;
+    private Map<String, Integer> activityLogRetentionByType;
+    private Boolean retentionArchiveEnabled;
 }
@@ -0,0 +1,14 @@
+package com.example.gpiApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Client typing signal sent to {@code /app/typing}: set either the recipient or the project. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEventDTO {
+    private Long recipientId;
+    private Long projectId;
+}
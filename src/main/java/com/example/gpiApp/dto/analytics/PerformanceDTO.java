@@ -11,7 +11,8 @@ import java.util.List;
 /**
  * Live API performance metrics, captured by {@code MetricsFilter} on every request
  * and aggregated by {@code MetricsService}. All values are real measurements (latency,
- * throughput, error rate, per-minute load history, slowest endpoints, recent 5xx).
+ * throughput, error rate, latency percentiles, per-minute load history, slowest endpoints,
+ * recent 5xx).
  */
 @Data
 @NoArgsConstructor
@@ -27,9 +28,15 @@ public class PerformanceDTO {
     private int processors;           // available CPU cores
     private long totalRequests;       // requests since startup
 
+    private int windowMinutes;        // window the percentiles and slowest endpoints cover
+    private long p50Ms;               // latency percentiles over the window
+    private long p95Ms;
+    private long p99Ms;
+
     private List<LoadPoint> serverLoad;     // last 60 minutes
     private List<SlowEndpoint> slowest;     // top slowest endpoints
     private List<RecentError> recentErrors; // most recent 5xx responses
+    private CacheStats principalCache;      // JWT principal cache (JwtRequestFilter)
 
     private LocalDateTime generatedAt;
 
@@ -40,14 +47,18 @@ public class PerformanceDTO {
         private double memory;   // %
         private long requests;   // requests in that minute
         private double avgMs;    // avg latency in that minute
+        private long p95Ms;      // 95th percentile latency in that minute
     }
 
     @Data @NoArgsConstructor @AllArgsConstructor @Builder
     public static class SlowEndpoint {
-        private String endpoint;
+        private String endpoint;  // all values cover the snapshot window
         private double avgMs;
         private long maxMs;
         private long count;
+        private long p50Ms;
+        private long p95Ms;
+        private long p99Ms;
     }
 
     @Data @NoArgsConstructor @AllArgsConstructor @Builder
@@ -56,4 +67,13 @@ public class PerformanceDTO {
         private String endpoint;
         private LocalDateTime at;
     }
+
+    @Data @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class CacheStats {
+        private long hits;
+        private long misses;
+        private double hitRatePct;
+        private long evictions;
+        private int size;
+    }
 }
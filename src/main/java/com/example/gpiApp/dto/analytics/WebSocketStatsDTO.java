@@ -0,0 +1,33 @@
+package com.example.gpiApp.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * STOMP broker and session registry state. Session counts are for this node; {@code connectedUsers}
+ * covers every node when the broker relay shares the user registry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebSocketStatsDTO {
+
+    private String brokerMode;          // simple | relay
+    private boolean brokerAvailable;    // relay: TCP connection to the external broker is up
+    private int connectedUsers;         // users with at least one STOMP session
+    private int localSessions;          // open sessions on this node, all transports
+    private int webSocketSessions;
+    private int httpStreamingSessions;
+    private int httpPollingSessions;
+    private int totalSessionsOpened;    // since startup, this node
+
+    // Spring's periodic stats lines, verbatim (sessions, STOMP frames, relay, executors).
+    private String sessionStats;
+    private String stompStats;
+    private String brokerRelayStats;
+    private String inboundExecutorStats;
+    private String outboundExecutorStats;
+}
@@ -0,0 +1,25 @@
+package com.example.gpiApp.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private String type;
+    private String status;
+    private String fileName;
+    private Long sizeBytes;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private String downloadUrl;
+}
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
-/** An IP address blocked by an admin from the security console. Logins from it are refused. */
+/**
+ * An IP address or CIDR range blocked from the security console, or an IP blocked automatically
+ * after too many failed logins. Requests from it are refused until {@code expiresAt} (never, when null).
+ */
 @Entity
 @Table(name = "blocked_ips")
 @Data
@@ -30,6 +33,9 @@ public class BlockedIp {
     @Column(name = "blocked_at")
     private LocalDateTime blockedAt;
 
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @PrePersist
     protected void onCreate() {
         if (blockedAt == null) blockedAt = LocalDateTime.now();
@@ -0,0 +1,53 @@
+package com.example.gpiApp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One user's entry in their conversation inbox: a direct thread with another user or a project
+ * chat, pointing at the thread's latest message together with the user's unread count.
+ */
+@Entity
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uq_conversations_user_thread", columnNames = {"user_id", "thread_key"}),
+        indexes = @Index(name = "idx_conversations_user_last", columnList = "user_id, last_message_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private allUsers user;
+
+    /** {@code user_<otherUserId>} or {@code project_<projectId>}. */
+    @Column(name = "thread_key", nullable = false, length = 40)
+    private String threadKey;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "other_user_id")
+    private allUsers otherUser;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id")
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_message_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private Message lastMessage;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private Integer unreadCount = 0;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -52,6 +53,18 @@ public class Project {
     @Builder.Default
     private Integer progress = 0;
 
+    // Maintained by ProjectProgressService through bulk updates only, so saving a stale
+    // Project entity can never overwrite them.
+    @Column(name = "task_count", insertable = false, updatable = false, nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer taskCount = 0;
+
+    @Column(name = "completed_task_count", insertable = false, updatable = false, nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer completedTaskCount = 0;
+
     @Column(name = "archived", nullable = false)
     @Builder.Default
     private Boolean archived = false;
@@ -68,6 +68,15 @@ public class SystemSettings {
     @Builder.Default
     private Integer lockoutDurationMinutes = 15;
 
+    /** Failed logins from one IP, within the lockout window, before the IP is blocked automatically. */
+    @Column(name = "ip_max_failed_logins", nullable = false)
+    @Builder.Default
+    private Integer ipMaxFailedLogins = 20;
+
+    @Column(name = "ip_block_minutes", nullable = false)
+    @Builder.Default
+    private Integer ipBlockMinutes = 60;
+
     @Column(name = "password_min_length", nullable = false)
     @Builder.Default
     private Integer passwordMinLength = 12;
@@ -142,6 +151,31 @@ public class SystemSettings {
     @Builder.Default
     private Integer backupRetentionDays = 30;
 
+    // ── Rétention (RetentionService) ─────────────────────────────────────────
+    /** Days notifications are kept; 0 keeps them forever. */
+    @Column(name = "notification_retention_days", nullable = false)
+    @Builder.Default
+    private Integer notificationRetentionDays = 90;
+
+    /** Days activity-log entries are kept; 0 keeps them forever. */
+    @Column(name = "activity_log_retention_days", nullable = false)
+    @Builder.Default
+    private Integer activityLogRetentionDays = 365;
+
+    /** Per-type overrides as "TYPE=days,TYPE=days" (notification types), e.g. "MESSAGE=30". */
+    @Column(name = "notification_retention_overrides", length = 1000)
+    private String notificationRetentionOverrides;
+
+    /** Per-type overrides as "TYPE=days,TYPE=days" (activity types), e.g. "SECURITY_ALERT=730". */
+    @Column(name = "activity_log_retention_overrides", length = 1000)
+    @Builder.Default
+    private String activityLogRetentionOverrides = "SECURITY_ALERT=730";
+
+    /** Write purged rows to monthly gzip NDJSON files before deleting them. */
+    @Column(name = "retention_archive_enabled", nullable = false)
+    @Builder.Default
+    private Boolean retentionArchiveEnabled = true;
+
     /** Max upload size in MB (admin-configurable, used for deliverables & message attachments). */
     @Column(name = "max_file_upload_mb", nullable = false)
     @Builder.Default
@@ -14,6 +14,12 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "tasks")
+// Loads the to-one associations every TaskDTO needs in the same select as the task.
+@NamedEntityGraph(name = "Task.details", attributeNodes = {
+        @NamedAttributeNode("project"),
+        @NamedAttributeNode("assignedTo"),
+        @NamedAttributeNode("createdBy")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -2,8 +2,13 @@ package com.example.gpiApp.repository;
 
 import com.example.gpiApp.entity.BlockedIp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,10 @@ public interface BlockedIpRepository extends JpaRepository<BlockedIp, Long> {
     boolean existsByIpAddress(String ipAddress);
     Optional<BlockedIp> findByIpAddress(String ipAddress);
     void deleteByIpAddress(String ipAddress);
+
+    /** Lifts automatic blocks whose time is up; admin blocks have no expiry. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BlockedIp b WHERE b.expiresAt IS NOT NULL AND b.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
 }
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -31,5 +32,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.task.id = :taskId")
     Long countByTaskId(@Param("taskId") Long taskId);
-}
 
+    /** Comments per task for a whole page of tasks in one query (tasks without comments are absent). */
+    @Query("SELECT c.task.id AS taskId, COUNT(c) AS count FROM Comment c WHERE c.task.id IN :taskIds GROUP BY c.task.id")
+    List<TaskCount> countByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    interface TaskCount {
+        Long getTaskId();
+        Long getCount();
+    }
+}
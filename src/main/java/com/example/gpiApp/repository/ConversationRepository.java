@@ -0,0 +1,114 @@
+package com.example.gpiApp.repository;
+
+import com.example.gpiApp.entity.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    /**
+     * One keyset page of a user's inbox, newest thread first: threads whose latest message id is
+     * below {@code before}. Served from {@code idx_conversations_user_last}; names and the message
+     * preview come from the same query.
+     */
+    @Query("SELECT c.threadKey AS threadKey, o.id AS otherUserId, o.firstName AS otherFirstName, " +
+           "o.lastName AS otherLastName, p.id AS projectId, p.name AS projectName, m.id AS lastMessageId, " +
+           "m.content AS lastMessage, m.attachmentType AS lastAttachmentType, m.createdAt AS lastMessageTime, " +
+           "s.id AS lastSenderId, s.firstName AS lastSenderFirstName, s.lastName AS lastSenderLastName, " +
+           "c.unreadCount AS unreadCount " +
+           "FROM Conversation c JOIN c.lastMessage m JOIN m.sender s LEFT JOIN c.otherUser o LEFT JOIN c.project p " +
+           "WHERE c.user.id = :userId AND m.id < :before ORDER BY m.id DESC")
+    List<InboxRow> findInbox(@Param("userId") Long userId, @Param("before") Long before, Pageable pageable);
+
+    /**
+     * Creates the thread row or moves it forward to {@code messageId}, adding {@code unread} to the
+     * user's unread count. The pointer never moves backwards, so concurrent sends commit in any order.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_id, thread_key, other_user_id, project_id, last_message_id, unread_count) " +
+                   "VALUES (:userId, :threadKey, :otherUserId, :projectId, :messageId, :unread) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_message_id = GREATEST(COALESCE(last_message_id, 0), VALUES(last_message_id)), " +
+                   "unread_count = unread_count + VALUES(unread_count)",
+           nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("threadKey") String threadKey,
+                @Param("otherUserId") Long otherUserId, @Param("projectId") Long projectId,
+                @Param("messageId") Long messageId, @Param("unread") int unread);
+
+    /** Creates or overwrites a thread row, moving the pointer back if need be (after a delete). */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_id, thread_key, other_user_id, project_id, last_message_id, unread_count) " +
+                   "VALUES (:userId, :threadKey, :otherUserId, :projectId, :messageId, :unread) " +
+                   "ON DUPLICATE KEY UPDATE last_message_id = VALUES(last_message_id), unread_count = VALUES(unread_count)",
+           nativeQuery = true)
+    int setThread(@Param("userId") Long userId, @Param("threadKey") String threadKey,
+                  @Param("otherUserId") Long otherUserId, @Param("projectId") Long projectId,
+                  @Param("messageId") Long messageId, @Param("unread") int unread);
+
+    /**
+     * Reconciliation's write: like {@link #advance} the pointer only moves forward, and the unread
+     * count is replaced only while the row still points where the pass saw it ({@code seenMessageId}),
+     * so a message sent during the pass keeps the count {@code advance} gave it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_id, thread_key, other_user_id, project_id, last_message_id, unread_count) " +
+                   "VALUES (:userId, :threadKey, :otherUserId, :projectId, :messageId, :unread) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "unread_count = CASE WHEN COALESCE(last_message_id, 0) = COALESCE(:seenMessageId, 0) " +
+                   "THEN VALUES(unread_count) ELSE unread_count END, " +
+                   "last_message_id = GREATEST(COALESCE(last_message_id, 0), VALUES(last_message_id))",
+           nativeQuery = true)
+    int reconcileThread(@Param("userId") Long userId, @Param("threadKey") String threadKey,
+                        @Param("otherUserId") Long otherUserId, @Param("projectId") Long projectId,
+                        @Param("messageId") Long messageId, @Param("unread") int unread,
+                        @Param("seenMessageId") Long seenMessageId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = 0 WHERE c.user.id = :userId AND c.threadKey = :threadKey")
+    int resetUnread(@Param("userId") Long userId, @Param("threadKey") String threadKey);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = CASE WHEN c.unreadCount > 0 THEN c.unreadCount - 1 ELSE 0 END " +
+           "WHERE c.user.id = :userId AND c.threadKey = :threadKey")
+    int decrementUnread(@Param("userId") Long userId, @Param("threadKey") String threadKey);
+
+    @Modifying
+    @Query("DELETE FROM Conversation c WHERE c.user.id = :userId AND c.threadKey = :threadKey")
+    int deleteThread(@Param("userId") Long userId, @Param("threadKey") String threadKey);
+
+    @Query("SELECT c.user.id AS userId, c.threadKey AS threadKey, c.lastMessage.id AS lastMessageId, " +
+           "c.unreadCount AS unreadCount FROM Conversation c")
+    List<SummaryRow> findSummaryRows();
+
+    interface InboxRow {
+        String getThreadKey();
+        Long getOtherUserId();
+        String getOtherFirstName();
+        String getOtherLastName();
+        Long getProjectId();
+        String getProjectName();
+        Long getLastMessageId();
+        String getLastMessage();
+        String getLastAttachmentType();
+        LocalDateTime getLastMessageTime();
+        Long getLastSenderId();
+        String getLastSenderFirstName();
+        String getLastSenderLastName();
+        Integer getUnreadCount();
+    }
+
+    interface SummaryRow {
+        Long getUserId();
+        String getThreadKey();
+        Long getLastMessageId();
+        Integer getUnreadCount();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,26 +17,40 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
 
     Page<LoginAttempt> findAllByOrderByAttemptedAtDesc(Pageable pageable);
 
-    @Query("SELECT COUNT(l) FROM LoginAttempt l WHERE l.attemptedAt >= :startOfDay")
-    Long countTodayLoginAttempts(@Param("startOfDay") LocalDateTime startOfDay);
-
-    @Query("SELECT COUNT(l) FROM LoginAttempt l WHERE l.status = :status AND l.attemptedAt >= :startOfDay")
-    Long countTodayFailedLogins(@Param("status") LoginAttempt.LoginStatus status, @Param("startOfDay") LocalDateTime startOfDay);
-
-    @Query("SELECT COUNT(l) FROM LoginAttempt l WHERE l.status = :status AND l.attemptedAt >= :startOfDay")
-    Long countTodaySuccessfulLogins(@Param("status") LoginAttempt.LoginStatus status, @Param("startOfDay") LocalDateTime startOfDay);
-
-    List<LoginAttempt> findByAttemptedAtBetween(LocalDateTime start, LocalDateTime end);
-
     @Query("SELECT l FROM LoginAttempt l WHERE l.user.id = :userId ORDER BY l.attemptedAt DESC")
     List<LoginAttempt> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT COUNT(DISTINCT l.user.id) FROM LoginAttempt l WHERE l.status = :status AND l.attemptedAt >= :since AND l.user IS NOT NULL")
-    Long countActiveSessionsSince(@Param("since") LocalDateTime since, @Param("status") LoginAttempt.LoginStatus status);
-
     /** Suspicious IPs: failed attempts grouped by IP address (most attempts first). */
     @Query("SELECT new com.example.gpiApp.dto.SuspiciousIpDTO(l.ipAddress, COUNT(l), MAX(l.attemptedAt), COUNT(DISTINCT l.username)) " +
            "FROM LoginAttempt l WHERE l.status = :status AND l.ipAddress IS NOT NULL AND l.ipAddress <> '' " +
            "GROUP BY l.ipAddress ORDER BY COUNT(l) DESC")
     List<com.example.gpiApp.dto.SuspiciousIpDTO> findSuspiciousIps(@Param("status") LoginAttempt.LoginStatus status);
+
+    /**
+     * Distinct successful-login identities per day since {@code since}: the user id when known,
+     * else the e-mail, else the username (analytics DAU series).
+     */
+    @Query("SELECT CAST(l.attemptedAt AS LocalDate) AS day, " +
+           "COALESCE(CONCAT('u', CAST(u.id AS String)), l.email, l.username) AS userKey " +
+           "FROM LoginAttempt l LEFT JOIN l.user u " +
+           "WHERE l.status = 'SUCCESS' AND l.attemptedAt >= :since " +
+           "GROUP BY CAST(l.attemptedAt AS LocalDate), COALESCE(CONCAT('u', CAST(u.id AS String)), l.email, l.username)")
+    List<DailyUserKey> findDailyLoginKeysSince(@Param("since") LocalDateTime since);
+
+    interface DailyUserKey {
+        LocalDate getDay();
+        String getUserKey();
+    }
+
+    /** The columns the in-memory security counters need, for attempts since {@code since}, oldest first. */
+    @Query("SELECT l.attemptedAt AS attemptedAt, l.status AS status, l.ipAddress AS ipAddress, u.id AS userId " +
+           "FROM LoginAttempt l LEFT JOIN l.user u WHERE l.attemptedAt >= :since ORDER BY l.attemptedAt")
+    List<AttemptSample> findSamplesSince(@Param("since") LocalDateTime since);
+
+    interface AttemptSample {
+        LocalDateTime getAttemptedAt();
+        LoginAttempt.LoginStatus getStatus();
+        String getIpAddress();
+        Long getUserId();
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -33,13 +34,20 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     
     @Query("SELECT COUNT(m) FROM Message m WHERE m.recipient.id = :recipientId AND m.isRead = false")
     Long countUnreadByRecipientId(@Param("recipientId") Long recipientId);
+
+    /** Unread counts for a batch of recipients (UnreadCounterService reconciliation). */
+    @Query("SELECT m.recipient.id AS userId, COUNT(m) AS unread FROM Message m " +
+           "WHERE m.isRead = false AND m.recipient.id IN :recipientIds GROUP BY m.recipient.id")
+    List<UnreadCount> countUnreadByRecipientIds(@Param("recipientIds") Collection<Long> recipientIds);
     
     @Query("SELECT m FROM Message m WHERE (m.sender.id = :userId1 AND m.recipient.id = :userId2) OR (m.sender.id = :userId2 AND m.recipient.id = :userId1) ORDER BY m.createdAt ASC")
     List<Message> findConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
     
+    /** Marks the direct conversation from {@code senderId} read; project-chat messages keep their own state. */
     @Modifying
-    @Query("UPDATE Message m SET m.isRead = true WHERE m.recipient.id = :recipientId AND m.sender.id = :senderId")
-    void markAsRead(@Param("recipientId") Long recipientId, @Param("senderId") Long senderId);
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.recipient.id = :recipientId AND m.sender.id = :senderId " +
+           "AND m.project IS NULL AND m.isRead = false")
+    int markAsRead(@Param("recipientId") Long recipientId, @Param("senderId") Long senderId);
     
     // Project-based messaging
     @Query("SELECT m FROM Message m WHERE m.project.id = :projectId ORDER BY m.createdAt ASC")
@@ -52,11 +60,78 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.project IS NULL AND ((m.sender.id = :userId1 AND m.recipient.id = :userId2) OR (m.sender.id = :userId2 AND m.recipient.id = :userId1)) ORDER BY m.createdAt ASC")
     List<Message> findDirectConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
     
-    // For conversation list
-    @Query("SELECT m FROM Message m WHERE m.sender.id = :senderId ORDER BY m.createdAt DESC")
-    List<Message> findBySenderIdOrderByCreatedAtDesc(@Param("senderId") Long senderId);
+    // Cursor-paginated chat history. Ids follow creation order, so the id is the cursor; senders,
+    // recipients and projects are fetched in the same query for the DTO mapping.
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.recipient LEFT JOIN FETCH m.project " +
+           "WHERE m.project.id = :projectId AND m.id < :before ORDER BY m.id DESC")
+    List<Message> findProjectPageBefore(@Param("projectId") Long projectId, @Param("before") Long before, Pageable pageable);
     
-    @Query("SELECT m FROM Message m WHERE m.recipient.id = :recipientId ORDER BY m.createdAt DESC")
-    List<Message> findByRecipientIdOrderByCreatedAtDesc(@Param("recipientId") Long recipientId);
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.recipient LEFT JOIN FETCH m.project " +
+           "WHERE m.project.id = :projectId AND m.id > :after ORDER BY m.id ASC")
+    List<Message> findProjectPageAfter(@Param("projectId") Long projectId, @Param("after") Long after, Pageable pageable);
+    
+    /** One direction of a direct conversation (sender to recipient); callers merge both directions. */
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient WHERE m.project IS NULL " +
+           "AND m.sender.id = :senderId AND m.recipient.id = :recipientId AND m.id < :before ORDER BY m.id DESC")
+    List<Message> findDirectPageBefore(@Param("senderId") Long senderId, @Param("recipientId") Long recipientId,
+                                       @Param("before") Long before, Pageable pageable);
+    
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.recipient WHERE m.project IS NULL " +
+           "AND m.sender.id = :senderId AND m.recipient.id = :recipientId AND m.id > :after ORDER BY m.id ASC")
+    List<Message> findDirectPageAfter(@Param("senderId") Long senderId, @Param("recipientId") Long recipientId,
+                                      @Param("after") Long after, Pageable pageable);
+    
+    // Conversation inbox (ConversationService): thread heads and unread counts
+    @Query("SELECT m.id FROM Message m WHERE m.project IS NULL AND ((m.sender.id = :userId AND m.recipient.id = :otherUserId) " +
+           "OR (m.sender.id = :otherUserId AND m.recipient.id = :userId)) ORDER BY m.id DESC")
+    List<Long> findDirectThreadHead(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId, Pageable pageable);
+    
+    @Query("SELECT m.id FROM Message m WHERE m.project.id = :projectId " +
+           "AND (m.sender.id = :userId OR m.recipient.id = :userId) ORDER BY m.id DESC")
+    List<Long> findProjectThreadHead(@Param("userId") Long userId, @Param("projectId") Long projectId, Pageable pageable);
+    
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.project IS NULL AND m.recipient.id = :recipientId " +
+           "AND m.sender.id = :senderId AND m.isRead = false")
+    long countUnreadDirect(@Param("recipientId") Long recipientId, @Param("senderId") Long senderId);
+    
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.project.id = :projectId AND m.recipient.id = :recipientId " +
+           "AND m.isRead = false")
+    long countUnreadInProject(@Param("recipientId") Long recipientId, @Param("projectId") Long projectId);
+    
+    /** Latest message id and unread count per (sender, recipient) pair of direct messages. */
+    @Query("SELECT m.sender.id AS senderId, m.recipient.id AS recipientId, MAX(m.id) AS lastMessageId, " +
+           "SUM(CASE WHEN m.isRead = false THEN 1 ELSE 0 END) AS unread " +
+           "FROM Message m WHERE m.project IS NULL AND m.recipient IS NOT NULL GROUP BY m.sender.id, m.recipient.id")
+    List<DirectPairStat> findDirectPairStats();
+    
+    /** Latest message id per (sender, project) of project messages. */
+    @Query("SELECT m.sender.id AS userId, m.project.id AS projectId, MAX(m.id) AS lastMessageId, 0L AS unread " +
+           "FROM Message m WHERE m.project IS NOT NULL GROUP BY m.sender.id, m.project.id")
+    List<ProjectThreadStat> findProjectSenderStats();
+    
+    /** Latest message id and unread count per (recipient, project) of addressed project messages. */
+    @Query("SELECT m.recipient.id AS userId, m.project.id AS projectId, MAX(m.id) AS lastMessageId, " +
+           "SUM(CASE WHEN m.isRead = false THEN 1 ELSE 0 END) AS unread " +
+           "FROM Message m WHERE m.project IS NOT NULL AND m.recipient IS NOT NULL GROUP BY m.recipient.id, m.project.id")
+    List<ProjectThreadStat> findProjectRecipientStats();
+    
+    interface DirectPairStat {
+        Long getSenderId();
+        Long getRecipientId();
+        Long getLastMessageId();
+        Long getUnread();
+    }
+    
+    interface ProjectThreadStat {
+        Long getUserId();
+        Long getProjectId();
+        Long getLastMessageId();
+        Long getUnread();
+    }
+    
+    interface UnreadCount {
+        Long getUserId();
+        Long getUnread();
+    }
 }
 
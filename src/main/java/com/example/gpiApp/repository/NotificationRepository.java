@@ -9,7 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -19,15 +21,28 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
     
     long countByUserIdAndIsReadFalse(Long userId);
+
+    /** Unread counts for a batch of users (UnreadCounterService reconciliation); users at 0 are absent. */
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS unread FROM Notification n " +
+           "WHERE n.isRead = false AND n.user.id IN :userIds GROUP BY n.user.id")
+    List<UnreadCount> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :notificationId")
+    Optional<Long> findUserIdById(@Param("notificationId") Long notificationId);
     
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.user.id = :userId AND n.isRead = false")
     int markAllAsReadByUserId(@Param("userId") Long userId);
     
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.id = :notificationId")
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.id = :notificationId AND n.isRead = false")
     int markAsRead(@Param("notificationId") Long notificationId);
     
     void deleteByUserId(Long userId);
+
+    interface UnreadCount {
+        Long getUserId();
+        Long getUnread();
+    }
 }
 
@@ -5,10 +5,13 @@ import com.example.gpiApp.entity.allUsers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -43,6 +46,11 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
            "WHERE (p.archived = false OR p.archived IS NULL) AND (p.manager.id = :userId OR m.id = :userId)")
     long countProjectsByUser(@Param("userId") Long userId);
     
+    /** Whether the user manages the project or belongs to one of its teams (project chat access). */
+    @Query("SELECT COUNT(p) > 0 FROM Project p LEFT JOIN p.teams t LEFT JOIN t.members m " +
+           "WHERE p.id = :projectId AND (p.manager.id = :userId OR p.createdBy.id = :userId OR m.id = :userId)")
+    boolean isParticipant(@Param("projectId") Long projectId, @Param("userId") Long userId);
+    
     @Query("SELECT DISTINCT p FROM Project p LEFT JOIN p.teams t LEFT JOIN t.members m " +
            "WHERE (p.manager.id = :userId OR m.id = :userId) " +
            "AND p.status NOT IN (:excludedStatuses)")
@@ -52,5 +60,92 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
             
     @Query("SELECT p FROM Project p WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
     Page<Project> searchProjects(@Param("keyword") String keyword, Pageable pageable);
-}
 
+    /**
+     * Projects created since {@code since}, bucketed by creation month and split by current
+     * state: completed, overdue (open past its end date) or in progress (admin reports).
+     */
+    @Query("SELECT YEAR(p.createdAt) AS year, MONTH(p.createdAt) AS month, " +
+           "SUM(CASE WHEN p.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed, " +
+           "SUM(CASE WHEN p.status <> 'COMPLETED' " +
+           "AND p.endDate < :today THEN 1 ELSE 0 END) AS overdue, " +
+           "COUNT(p) AS total " +
+           "FROM Project p WHERE p.createdAt >= :since GROUP BY YEAR(p.createdAt), MONTH(p.createdAt)")
+    List<MonthlyStatusCount> countPerCreationMonth(@Param("since") LocalDateTime since, @Param("today") LocalDate today);
+
+    /** Flat per-project rows for the admin recap table, manager name included (no lazy loads). */
+    @Query("SELECT p.id AS id, p.name AS name, m.firstName AS managerFirstName, m.lastName AS managerLastName, " +
+           "p.progress AS progress, p.status AS status FROM Project p LEFT JOIN p.manager m ORDER BY p.id")
+    List<RecapRow> findRecapRows();
+
+    /**
+     * One keyset page of the project CSV export with task totals aggregated in the same query
+     * (no lazy load of {@code project.getTasks()}).
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.status AS status, p.progress AS progress, " +
+           "p.startDate AS startDate, p.endDate AS endDate, COUNT(t) AS totalTasks, " +
+           "SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completedTasks " +
+           "FROM Project p LEFT JOIN p.tasks t WHERE p.id > :afterId " +
+           "GROUP BY p.id, p.name, p.status, p.progress, p.startDate, p.endDate ORDER BY p.id")
+    List<CsvRow> findCsvPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Applies a task counter delta and recomputes progress in one statement. Progress is assigned
+     * first and from the old values plus the deltas, so the result is the same whether the
+     * database evaluates SET clauses left to right (MySQL) or against the original row.
+     */
+    @Modifying
+    @Query("UPDATE Project p SET " +
+           "p.progress = CASE WHEN p.taskCount + :total > 0 " +
+           "THEN ((p.completedTaskCount + :completed) * 100) / (p.taskCount + :total) ELSE 0 END, " +
+           "p.taskCount = p.taskCount + :total, " +
+           "p.completedTaskCount = p.completedTaskCount + :completed " +
+           "WHERE p.id = :id")
+    int adjustTaskCounters(@Param("id") Long id, @Param("total") int total, @Param("completed") int completed);
+
+    /** Overwrites the counters and progress of one project (reconciliation). */
+    @Modifying
+    @Query("UPDATE Project p SET p.taskCount = :total, p.completedTaskCount = :completed, p.progress = :progress " +
+           "WHERE p.id = :id")
+    int setTaskCounters(@Param("id") Long id, @Param("total") int total, @Param("completed") int completed,
+                        @Param("progress") int progress);
+
+    @Query("SELECT p.id AS id, p.taskCount AS taskCount, p.completedTaskCount AS completedTaskCount, " +
+           "p.progress AS progress FROM Project p")
+    List<CounterRow> findCounterRows();
+
+    interface CounterRow {
+        Long getId();
+        Integer getTaskCount();
+        Integer getCompletedTaskCount();
+        Integer getProgress();
+    }
+
+    interface MonthlyStatusCount {
+        Integer getYear();
+        Integer getMonth();
+        Long getCompleted();
+        Long getOverdue();
+        Long getTotal();
+    }
+
+    interface RecapRow {
+        Long getId();
+        String getName();
+        String getManagerFirstName();
+        String getManagerLastName();
+        Integer getProgress();
+        Project.ProjectStatus getStatus();
+    }
+
+    interface CsvRow {
+        Long getId();
+        String getName();
+        Project.ProjectStatus getStatus();
+        Integer getProgress();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        Long getTotalTasks();
+        Long getCompletedTasks();
+    }
+}
@@ -4,8 +4,10 @@ import com.example.gpiApp.entity.SupportTicket;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -22,5 +24,24 @@ public interface SupportTicketRepository extends JpaRepository<SupportTicket, Lo
     long countByStatus(SupportTicket.Status status);
     
     long countByAssignedToIdAndStatus(Long assignedToId, SupportTicket.Status status);
-}
 
+    /**
+     * Tickets per creation day and priority, with how many are now resolved/closed and the
+     * summed whole hours from creation to resolution (analytics rollups).
+     */
+    @Query("SELECT CAST(t.createdAt AS LocalDate) AS day, t.priority AS priority, COUNT(t) AS created, " +
+           "SUM(CASE WHEN t.status IN ('RESOLVED', 'CLOSED') THEN 1 ELSE 0 END) AS resolved, " +
+           "SUM(CASE WHEN t.resolvedAt >= t.createdAt THEN (t.resolvedAt - t.createdAt) BY HOUR ELSE 0 END) AS resolutionHours, " +
+           "SUM(CASE WHEN t.resolvedAt >= t.createdAt THEN 1 ELSE 0 END) AS resolutionCount " +
+           "FROM SupportTicket t GROUP BY CAST(t.createdAt AS LocalDate), t.priority")
+    List<DailyTicketCount> countPerDayAndPriority();
+
+    interface DailyTicketCount {
+        LocalDate getDay();
+        SupportTicket.Priority getPriority();
+        Long getCreated();
+        Long getResolved();
+        Long getResolutionHours();
+        Long getResolutionCount();
+    }
+}
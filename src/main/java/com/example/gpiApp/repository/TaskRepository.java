@@ -5,6 +5,7 @@ import com.example.gpiApp.entity.Task;
 import com.example.gpiApp.entity.allUsers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -40,6 +42,32 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.assignedTo.id = :userId AND t.status = :status")
     Page<Task> findByAssignedToIdAndStatus(@Param("userId") Long userId, @Param("status") Task.TaskStatus status, Pageable pageable);
     
+    // ── "Task.details" variants: project, assignee and creator fetched with the page ──
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t")
+    Page<Task> findAllWithDetails(Pageable pageable);
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findWithDetailsById(@Param("id") Long id);
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t WHERE t.assignedTo.id = :userId")
+    Page<Task> findWithDetailsByAssignedToId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId")
+    Page<Task> findWithDetailsByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t WHERE t.status = :status")
+    Page<Task> findWithDetailsByStatus(@Param("status") Task.TaskStatus status, Pageable pageable);
+
+    @EntityGraph("Task.details")
+    @Query("SELECT t FROM Task t WHERE t.deadline < :date AND t.status != 'COMPLETED'")
+    List<Task> findOverdueTasksWithDetails(@Param("date") LocalDate date);
+
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     Long countByStatus(@Param("status") Task.TaskStatus status);
     
@@ -63,5 +91,102 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id IN :projectIds AND t.status = :status")
     Long countByProjectIdsAndStatus(@Param("projectIds") List<Long> projectIds, @Param("status") Task.TaskStatus status);
-}
 
+    // ── Analytics rollups: pre-bucketed GROUP BY projections ──
+
+    /** Tasks created per calendar day. */
+    @Query("SELECT CAST(t.createdAt AS LocalDate) AS day, COUNT(t) AS count FROM Task t " +
+           "WHERE t.createdAt IS NOT NULL GROUP BY CAST(t.createdAt AS LocalDate)")
+    List<DailyCount> countCreatedPerDay();
+
+    /**
+     * Completed tasks per completion day and assignee. The completion day is the last update
+     * (else creation), the same proxy the analytics services use.
+     */
+    @Query("SELECT CAST(COALESCE(t.updatedAt, t.createdAt) AS LocalDate) AS day, a.id AS assigneeId, " +
+           "COUNT(t) AS completed, " +
+           "SUM(CASE WHEN t.deadline IS NOT NULL THEN 1 ELSE 0 END) AS withDeadline, " +
+           "SUM(CASE WHEN t.deadline IS NOT NULL AND CAST(COALESCE(t.updatedAt, t.createdAt) AS LocalDate) <= t.deadline THEN 1 ELSE 0 END) AS onTime " +
+           "FROM Task t LEFT JOIN t.assignedTo a " +
+           "WHERE t.status = 'COMPLETED' " +
+           "GROUP BY CAST(COALESCE(t.updatedAt, t.createdAt) AS LocalDate), a.id")
+    List<DailyCompletion> countCompletedPerDayAndAssignee();
+
+    /** Task count per status. */
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Task t GROUP BY t.status")
+    List<StatusCount> countPerStatus();
+
+    /** Open (non-completed) tasks per assignee. */
+    @Query("SELECT a.id AS id, COUNT(t) AS count FROM Task t JOIN t.assignedTo a " +
+           "WHERE t.status <> 'COMPLETED' GROUP BY a.id")
+    List<IdCount> countOpenPerAssignee();
+
+    /** Total and completed tasks per project. */
+    @Query("SELECT p.id AS projectId, COUNT(t) AS total, " +
+           "SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed " +
+           "FROM Task t JOIN t.project p GROUP BY p.id")
+    List<ProjectTaskCount> countPerProject();
+
+    /** Open tasks per project and deadline, so "overdue" can be evaluated against any day. */
+    @Query("SELECT p.id AS projectId, t.deadline AS deadline, COUNT(t) AS count FROM Task t JOIN t.project p " +
+           "WHERE t.status <> 'COMPLETED' AND t.deadline IS NOT NULL " +
+           "GROUP BY p.id, t.deadline")
+    List<ProjectDeadlineCount> countOpenPerProjectAndDeadline();
+
+    /**
+     * One keyset page of the task CSV export: tasks after {@code afterId} in id order, with the
+     * project and assignee names joined in so no entity or proxy is loaded.
+     */
+    @Query("SELECT t.id AS id, t.name AS name, t.status AS status, t.priority AS priority, " +
+           "t.progress AS progress, t.deadline AS deadline, p.name AS projectName, " +
+           "a.firstName AS assigneeFirstName, a.lastName AS assigneeLastName " +
+           "FROM Task t LEFT JOIN t.project p LEFT JOIN t.assignedTo a WHERE t.id > :afterId ORDER BY t.id")
+    List<CsvRow> findCsvPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface DailyCount {
+        LocalDate getDay();
+        Long getCount();
+    }
+
+    interface DailyCompletion {
+        LocalDate getDay();
+        Long getAssigneeId();
+        Long getCompleted();
+        Long getWithDeadline();
+        Long getOnTime();
+    }
+
+    interface StatusCount {
+        Task.TaskStatus getStatus();
+        Long getCount();
+    }
+
+    interface IdCount {
+        Long getId();
+        Long getCount();
+    }
+
+    interface ProjectTaskCount {
+        Long getProjectId();
+        Long getTotal();
+        Long getCompleted();
+    }
+
+    interface ProjectDeadlineCount {
+        Long getProjectId();
+        LocalDate getDeadline();
+        Long getCount();
+    }
+
+    interface CsvRow {
+        Long getId();
+        String getName();
+        Task.TaskStatus getStatus();
+        Task.TaskPriority getPriority();
+        Integer getProgress();
+        LocalDate getDeadline();
+        String getProjectName();
+        String getAssigneeFirstName();
+        String getAssigneeLastName();
+    }
+}
@@ -34,5 +34,14 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     
     @Query("SELECT COUNT(t) FROM Team t WHERE t.project.id = :projectId")
     Long countByProjectId(@Param("projectId") Long projectId);
-}
 
+    /** One row per (team, member) pair; teams without members yield a single row with a null member. */
+    @Query("SELECT t.id AS teamId, t.name AS teamName, m.id AS memberId FROM Team t LEFT JOIN t.members m")
+    List<TeamMembership> findAllMemberships();
+
+    interface TeamMembership {
+        Long getTeamId();
+        String getTeamName();
+        Long getMemberId();
+    }
+}
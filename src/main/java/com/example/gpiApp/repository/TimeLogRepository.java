@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -33,6 +34,11 @@ public interface TimeLogRepository extends JpaRepository<TimeLog, Long> {
     @Query("SELECT SUM(t.hoursSpent) FROM TimeLog t WHERE t.task.id = :taskId")
     Double getTotalHoursByTaskId(@Param("taskId") Long taskId);
     
+    /** Hours logged per task for a whole page of tasks in one query (tasks without logs are absent). */
+    @Query("SELECT t.task.id AS taskId, SUM(t.hoursSpent) AS hours FROM TimeLog t " +
+           "WHERE t.task.id IN :taskIds GROUP BY t.task.id")
+    List<TaskHours> sumHoursByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+    
     @Query("SELECT SUM(t.hoursSpent) FROM TimeLog t WHERE t.user.id = :userId")
     Double getTotalHoursByUserId(@Param("userId") Long userId);
     
@@ -41,5 +47,20 @@ public interface TimeLogRepository extends JpaRepository<TimeLog, Long> {
     
     @Query("SELECT SUM(t.hoursSpent) FROM TimeLog t WHERE t.user.id = :userId AND t.logDate BETWEEN :startDate AND :endDate")
     Double getTotalHoursByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
 
+    /** Logged hours per log day and project (analytics rollups). */
+    @Query("SELECT t.logDate AS day, p.id AS projectId, SUM(t.hoursSpent) AS hours " +
+           "FROM TimeLog t JOIN t.task k LEFT JOIN k.project p GROUP BY t.logDate, p.id")
+    List<DailyProjectHours> sumHoursPerDayAndProject();
+
+    interface DailyProjectHours {
+        LocalDate getDay();
+        Long getProjectId();
+        Double getHours();
+    }
+
+    interface TaskHours {
+        Long getTaskId();
+        Double getHours();
+    }
+}
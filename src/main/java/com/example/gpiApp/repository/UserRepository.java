@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,13 @@ public interface UserRepository extends JpaRepository<allUsers, Long> {
     Page<allUsers> findByRole(allUsers.Role role, Pageable pageable);
     
     List<allUsers> findByRole(allUsers.Role role);
+
+    /** Ids only, for notification fan-out. */
+    @Query("SELECT u.id FROM allUsers u WHERE u.role = :role")
+    List<Long> findIdsByRole(@Param("role") allUsers.Role role);
+
+    @Query("SELECT u.id FROM allUsers u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
     
     boolean existsByUsername(String username);
     
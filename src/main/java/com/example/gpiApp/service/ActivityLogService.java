@@ -22,6 +22,7 @@ public class ActivityLogService {
     
     private final ActivityLogRepository activityLogRepository;
     private final IpResolverService ipResolver;
+    private final AuditLogWriter auditLogWriter;
     
     @Transactional(readOnly = true)
     public PagedResponse<ActivityLogDTO> getAllActivityLogs(int page, int size) {
@@ -87,30 +88,16 @@ public class ActivityLogService {
                 .collect(Collectors.toList());
     }
     
-    @Transactional
+    /** Queued for {@link AuditLogWriter}; written once the caller's transaction commits. */
     public void logActivity(ActivityLog.ActivityType activityType, String description, allUsers user,
                            String entityType, Long entityId, String ipAddress) {
-        ActivityLog activityLog = ActivityLog.builder()
-                .activityType(activityType)
-                .description(description)
-                .user(user)
-                .entityType(entityType)
-                .entityId(entityId)
-                .ipAddress(resolveIp(ipAddress))
-                .build();
-
-        activityLogRepository.save(activityLog);
+        auditLogWriter.activity(activityType, description, user != null ? user.getId() : null,
+                entityType, entityId, resolveIp(ipAddress));
     }
 
-    @Transactional
     public void logSecurityAlert(String description, String ipAddress) {
-        ActivityLog activityLog = ActivityLog.builder()
-                .activityType(ActivityLog.ActivityType.SECURITY_ALERT)
-                .description(description)
-                .ipAddress(resolveIp(ipAddress))
-                .build();
-
-        activityLogRepository.save(activityLog);
+        auditLogWriter.activity(ActivityLog.ActivityType.SECURITY_ALERT, description, null,
+                null, null, resolveIp(ipAddress));
     }
 
     /** Use the caller-supplied IP, else resolve the real IP from the current request (the common case). */
@@ -0,0 +1,514 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.LoginAttempt;
+import com.example.gpiApp.entity.SupportTicket;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.entity.TimeLog;
+import com.example.gpiApp.repository.LoginAttemptRepository;
+import com.example.gpiApp.repository.SupportTicketRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.repository.TimeLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Incrementally maintained aggregates behind the admin "Rapports" page. Task, time log,
+ * support ticket and login-attempt writes push their contribution here (after commit), so
+ * {@link AnalyticsService#getAdminReports} reads finished per-day rollups instead of scanning
+ * every row. The store is loaded lazily on first read from GROUP BY projection queries, and
+ * rebuilt the same way nightly to absorb drift from writes that bypass the services (cascading
+ * project deletes, manual SQL). Writes that commit while a rebuild runs are buffered and replayed
+ * onto the new store when it is swapped in; one committing just as its table is being read may be
+ * counted twice until the next rebuild, which errs on the side of keeping every write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollupService {
+
+    /** Successful-login key sets are only needed for the 30-day DAU chart. */
+    static final int DAU_DAYS = 30;
+
+    private final TaskRepository taskRepository;
+    private final TimeLogRepository timeLogRepository;
+    private final SupportTicketRepository supportTicketRepository;
+    private final LoginAttemptRepository loginAttemptRepository;
+
+    private volatile State state;
+    private final Object deltaLock = new Object();
+    /** Updates committed during a rebuild, replayed onto the rebuilt state; null when no rebuild runs. */
+    private List<Consumer<State>> buffered;
+
+    // ──────────────────────────────────────────────────────────────────────
+    //  Write hooks — called by the owning services inside their transaction
+    // ──────────────────────────────────────────────────────────────────────
+
+    /**
+     * A task was created ({@code before == null}), updated, or deleted ({@code after == null}).
+     * The new contribution is read from the entity after commit, once {@code @PreUpdate} has
+     * stamped {@code updatedAt} (the completion-date proxy).
+     */
+    public void taskChanged(TaskFacts before, Task after) {
+        afterCommit(s -> {
+            if (before != null) s.apply(before, -1);
+            if (after != null) s.apply(TaskFacts.of(after), 1);
+        });
+    }
+
+    public void timeLogChanged(TimeLogFacts before, TimeLogFacts after) {
+        afterCommit(s -> {
+            if (before != null) s.apply(before, -1);
+            if (after != null) s.apply(after, 1);
+        });
+    }
+
+    public void ticketChanged(TicketFacts before, TicketFacts after) {
+        afterCommit(s -> {
+            if (before != null) s.apply(before, -1);
+            if (after != null) s.apply(after, 1);
+        });
+    }
+
+    public void loginRecorded(LoginAttempt.LoginStatus status, Long userId, String email, String username) {
+        loginRecorded(status, userId, email, username, LocalDate.now());
+    }
+
+    /**
+     * A login of {@code day} reached {@code login_attempts}. Adding a key is idempotent, so a row a
+     * rebuild already read and then replays costs nothing.
+     */
+    public void loginRecorded(LoginAttempt.LoginStatus status, Long userId, String email, String username, LocalDate day) {
+        if (status != LoginAttempt.LoginStatus.SUCCESS) return;
+        String key = loginKey(userId, email, username);
+        if (key == null) return;
+        afterCommit(s -> s.day(day).loginKeys.add(key));
+    }
+
+    public void loginsCleared() {
+        afterCommit(s -> s.days.values().forEach(r -> r.loginKeys.clear()));
+    }
+
+    private void afterCommit(Consumer<State> update) {
+        Runnable apply = () -> {
+            State s;
+            synchronized (deltaLock) {
+                if (buffered != null) buffered.add(update);
+                s = state;
+            }
+            if (s != null) update.accept(s); // the store being rebuilt gets it on replay
+        };
+        TransactionHooks.afterCommit(apply);
+    }
+
+    // ──────────────────────────────────────────────────────────────────────
+    //  Reads
+    // ──────────────────────────────────────────────────────────────────────
+
+    /** Sum of the per-day rollups from {@code since} to {@code today}; all-time when {@code since} is null. */
+    public Totals window(LocalDate since, LocalDate today) {
+        State s = loaded();
+        Totals t = new Totals();
+        if (since == null) {
+            t.add(s.allTime);
+        } else {
+            for (LocalDate d = since; !d.isAfter(today); d = d.plusDays(1)) {
+                Rollup r = s.days.get(d);
+                if (r != null) t.add(r);
+            }
+        }
+        return t;
+    }
+
+    public long totalTasks() {
+        return loaded().totalTasks.sum();
+    }
+
+    public long completedTasks() {
+        return loaded().completedTasks.sum();
+    }
+
+    /** Open tasks at the end of each of the {@code days} days ending today (oldest first). */
+    public long[] openTasksPerDay(LocalDate today, int days) {
+        State s = loaded();
+        long created = s.allTime.tasksCreated.sum();
+        long completed = s.allTime.tasksCompleted.sum();
+        long[] open = new long[days];
+        // Walk backwards from today, peeling off what was created/completed after each day.
+        for (int i = days - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(days - 1 - i);
+            open[i] = created - completed;
+            Rollup r = s.days.get(day);
+            if (r != null) {
+                created -= r.tasksCreated.sum();
+                completed -= r.tasksCompleted.sum();
+            }
+        }
+        return open;
+    }
+
+    /** Distinct successful logins for each of the {@code days} days ending today (oldest first). */
+    public long[] dailyActiveUsers(LocalDate today, int days) {
+        State s = loaded();
+        long[] dau = new long[days];
+        for (int i = 0; i < days; i++) {
+            Rollup r = s.days.get(today.minusDays(days - 1 - i));
+            dau[i] = r != null ? r.loginKeys.size() : 0;
+        }
+        return dau;
+    }
+
+    /** Open (non-completed) task count per assignee id. */
+    public Map<Long, Long> openTasksByAssignee() {
+        Map<Long, Long> out = new HashMap<>();
+        loaded().openByAssignee.forEach((id, n) -> out.put(id, n.sum()));
+        return out;
+    }
+
+    /** {@code [tasks, completed, overdue]} for a project; overdue = open with a deadline before today. */
+    public long[] projectCounts(Long projectId, LocalDate today) {
+        ProjectCounters c = loaded().projects.get(projectId);
+        if (c == null) return new long[3];
+        long overdue = 0;
+        for (LongAdder n : c.openByDeadline.headMap(today).values()) overdue += n.sum();
+        return new long[]{c.tasks.sum(), c.completed.sum(), overdue};
+    }
+
+    // ──────────────────────────────────────────────────────────────────────
+    //  Load / reconcile
+    // ──────────────────────────────────────────────────────────────────────
+
+    private State loaded() {
+        State s = state;
+        if (s == null) {
+            synchronized (this) {
+                s = state;
+                if (s == null) s = rebuildAndSwap();
+            }
+        }
+        return s;
+    }
+
+    /** Nightly full recount; swaps the store atomically so readers never see a half-built state. */
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        synchronized (this) {
+            rebuildAndSwap();
+        }
+    }
+
+    /** Caller holds the monitor, so only one rebuild buffers at a time. */
+    private State rebuildAndSwap() {
+        synchronized (deltaLock) {
+            buffered = new ArrayList<>();
+        }
+        State fresh = null;
+        try {
+            fresh = rebuild();
+            return fresh;
+        } finally {
+            synchronized (deltaLock) {
+                if (fresh != null) {
+                    for (Consumer<State> update : buffered) update.accept(fresh);
+                    state = fresh;
+                }
+                buffered = null;
+            }
+        }
+    }
+
+    /** Rebuild from a handful of GROUP BY queries; the result sets are bounded by days × assignees/projects. */
+    private State rebuild() {
+        long started = System.currentTimeMillis();
+        State s = new State();
+        for (TaskRepository.StatusCount c : taskRepository.countPerStatus()) {
+            s.totalTasks.add(c.getCount());
+            if (c.getStatus() == Task.TaskStatus.COMPLETED) s.completedTasks.add(c.getCount());
+        }
+        for (TaskRepository.DailyCount c : taskRepository.countCreatedPerDay()) {
+            s.addCreated(c.getDay(), c.getCount());
+        }
+        for (TaskRepository.DailyCompletion c : taskRepository.countCompletedPerDayAndAssignee()) {
+            s.addCompleted(c.getDay(), c.getAssigneeId(), c.getCompleted(), c.getWithDeadline(), c.getOnTime());
+        }
+        for (TaskRepository.IdCount c : taskRepository.countOpenPerAssignee()) {
+            adder(s.openByAssignee, c.getId()).add(c.getCount());
+        }
+        for (TaskRepository.ProjectTaskCount c : taskRepository.countPerProject()) {
+            ProjectCounters p = s.project(c.getProjectId());
+            p.tasks.add(c.getTotal());
+            p.completed.add(c.getCompleted());
+        }
+        for (TaskRepository.ProjectDeadlineCount c : taskRepository.countOpenPerProjectAndDeadline()) {
+            adder(s.project(c.getProjectId()).openByDeadline, c.getDeadline()).add(c.getCount());
+        }
+        for (TimeLogRepository.DailyProjectHours h : timeLogRepository.sumHoursPerDayAndProject()) {
+            s.addHours(h.getDay(), h.getProjectId(), h.getHours() != null ? h.getHours() : 0);
+        }
+        for (SupportTicketRepository.DailyTicketCount c : supportTicketRepository.countPerDayAndPriority()) {
+            s.addTickets(c.getDay(), c.getPriority(), c.getCreated(), c.getResolved(),
+                    c.getResolutionHours(), c.getResolutionCount());
+        }
+        LocalDate firstDauDay = LocalDate.now().minusDays(DAU_DAYS - 1);
+        for (LoginAttemptRepository.DailyUserKey k : loginAttemptRepository.findDailyLoginKeysSince(firstDauDay.atStartOfDay())) {
+            if (k.getDay() != null && k.getUserKey() != null) s.day(k.getDay()).loginKeys.add(k.getUserKey());
+        }
+        log.info("Analytics rollups rebuilt in {} ms ({} tasks, {} days)",
+                System.currentTimeMillis() - started, s.totalTasks.sum(), s.days.size());
+        return s;
+    }
+
+    private static String loginKey(Long userId, String email, String username) {
+        if (userId != null) return "u" + userId;
+        return email != null ? email : username;
+    }
+
+    // ──────────────────────────────────────────────────────────────────────
+    //  Facts: the slice of an entity each rollup depends on
+    // ──────────────────────────────────────────────────────────────────────
+
+    public static final class TaskFacts {
+        final LocalDate createdDate;
+        final LocalDate completionDate; // null unless COMPLETED
+        final LocalDate deadline;
+        final boolean completed;
+        final Long assigneeId;
+        final Long projectId;
+
+        TaskFacts(LocalDate createdDate, LocalDate completionDate, LocalDate deadline,
+                  boolean completed, Long assigneeId, Long projectId) {
+            this.createdDate = createdDate;
+            this.completionDate = completionDate;
+            this.deadline = deadline;
+            this.completed = completed;
+            this.assigneeId = assigneeId;
+            this.projectId = projectId;
+        }
+
+        public static TaskFacts of(Task t) {
+            boolean completed = t.getStatus() == Task.TaskStatus.COMPLETED;
+            LocalDate created = t.getCreatedAt() != null ? t.getCreatedAt().toLocalDate() : null;
+            // Same completion proxy as AnalyticsService: last update, else creation.
+            LocalDate finished = !completed ? null
+                    : t.getUpdatedAt() != null ? t.getUpdatedAt().toLocalDate() : created;
+            return new TaskFacts(created, finished, t.getDeadline(), completed,
+                    t.getAssignedTo() != null ? t.getAssignedTo().getId() : null,
+                    t.getProject() != null ? t.getProject().getId() : null);
+        }
+    }
+
+    public static final class TimeLogFacts {
+        final LocalDate logDate;
+        final double hours;
+        final Long projectId;
+
+        TimeLogFacts(LocalDate logDate, Double hours, Long projectId) {
+            this.logDate = logDate;
+            this.hours = hours != null ? hours : 0;
+            this.projectId = projectId;
+        }
+
+        /** Must be called while the log's task is still attached (it reads the task's project). */
+        public static TimeLogFacts of(TimeLog l) {
+            Long projectId = l.getTask() != null && l.getTask().getProject() != null
+                    ? l.getTask().getProject().getId() : null;
+            return new TimeLogFacts(l.getLogDate(), l.getHoursSpent(), projectId);
+        }
+    }
+
+    public static final class TicketFacts {
+        final LocalDate createdDate;
+        final boolean resolved;
+        final long resolutionHours; // -1 when not measurable
+        final SupportTicket.Priority priority;
+
+        TicketFacts(LocalDate createdDate, boolean resolved, long resolutionHours, SupportTicket.Priority priority) {
+            this.createdDate = createdDate;
+            this.resolved = resolved;
+            this.resolutionHours = resolutionHours;
+            this.priority = priority;
+        }
+
+        public static TicketFacts of(SupportTicket t) {
+            boolean resolved = t.getStatus() == SupportTicket.Status.RESOLVED || t.getStatus() == SupportTicket.Status.CLOSED;
+            long hours = t.getResolvedAt() != null && t.getCreatedAt() != null
+                    ? ChronoUnit.HOURS.between(t.getCreatedAt(), t.getResolvedAt()) : -1;
+            return new TicketFacts(t.getCreatedAt() != null ? t.getCreatedAt().toLocalDate() : null,
+                    resolved, hours, t.getPriority());
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────────────
+    //  Storage
+    // ──────────────────────────────────────────────────────────────────────
+
+    /** Additive counters for one day (or for all time). Every field can be decremented. */
+    static final class Rollup {
+        final LongAdder tasksCreated = new LongAdder();
+        final LongAdder tasksCompleted = new LongAdder();
+        final LongAdder completedWithDeadline = new LongAdder();
+        final LongAdder completedOnTime = new LongAdder();
+        final Map<Long, LongAdder> completedByAssignee = new ConcurrentHashMap<>();
+        final DoubleAdder hours = new DoubleAdder();
+        final Map<Long, DoubleAdder> hoursByProject = new ConcurrentHashMap<>();
+        final LongAdder ticketsCreated = new LongAdder();
+        final LongAdder ticketsResolved = new LongAdder();
+        final LongAdder resolutionHours = new LongAdder();
+        final LongAdder resolutionCount = new LongAdder();
+        final LongAdder[] ticketsByPriority = adders(SupportTicket.Priority.values().length);
+        final Set<String> loginKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    static final class ProjectCounters {
+        final LongAdder tasks = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final ConcurrentSkipListMap<LocalDate, LongAdder> openByDeadline = new ConcurrentSkipListMap<>();
+    }
+
+    static final class State {
+        final Map<LocalDate, Rollup> days = new ConcurrentHashMap<>();
+        final Rollup allTime = new Rollup();
+        final LongAdder totalTasks = new LongAdder();
+        final LongAdder completedTasks = new LongAdder();
+        final Map<Long, LongAdder> openByAssignee = new ConcurrentHashMap<>();
+        final Map<Long, ProjectCounters> projects = new ConcurrentHashMap<>();
+
+        Rollup day(LocalDate d) {
+            return days.computeIfAbsent(d, k -> new Rollup());
+        }
+
+        ProjectCounters project(Long id) {
+            return projects.computeIfAbsent(id, k -> new ProjectCounters());
+        }
+
+        /** All-time plus the given day, or all-time alone for undated rows. */
+        private Rollup[] targets(LocalDate d) {
+            return d != null ? new Rollup[]{allTime, day(d)} : new Rollup[]{allTime};
+        }
+
+        void addCreated(LocalDate d, long n) {
+            if (d == null) return; // undated tasks never appear in the burndown
+            for (Rollup r : targets(d)) r.tasksCreated.add(n);
+        }
+
+        void addCompleted(LocalDate d, Long assigneeId, long n, long withDeadline, long onTime) {
+            if (d == null) return;
+            for (Rollup r : targets(d)) {
+                r.tasksCompleted.add(n);
+                r.completedWithDeadline.add(withDeadline);
+                r.completedOnTime.add(onTime);
+                if (assigneeId != null) adder(r.completedByAssignee, assigneeId).add(n);
+            }
+        }
+
+        void addHours(LocalDate d, Long projectId, double h) {
+            for (Rollup r : targets(d)) {
+                r.hours.add(h);
+                if (projectId != null) r.hoursByProject.computeIfAbsent(projectId, k -> new DoubleAdder()).add(h);
+            }
+        }
+
+        void addTickets(LocalDate d, SupportTicket.Priority priority, long created, long resolved,
+                        long resolutionHours, long resolutionCount) {
+            for (Rollup r : targets(d)) {
+                r.ticketsCreated.add(created);
+                r.ticketsResolved.add(resolved);
+                r.resolutionHours.add(resolutionHours);
+                r.resolutionCount.add(resolutionCount);
+                if (priority != null) r.ticketsByPriority[priority.ordinal()].add(created);
+            }
+        }
+
+        void apply(TaskFacts f, int sign) {
+            totalTasks.add(sign);
+            if (f.completed) completedTasks.add(sign);
+            addCreated(f.createdDate, sign);
+            if (f.completionDate != null) {
+                boolean withDeadline = f.deadline != null;
+                boolean onTime = withDeadline && !f.completionDate.isAfter(f.deadline);
+                addCompleted(f.completionDate, f.assigneeId, sign, withDeadline ? sign : 0, onTime ? sign : 0);
+            }
+            if (!f.completed && f.assigneeId != null) adder(openByAssignee, f.assigneeId).add(sign);
+            if (f.projectId != null) {
+                ProjectCounters p = project(f.projectId);
+                p.tasks.add(sign);
+                if (f.completed) p.completed.add(sign);
+                else if (f.deadline != null) adder(p.openByDeadline, f.deadline).add(sign);
+            }
+        }
+
+        void apply(TimeLogFacts f, int sign) {
+            addHours(f.logDate, f.projectId, sign * f.hours);
+        }
+
+        void apply(TicketFacts f, int sign) {
+            boolean measurable = f.resolutionHours >= 0;
+            addTickets(f.createdDate, f.priority, sign, f.resolved ? sign : 0,
+                    measurable ? sign * f.resolutionHours : 0, measurable ? sign : 0);
+        }
+    }
+
+    /** Plain (non-concurrent) sum of one or more rollups, handed to {@link AnalyticsService}. */
+    public static final class Totals {
+        long tasksCompleted;
+        long completedWithDeadline;
+        long completedOnTime;
+        final Map<Long, Long> completedByAssignee = new HashMap<>();
+        double hours;
+        final Map<Long, Double> hoursByProject = new HashMap<>();
+        long ticketsCreated;
+        long ticketsResolved;
+        long resolutionHours;
+        long resolutionCount;
+        final long[] ticketsByPriority = new long[SupportTicket.Priority.values().length];
+
+        void add(Rollup r) {
+            tasksCompleted += r.tasksCompleted.sum();
+            completedWithDeadline += r.completedWithDeadline.sum();
+            completedOnTime += r.completedOnTime.sum();
+            r.completedByAssignee.forEach((id, n) -> completedByAssignee.merge(id, n.sum(), Long::sum));
+            hours += r.hours.sum();
+            r.hoursByProject.forEach((id, h) -> hoursByProject.merge(id, h.sum(), Double::sum));
+            ticketsCreated += r.ticketsCreated.sum();
+            ticketsResolved += r.ticketsResolved.sum();
+            resolutionHours += r.resolutionHours.sum();
+            resolutionCount += r.resolutionCount.sum();
+            for (int i = 0; i < ticketsByPriority.length; i++) ticketsByPriority[i] += r.ticketsByPriority[i].sum();
+        }
+
+        public long getCompletedWithDeadline() { return completedWithDeadline; }
+        public long getCompletedOnTime() { return completedOnTime; }
+        public Map<Long, Long> getCompletedByAssignee() { return completedByAssignee; }
+        public double getHours() { return hours; }
+        public Map<Long, Double> getHoursByProject() { return hoursByProject; }
+        public long getTicketsCreated() { return ticketsCreated; }
+        public long getTicketsResolved() { return ticketsResolved; }
+        public long getResolutionHours() { return resolutionHours; }
+        public long getResolutionCount() { return resolutionCount; }
+        public long ticketsWithPriority(SupportTicket.Priority p) { return ticketsByPriority[p.ordinal()]; }
+    }
+
+    private static <K> LongAdder adder(Map<K, LongAdder> map, K key) {
+        return map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        for (int i = 0; i < n; i++) a[i] = new LongAdder();
+        return a;
+    }
+}
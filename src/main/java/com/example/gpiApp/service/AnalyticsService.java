@@ -4,19 +4,14 @@ import com.example.gpiApp.dto.analytics.AdminReportsDTO;
 import com.example.gpiApp.dto.analytics.ManagerAnalyticsDTO;
 import com.example.gpiApp.dto.analytics.MemberWorkloadDTO;
 import com.example.gpiApp.dto.analytics.WeeklyPointDTO;
-import com.example.gpiApp.entity.LoginAttempt;
 import com.example.gpiApp.entity.Project;
 import com.example.gpiApp.entity.SupportTicket;
 import com.example.gpiApp.entity.Task;
-import com.example.gpiApp.entity.Team;
-import com.example.gpiApp.entity.TimeLog;
 import com.example.gpiApp.entity.allUsers;
-import com.example.gpiApp.repository.LoginAttemptRepository;
 import com.example.gpiApp.repository.ProjectRepository;
-import com.example.gpiApp.repository.SupportTicketRepository;
 import com.example.gpiApp.repository.TaskRepository;
 import com.example.gpiApp.repository.TeamRepository;
-import com.example.gpiApp.repository.TimeLogRepository;
+import com.example.gpiApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,13 +32,13 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Computes portfolio analytics for a project manager: delivery KPIs (on-time rate,
  * average completion time), an eight-week velocity/completion trend, and per-member
- * workload. Everything is derived in-memory from the manager's projects' tasks, so no
- * new persistence queries or schema changes are needed.
+ * workload, derived in-memory from the manager's projects' tasks. The admin "Rapports"
+ * page reads the pre-aggregated rollups kept by {@link AnalyticsRollupService} plus a few
+ * small GROUP BY result sets for projects and teams.
  */
 @Service
 @RequiredArgsConstructor
@@ -56,10 +51,9 @@ public class AnalyticsService {
 
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
-    private final SupportTicketRepository supportTicketRepository;
-    private final TimeLogRepository timeLogRepository;
-    private final LoginAttemptRepository loginAttemptRepository;
     private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final AnalyticsRollupService rollups;
 
     @Transactional(readOnly = true)
     public ManagerAnalyticsDTO getManagerAnalytics(Long managerId) {
@@ -72,60 +66,32 @@ public class AnalyticsService {
     }
 
     // ──────────────────────────────────────────────────────────────────────
-    //  Admin "Rapports" — portfolio-wide analytics from real persisted data
+    //  Admin "Rapports" — portfolio-wide analytics from the incremental rollups
     // ──────────────────────────────────────────────────────────────────────
     @Transactional(readOnly = true)
     public AdminReportsDTO getAdminReports(String period) {
-        List<Project> projects = projectRepository.findAll();
-        List<Task> tasks = taskRepository.findAll();
-        List<SupportTicket> tickets = supportTicketRepository.findAll();
-        List<TimeLog> timeLogs = timeLogRepository.findAll();
-        List<LoginAttempt> attempts = loginAttemptRepository.findAll();
-        List<Team> teams = teamRepository.findAll();
-
         LocalDate today = LocalDate.now();
         // Window start for the period filter (null = all-time / "Personnalisé").
         final LocalDate since = windowStart(period, today);
-
-        // Time-bound subsets used by the period-sensitive metrics.
-        List<TimeLog> windowLogs = since == null ? timeLogs
-                : timeLogs.stream().filter(l -> l.getLogDate() != null && !l.getLogDate().isBefore(since)).collect(Collectors.toList());
-        List<SupportTicket> windowTickets = since == null ? tickets
-                : tickets.stream().filter(t -> t.getCreatedAt() != null && !t.getCreatedAt().toLocalDate().isBefore(since)).collect(Collectors.toList());
-        List<Task> windowCompleted = tasks.stream()
-                .filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED)
-                .filter(t -> { LocalDate f = completionDate(t); return since == null || (f != null && !f.isBefore(since)); })
-                .collect(Collectors.toList());
+        AnalyticsRollupService.Totals window = rollups.window(since, today);
 
         // ── Executive KPIs ──
-        long totalTasks = tasks.size();
-        long completedTasks = countStatus(tasks, Task.TaskStatus.COMPLETED);
+        long totalTasks = rollups.totalTasks();
+        long completedTasks = rollups.completedTasks();
         double completionRate = totalTasks > 0 ? round1((double) completedTasks / totalTasks * 100) : 0;
 
-        long completedWithDeadline = 0, onTime = 0;
-        for (Task t : windowCompleted) {
-            LocalDate finished = completionDate(t);
-            if (t.getDeadline() != null && finished != null) {
-                completedWithDeadline++;
-                if (!finished.isAfter(t.getDeadline())) onTime++;
-            }
-        }
-        double onTimeRate = completedWithDeadline > 0 ? round1((double) onTime / completedWithDeadline * 100) : 0;
+        long completedWithDeadline = window.getCompletedWithDeadline();
+        double onTimeRate = completedWithDeadline > 0
+                ? round1((double) window.getCompletedOnTime() / completedWithDeadline * 100) : 0;
 
-        double totalHours = round1(windowLogs.stream()
-                .filter(l -> l.getHoursSpent() != null).mapToDouble(TimeLog::getHoursSpent).sum());
+        double totalHours = round1(window.getHours());
 
-        long ticketsTotal = windowTickets.size();
-        long ticketsResolved = windowTickets.stream()
-                .filter(t -> t.getStatus() == SupportTicket.Status.RESOLVED || t.getStatus() == SupportTicket.Status.CLOSED)
-                .count();
-        double resolvedRate = ticketsTotal > 0 ? round1((double) ticketsResolved / ticketsTotal * 100) : 0;
+        long ticketsTotal = window.getTicketsCreated();
+        double resolvedRate = ticketsTotal > 0 ? round1((double) window.getTicketsResolved() / ticketsTotal * 100) : 0;
         double supportSatisfaction = round1(resolvedRate / 100 * 5);
 
-        double avgResolutionHours = round1(windowTickets.stream()
-                .filter(t -> t.getResolvedAt() != null && t.getCreatedAt() != null)
-                .mapToLong(t -> ChronoUnit.HOURS.between(t.getCreatedAt(), t.getResolvedAt()))
-                .filter(h -> h >= 0).average().orElse(0));
+        double avgResolutionHours = window.getResolutionCount() > 0
+                ? round1((double) window.getResolutionHours() / window.getResolutionCount()) : 0;
 
         return AdminReportsDTO.builder()
                 .completionRate(completionRate)
@@ -134,14 +100,14 @@ public class AnalyticsService {
                 .supportSatisfaction(supportSatisfaction)
                 .resolvedRate(resolvedRate)
                 .avgResolutionHours(avgResolutionHours)
-                .statusOverTime(statusOverTime(projects, today))
-                .burndown(burndown(tasks, today))
-                .dau(dau(attempts, today))
-                .resolutionTrend(resolutionTrend(tickets, today))
-                .topPerformers(topPerformers(windowCompleted))
-                .teamLoad(teamLoad(teams, tasks))
-                .ticketsByCategory(ticketsByPriority(windowTickets))
-                .recap(buildRecap(projects, tasks, windowLogs, today))
+                .statusOverTime(statusOverTime(today))
+                .burndown(burndown(today))
+                .dau(dau(today))
+                .resolutionTrend(resolutionTrend(today))
+                .topPerformers(topPerformers(window))
+                .teamLoad(teamLoad())
+                .ticketsByCategory(ticketsByPriority(window))
+                .recap(buildRecap(window, today))
                 .period(period != null ? period : "all")
                 .generatedAt(LocalDateTime.now())
                 .build();
@@ -159,37 +125,18 @@ public class AnalyticsService {
     }
 
     /** Real per-project recap: task counts, overdue, hours (within the window), progress, status. */
-    private List<AdminReportsDTO.RecapRowDTO> buildRecap(List<Project> projects, List<Task> tasks,
-                                                         List<TimeLog> windowLogs, LocalDate today) {
-        // Hours per project from the (already window-filtered) time logs.
-        Map<Long, Double> hoursByProject = new HashMap<>();
-        for (TimeLog l : windowLogs) {
-            if (l.getHoursSpent() == null || l.getTask() == null || l.getTask().getProject() == null) continue;
-            Long pid = l.getTask().getProject().getId();
-            hoursByProject.merge(pid, l.getHoursSpent(), Double::sum);
-        }
-        // Tasks per project.
-        Map<Long, List<Task>> tasksByProject = new HashMap<>();
-        for (Task t : tasks) {
-            if (t.getProject() == null) continue;
-            tasksByProject.computeIfAbsent(t.getProject().getId(), k -> new ArrayList<>()).add(t);
-        }
-
+    private List<AdminReportsDTO.RecapRowDTO> buildRecap(AnalyticsRollupService.Totals window, LocalDate today) {
         List<AdminReportsDTO.RecapRowDTO> out = new ArrayList<>();
-        for (Project p : projects) {
-            List<Task> pt = tasksByProject.getOrDefault(p.getId(), List.of());
-            long done = pt.stream().filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED).count();
-            long overdue = pt.stream()
-                    .filter(t -> t.getStatus() != Task.TaskStatus.COMPLETED)
-                    .filter(t -> t.getDeadline() != null && t.getDeadline().isBefore(today))
-                    .count();
+        for (ProjectRepository.RecapRow p : projectRepository.findRecapRows()) {
+            long[] counts = rollups.projectCounts(p.getId(), today); // [tasks, completed, overdue]
+            boolean hasManager = p.getManagerFirstName() != null || p.getManagerLastName() != null;
             out.add(AdminReportsDTO.RecapRowDTO.builder()
                     .nom(p.getName())
-                    .pm(p.getManager() != null ? (p.getManager().getFirstName() + " " + p.getManager().getLastName()).trim() : "Non assigné")
-                    .taches(pt.size())
-                    .terminees(done)
-                    .retard(overdue)
-                    .heures(round1(hoursByProject.getOrDefault(p.getId(), 0.0)))
+                    .pm(hasManager ? (p.getManagerFirstName() + " " + p.getManagerLastName()).trim() : "Non assigné")
+                    .taches(counts[0])
+                    .terminees(counts[1])
+                    .retard(counts[2])
+                    .heures(round1(window.getHoursByProject().getOrDefault(p.getId(), 0.0)))
                     .progression(p.getProgress() != null ? p.getProgress() : 0)
                     .statut(p.getStatus() != null ? p.getStatus().name() : "PLANNED")
                     .build());
@@ -198,21 +145,19 @@ public class AnalyticsService {
     }
 
     /** Projects bucketed by creation month over the last 12 months, split by current status. */
-    private List<AdminReportsDTO.MonthStatusDTO> statusOverTime(List<Project> projects, LocalDate today) {
-        List<AdminReportsDTO.MonthStatusDTO> out = new ArrayList<>();
+    private List<AdminReportsDTO.MonthStatusDTO> statusOverTime(LocalDate today) {
         YearMonth current = YearMonth.from(today);
-        for (int back = 11; back >= 0; back--) {
-            YearMonth ym = current.minusMonths(back);
-            long encours = 0, termine = 0, retard = 0;
-            for (Project p : projects) {
-                if (p.getCreatedAt() == null) continue;
-                if (!YearMonth.from(p.getCreatedAt().toLocalDate()).equals(ym)) continue;
-                boolean completed = p.getStatus() == Project.ProjectStatus.COMPLETED;
-                boolean overdue = !completed && p.getEndDate() != null && p.getEndDate().isBefore(today);
-                if (completed) termine++;
-                else if (overdue) retard++;
-                else encours++;
-            }
+        YearMonth first = current.minusMonths(11);
+        Map<YearMonth, ProjectRepository.MonthlyStatusCount> byMonth = new HashMap<>();
+        for (ProjectRepository.MonthlyStatusCount c : projectRepository.countPerCreationMonth(first.atDay(1).atStartOfDay(), today)) {
+            byMonth.put(YearMonth.of(c.getYear(), c.getMonth()), c);
+        }
+        List<AdminReportsDTO.MonthStatusDTO> out = new ArrayList<>();
+        for (YearMonth ym = first; !ym.isAfter(current); ym = ym.plusMonths(1)) {
+            ProjectRepository.MonthlyStatusCount c = byMonth.get(ym);
+            long termine = c != null ? c.getCompleted() : 0;
+            long retard = c != null ? c.getOverdue() : 0;
+            long encours = c != null ? c.getTotal() - termine - retard : 0;
             out.add(AdminReportsDTO.MonthStatusDTO.builder()
                     .mois(capitalize(ym.getMonth().getDisplayName(TextStyle.SHORT, FR)))
                     .encours(encours).termine(termine).retard(retard).build());
@@ -221,21 +166,9 @@ public class AnalyticsService {
     }
 
     /** Remaining open tasks per day over the last 14 days (real) vs an ideal linear burndown. */
-    private List<AdminReportsDTO.BurndownPointDTO> burndown(List<Task> tasks, LocalDate today) {
+    private List<AdminReportsDTO.BurndownPointDTO> burndown(LocalDate today) {
         int days = 14;
-        long[] remaining = new long[days];
-        for (int i = 0; i < days; i++) {
-            LocalDate day = today.minusDays(days - 1 - i);
-            long open = 0;
-            for (Task t : tasks) {
-                if (t.getCreatedAt() == null) continue;
-                if (t.getCreatedAt().toLocalDate().isAfter(day)) continue; // not created yet
-                LocalDate done = t.getStatus() == Task.TaskStatus.COMPLETED ? completionDate(t) : null;
-                boolean closedByThen = done != null && !done.isAfter(day);
-                if (!closedByThen) open++;
-            }
-            remaining[i] = open;
-        }
+        long[] remaining = rollups.openTasksPerDay(today, days);
         long start = remaining[0];
         List<AdminReportsDTO.BurndownPointDTO> out = new ArrayList<>();
         for (int i = 0; i < days; i++) {
@@ -247,38 +180,25 @@ public class AnalyticsService {
     }
 
     /** Distinct successful logins per day over the last 30 days. */
-    private List<AdminReportsDTO.DauPointDTO> dau(List<LoginAttempt> attempts, LocalDate today) {
-        int days = 30;
+    private List<AdminReportsDTO.DauPointDTO> dau(LocalDate today) {
+        long[] perDay = rollups.dailyActiveUsers(today, AnalyticsRollupService.DAU_DAYS);
         List<AdminReportsDTO.DauPointDTO> out = new ArrayList<>();
-        for (int i = 0; i < days; i++) {
-            LocalDate day = today.minusDays(days - 1 - i);
-            Set<String> users = new HashSet<>();
-            for (LoginAttempt a : attempts) {
-                if (a.getStatus() != LoginAttempt.LoginStatus.SUCCESS || a.getAttemptedAt() == null) continue;
-                if (!a.getAttemptedAt().toLocalDate().equals(day)) continue;
-                String key = a.getUser() != null ? "u" + a.getUser().getId()
-                        : (a.getEmail() != null ? a.getEmail() : a.getUsername());
-                if (key != null) users.add(key);
-            }
-            out.add(AdminReportsDTO.DauPointDTO.builder().jour(i + 1).dau(users.size()).build());
+        for (int i = 0; i < perDay.length; i++) {
+            out.add(AdminReportsDTO.DauPointDTO.builder().jour(i + 1).dau(perDay[i]).build());
         }
         return out;
     }
 
     /** % of tickets created each month (last 12) that are now resolved/closed. */
-    private List<AdminReportsDTO.MonthRateDTO> resolutionTrend(List<SupportTicket> tickets, LocalDate today) {
+    private List<AdminReportsDTO.MonthRateDTO> resolutionTrend(LocalDate today) {
         List<AdminReportsDTO.MonthRateDTO> out = new ArrayList<>();
         YearMonth current = YearMonth.from(today);
         for (int back = 11; back >= 0; back--) {
             YearMonth ym = current.minusMonths(back);
-            long created = 0, resolved = 0;
-            for (SupportTicket t : tickets) {
-                if (t.getCreatedAt() == null) continue;
-                if (!YearMonth.from(t.getCreatedAt().toLocalDate()).equals(ym)) continue;
-                created++;
-                if (t.getStatus() == SupportTicket.Status.RESOLVED || t.getStatus() == SupportTicket.Status.CLOSED) resolved++;
-            }
-            double taux = created > 0 ? round1((double) resolved / created * 100) : 0;
+            LocalDate last = ym.equals(current) ? today : ym.atEndOfMonth();
+            AnalyticsRollupService.Totals month = rollups.window(ym.atDay(1), last);
+            long created = month.getTicketsCreated();
+            double taux = created > 0 ? round1((double) month.getTicketsResolved() / created * 100) : 0;
             out.add(AdminReportsDTO.MonthRateDTO.builder()
                     .mois(capitalize(ym.getMonth().getDisplayName(TextStyle.SHORT, FR))).taux(taux).build());
         }
@@ -286,11 +206,12 @@ public class AnalyticsService {
     }
 
     /** Top members by number of completed tasks. */
-    private List<AdminReportsDTO.PerformerDTO> topPerformers(List<Task> tasks) {
+    private List<AdminReportsDTO.PerformerDTO> topPerformers(AnalyticsRollupService.Totals window) {
         Map<String, Long> byMember = new LinkedHashMap<>();
-        for (Task t : tasks) {
-            if (t.getStatus() != Task.TaskStatus.COMPLETED || t.getAssignedTo() == null) continue;
-            byMember.merge(displayName(t.getAssignedTo()), 1L, Long::sum);
+        Map<Long, Long> byId = window.getCompletedByAssignee();
+        for (allUsers u : userRepository.findAllById(byId.keySet())) {
+            long done = byId.getOrDefault(u.getId(), 0L);
+            if (done > 0) byMember.merge(displayName(u), done, Long::sum);
         }
         return byMember.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
@@ -300,23 +221,27 @@ public class AnalyticsService {
     }
 
     /** Per-team load = open tasks assigned to its members. */
-    private List<AdminReportsDTO.TeamLoadDTO> teamLoad(List<Team> teams, List<Task> tasks) {
-        List<AdminReportsDTO.TeamLoadDTO> out = new ArrayList<>();
-        for (Team team : teams) {
-            Set<Long> memberIds = new HashSet<>();
-            if (team.getMembers() != null) team.getMembers().forEach(m -> memberIds.add(m.getId()));
-            long open = tasks.stream()
-                    .filter(t -> t.getStatus() != Task.TaskStatus.COMPLETED && t.getAssignedTo() != null)
-                    .filter(t -> memberIds.contains(t.getAssignedTo().getId()))
-                    .count();
-            out.add(AdminReportsDTO.TeamLoadDTO.builder().equipe(team.getName()).charge(open).build());
+    private List<AdminReportsDTO.TeamLoadDTO> teamLoad() {
+        Map<Long, Long> openByAssignee = rollups.openTasksByAssignee();
+        Map<Long, String> names = new LinkedHashMap<>();
+        Map<Long, Set<Long>> members = new HashMap<>();
+        for (TeamRepository.TeamMembership m : teamRepository.findAllMemberships()) {
+            names.put(m.getTeamId(), m.getTeamName());
+            Set<Long> ids = members.computeIfAbsent(m.getTeamId(), k -> new HashSet<>());
+            if (m.getMemberId() != null) ids.add(m.getMemberId());
         }
+        List<AdminReportsDTO.TeamLoadDTO> out = new ArrayList<>();
+        names.forEach((teamId, name) -> {
+            long open = 0;
+            for (Long id : members.get(teamId)) open += openByAssignee.getOrDefault(id, 0L);
+            out.add(AdminReportsDTO.TeamLoadDTO.builder().equipe(name).charge(open).build());
+        });
         out.sort(Comparator.comparingLong(AdminReportsDTO.TeamLoadDTO::getCharge).reversed());
         return out.size() > 6 ? out.subList(0, 6) : out;
     }
 
     /** Support tickets grouped by priority (the real categorical field). */
-    private List<AdminReportsDTO.CategoryCountDTO> ticketsByPriority(List<SupportTicket> tickets) {
+    private List<AdminReportsDTO.CategoryCountDTO> ticketsByPriority(AnalyticsRollupService.Totals window) {
         Map<SupportTicket.Priority, String> labels = new LinkedHashMap<>();
         labels.put(SupportTicket.Priority.URGENT, "Urgente");
         labels.put(SupportTicket.Priority.HIGH, "Haute");
@@ -324,7 +249,7 @@ public class AnalyticsService {
         labels.put(SupportTicket.Priority.LOW, "Faible");
         List<AdminReportsDTO.CategoryCountDTO> out = new ArrayList<>();
         labels.forEach((prio, label) -> {
-            long count = tickets.stream().filter(t -> t.getPriority() == prio).count();
+            long count = window.ticketsWithPriority(prio);
             if (count > 0) out.add(AdminReportsDTO.CategoryCountDTO.builder().name(label).value(count).build());
         });
         return out;
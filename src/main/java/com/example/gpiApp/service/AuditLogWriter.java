@@ -0,0 +1,244 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.ActivityLog;
+import com.example.gpiApp.entity.LoginAttempt;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes login attempts and activity logs off the request path.
+ *
+ * Callers enqueue a row (after their transaction commits, so rolled-back work leaves no trace) and
+ * return; one background thread inserts rows with JDBC batches once {@code audit.batch-size} rows
+ * are waiting or {@code audit.flush-ms} after the oldest one arrived. The queue holds at most
+ * {@code audit.queue-capacity} rows: when it is full a caller waits up to
+ * {@code audit.offer-timeout-ms} for room, then the row is dropped and counted. A batch the database
+ * refuses is retried row by row so one bad row cannot sink the others. On shutdown the writer stops
+ * and whatever is still queued is written before the datasource closes. A row may carry a callback
+ * that runs once it is in the table, for in-memory state that must never run ahead of it (a rebuild
+ * reading the table while the row is still queued would otherwise lose it).
+ */
+@Slf4j
+@Service
+public class AuditLogWriter implements MeterBinder {
+
+    enum Kind {
+        LOGIN_ATTEMPT("INSERT INTO login_attempts (username, email, status, ip_address, user_agent, user_id, attempted_at, reason) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)"),
+        ACTIVITY_LOG("INSERT INTO activity_logs (activity_type, description, user_id, entity_type, entity_id, ip_address, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+        final String sql;
+
+        Kind(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    record Row(Kind kind, Object[] values, Runnable onWritten) {
+        Row(Kind kind, Object[] values) {
+            this(kind, values, null);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Row> queue;
+    private final int batchSize;
+    private final long flushNanos;
+    private final long offerTimeoutMs;
+
+    private final Thread writer;
+    private volatile boolean stopping;
+    private final Map<Kind, LongAdder> written = new EnumMap<>(Kind.class);
+    private final LongAdder droppedFull = new LongAdder();
+    private final LongAdder droppedFailed = new LongAdder();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${audit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.batch-size:200}") int batchSize,
+                          @Value("${audit.flush-ms:500}") long flushMs,
+                          @Value("${audit.offer-timeout-ms:20}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushMs));
+        this.offerTimeoutMs = Math.max(0, offerTimeoutMs);
+        for (Kind kind : Kind.values()) written.put(kind, new LongAdder());
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    public void loginAttempt(String username, String email, LoginAttempt.LoginStatus status, String ipAddress,
+                             String userAgent, Long userId, String reason) {
+        loginAttempt(username, email, status, ipAddress, userAgent, userId, reason, null);
+    }
+
+    /** Queues a login attempt; {@code onWritten} (may be null) runs on the writer thread once the row is inserted. */
+    public void loginAttempt(String username, String email, LoginAttempt.LoginStatus status, String ipAddress,
+                             String userAgent, Long userId, String reason, Runnable onWritten) {
+        enqueue(new Row(Kind.LOGIN_ATTEMPT, new Object[] {
+                username, email, status.name(), ipAddress, userAgent, userId, now(), reason}, onWritten));
+    }
+
+    public void activity(ActivityLog.ActivityType type, String description, Long userId,
+                         String entityType, Long entityId, String ipAddress) {
+        enqueue(new Row(Kind.ACTIVITY_LOG, new Object[] {
+                type.name(), description, userId, entityType, entityId, ipAddress, now()}));
+    }
+
+    /** Rows waiting to be written. */
+    public int queued() {
+        return queue.size();
+    }
+
+    private void enqueue(Row row) {
+        TransactionHooks.afterCommit(() -> {
+            if (stopping) {
+                write(List.of(row));
+                return;
+            }
+            try {
+                if (queue.offer(row, offerTimeoutMs, TimeUnit.MILLISECONDS)) return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            droppedFull.increment();
+            if (droppedFull.sum() % 1000 == 1) {
+                log.warn("Audit queue full ({} rows), dropping {} rows", queue.size(), row.kind());
+            }
+        });
+    }
+
+    private void run() {
+        List<Row> batch = new ArrayList<>(batchSize);
+        while (!stopping) {
+            try {
+                Row first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize && !stopping) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) break;
+                    Row next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next != null) batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!stopping) log.warn("Audit writer interrupted; queued rows are written on shutdown");
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed on a batch of {} rows", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Inserts rows with one JDBC batch per table, falling back to single inserts if a batch fails. */
+    void write(List<Row> rows) {
+        Map<Kind, List<Row>> byKind = new EnumMap<>(Kind.class);
+        for (Row row : rows) byKind.computeIfAbsent(row.kind(), k -> new ArrayList<>()).add(row);
+        byKind.forEach((kind, batch) -> {
+            try {
+                jdbcTemplate.batchUpdate(kind.sql, batch.stream().map(Row::values).toList());
+                written.get(kind).add(batch.size());
+                batch.forEach(AuditLogWriter::written);
+            } catch (DataAccessException batchFailure) {
+                log.warn("Audit batch of {} {} rows failed, retrying one by one: {}",
+                        batch.size(), kind, batchFailure.getMessage());
+                for (Row single : batch) {
+                    try {
+                        jdbcTemplate.update(kind.sql, single.values());
+                        written.get(kind).increment();
+                        written(single);
+                    } catch (DataAccessException e) {
+                        droppedFailed.increment();
+                        log.warn("Dropped {} row: {}", kind, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private static void written(Row row) {
+        if (row.onWritten() == null) return;
+        try {
+            row.onWritten().run();
+        } catch (RuntimeException e) {
+            log.warn("Callback of a written {} row failed: {}", row.kind(), e.getMessage());
+        }
+    }
+
+    /** Stops the writer and writes what is still queued. */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(flushNanos) + 5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Row> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            write(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+        if (!rest.isEmpty()) log.info("Flushed {} queued audit rows on shutdown", rest.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit rows waiting for the background writer")
+                .register(registry);
+        written.forEach((kind, count) -> FunctionCounter.builder("audit.rows.written", count, LongAdder::sum)
+                .tag("kind", kind.name().toLowerCase())
+                .description("Audit rows inserted by the background writer")
+                .register(registry));
+        FunctionCounter.builder("audit.rows.dropped", droppedFull, LongAdder::sum)
+                .tag("reason", "queue_full")
+                .description("Audit rows dropped because the queue stayed full")
+                .register(registry);
+        FunctionCounter.builder("audit.rows.dropped", droppedFailed, LongAdder::sum)
+                .tag("reason", "insert_failed")
+                .description("Audit rows the database refused")
+                .register(registry);
+    }
+
+    long dropped() {
+        return droppedFull.sum() + droppedFailed.sum();
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
@@ -138,6 +138,7 @@ public class CalendarService {
                 ? request.getStartTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm")) : "";
 
         CalendarEvent master = null;
+        List<NotificationDTO> notifications = new ArrayList<>();
         for (allUsers u : recipients) {
             CalendarEvent event = newEventFromRequest(request);
             event.setSeriesId(seriesId);
@@ -152,14 +153,17 @@ public class CalendarService {
                 }
             } else {
                 // Notify each recipient that an event has been added to their calendar.
-                try {
-                    notificationService.createNotification(u.getId(),
-                            "Nouvel événement à l'agenda",
-                            creatorName + " a planifié « " + request.getTitle() + " »" + (whenLabel.isEmpty() ? "." : " le " + whenLabel + "."),
-                            Notification.NotificationType.REMINDER, saved.getId(), "CALENDAR");
-                } catch (Exception ignore) { }
+                notifications.add(NotificationDTO.builder()
+                        .userId(u.getId())
+                        .title("Nouvel événement à l'agenda")
+                        .message(creatorName + " a planifié « " + request.getTitle() + " »" + (whenLabel.isEmpty() ? "." : " le " + whenLabel + "."))
+                        .type(Notification.NotificationType.REMINDER)
+                        .referenceId(saved.getId()).referenceType("CALENDAR")
+                        .build());
             }
         }
+        // One batched insert for the whole audience (ALL can be every user).
+        try { notificationService.createNotifications(notifications); } catch (Exception ignore) { }
         if (master == null && !recipients.isEmpty()) {
             master = calendarEventRepository.findBySeriesId(seriesId).stream().findFirst().orElse(null);
         }
@@ -222,15 +226,18 @@ public class CalendarService {
                     if (series.size() > 1) {
                         String whenLabel = request.getStartTime() != null
                                 ? request.getStartTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm")) : "";
+                        List<NotificationDTO> notifications = new ArrayList<>();
                         for (CalendarEvent e : series) {
                             if (e.getId().equals(id) || e.getUser() == null) continue;
-                            try {
-                                notificationService.createNotification(e.getUser().getId(),
-                                        "Événement mis à jour",
-                                        "L'événement « " + request.getTitle() + " » a été modifié" + (whenLabel.isEmpty() ? "." : " — " + whenLabel + "."),
-                                        Notification.NotificationType.REMINDER, e.getId(), "CALENDAR");
-                            } catch (Exception ignore) { }
+                            notifications.add(NotificationDTO.builder()
+                                    .userId(e.getUser().getId())
+                                    .title("Événement mis à jour")
+                                    .message("L'événement « " + request.getTitle() + " » a été modifié" + (whenLabel.isEmpty() ? "." : " — " + whenLabel + "."))
+                                    .type(Notification.NotificationType.REMINDER)
+                                    .referenceId(e.getId()).referenceType("CALENDAR")
+                                    .build());
                         }
+                        try { notificationService.createNotifications(notifications); } catch (Exception ignore) { }
                     }
 
                     return ApiResponse.success("Event updated successfully", convertToDTO(editedCopy));
@@ -97,12 +97,10 @@ public class CommentService {
         if (task.getAssignedTo() != null) recipientIds.add(task.getAssignedTo().getId());
         if (task.getCreatedBy() != null) recipientIds.add(task.getCreatedBy().getId());
         recipientIds.remove(userId);
-        for (Long recipientId : recipientIds) {
-            try {
-                notificationService.notifyComment(recipientId, commenterName, task.getName(), task.getId());
-            } catch (Exception ignored) {
-                // A notification failure must never break comment creation.
-            }
+        try {
+            notificationService.notifyComment(recipientIds, commenterName, task.getName(), task.getId());
+        } catch (Exception ignored) {
+            // A notification failure must never break comment creation.
         }
 
         return ApiResponse.success("Comment created successfully", convertToDTO(savedComment));
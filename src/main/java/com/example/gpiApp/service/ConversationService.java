@@ -0,0 +1,223 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.ConversationDTO;
+import com.example.gpiApp.dto.CursorResponse;
+import com.example.gpiApp.entity.Message;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.ConversationRepository;
+import com.example.gpiApp.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the per-user conversation inbox so listing conversations does not read message history.
+ *
+ * Each user has one row per thread (a direct conversation with another user, or a project chat)
+ * holding the id of the thread's latest message and the user's unread count. Sending advances the
+ * rows of both participants with an upsert; reading and deleting adjust them in the caller's
+ * transaction. The inbox is served newest-first by keyset on the latest message id. A
+ * reconciliation pass (at startup and nightly) rebuilds the rows from grouped message queries and
+ * rewrites only the ones that drifted, which also backfills threads that predate the table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConversationService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+
+    public static String directKey(Long otherUserId) {
+        return "user_" + otherUserId;
+    }
+
+    public static String projectKey(Long projectId) {
+        return "project_" + projectId;
+    }
+
+    /**
+     * One page of the user's inbox, newest thread first. {@code before} is the {@code nextCursor}
+     * of the previous page (null for the first page).
+     */
+    @Transactional(readOnly = true)
+    public CursorResponse<ConversationDTO> getInbox(Long userId, Long before, int limit) {
+        int size = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        List<ConversationRepository.InboxRow> rows = conversationRepository.findInbox(
+                userId, before != null ? before : Long.MAX_VALUE, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<ConversationDTO> page = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            page.add(toDTO(rows.get(i)));
+        }
+        Long nextCursor = page.isEmpty() ? null : page.get(page.size() - 1).getLastMessageId();
+        return CursorResponse.of(page, nextCursor, hasMore);
+    }
+
+    /** Moves the thread of a just-saved message to the top of each participant's inbox. */
+    public void messageSent(Message message) {
+        Long senderId = idOf(message.getSender());
+        Long recipientId = idOf(message.getRecipient());
+        if (senderId == null || message.getId() == null) return;
+        boolean toSelf = senderId.equals(recipientId);
+        if (message.getProject() != null) {
+            Long projectId = message.getProject().getId();
+            String key = projectKey(projectId);
+            conversationRepository.advance(senderId, key, null, projectId, message.getId(), toSelf ? 1 : 0);
+            if (recipientId != null && !toSelf) {
+                conversationRepository.advance(recipientId, key, null, projectId, message.getId(), 1);
+            }
+        } else if (recipientId != null) {
+            conversationRepository.advance(senderId, directKey(recipientId), recipientId, null, message.getId(), toSelf ? 1 : 0);
+            if (!toSelf) {
+                conversationRepository.advance(recipientId, directKey(senderId), senderId, null, message.getId(), 1);
+            }
+        }
+    }
+
+    /** Every direct message from {@code senderId} to {@code recipientId} was marked read. */
+    public void conversationRead(Long recipientId, Long senderId) {
+        if (recipientId == null || senderId == null) return;
+        conversationRepository.resetUnread(recipientId, directKey(senderId));
+    }
+
+    /** A single unread message was marked read by its recipient. */
+    public void messageRead(Message message) {
+        Long recipientId = idOf(message.getRecipient());
+        if (recipientId == null) return;
+        conversationRepository.decrementUnread(recipientId, threadKeyFor(message, recipientId));
+    }
+
+    /**
+     * Re-points the affected rows after {@code message} was deleted (and flushed): the thread's
+     * previous message becomes the head, or the row goes away with the thread's last message.
+     */
+    public void messageDeleted(Message message) {
+        Long senderId = idOf(message.getSender());
+        Long recipientId = idOf(message.getRecipient());
+        if (senderId != null) refresh(senderId, message);
+        if (recipientId != null && !recipientId.equals(senderId)) refresh(recipientId, message);
+    }
+
+    private void refresh(Long userId, Message message) {
+        String key = threadKeyFor(message, userId);
+        List<Long> head;
+        long unread;
+        Long otherUserId = null;
+        Long projectId = null;
+        if (message.getProject() != null) {
+            projectId = message.getProject().getId();
+            head = messageRepository.findProjectThreadHead(userId, projectId, PageRequest.of(0, 1));
+            unread = head.isEmpty() ? 0 : messageRepository.countUnreadInProject(userId, projectId);
+        } else {
+            otherUserId = userId.equals(idOf(message.getSender())) ? idOf(message.getRecipient()) : idOf(message.getSender());
+            if (otherUserId == null) return;
+            head = messageRepository.findDirectThreadHead(userId, otherUserId, PageRequest.of(0, 1));
+            unread = head.isEmpty() ? 0 : messageRepository.countUnreadDirect(userId, otherUserId);
+        }
+        if (head.isEmpty()) {
+            conversationRepository.deleteThread(userId, key);
+        } else {
+            conversationRepository.setThread(userId, key, otherUserId, projectId, head.get(0), (int) unread);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /** Rebuilds every inbox row from the messages and rewrites the rows that drifted. */
+    @Scheduled(cron = "${messages.conversations.reconcile-cron:0 45 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        Map<ThreadRef, long[]> expected = new HashMap<>();   // {lastMessageId, unread}
+        for (MessageRepository.DirectPairStat s : messageRepository.findDirectPairStats()) {
+            long[] senderSide = expected.computeIfAbsent(new ThreadRef(s.getSenderId(), s.getRecipientId(), null), t -> new long[2]);
+            senderSide[0] = Math.max(senderSide[0], s.getLastMessageId());
+            long[] recipientSide = expected.computeIfAbsent(new ThreadRef(s.getRecipientId(), s.getSenderId(), null), t -> new long[2]);
+            recipientSide[0] = Math.max(recipientSide[0], s.getLastMessageId());
+            recipientSide[1] += s.getUnread() != null ? s.getUnread() : 0;
+        }
+        List<MessageRepository.ProjectThreadStat> projectStats = new ArrayList<>(messageRepository.findProjectSenderStats());
+        projectStats.addAll(messageRepository.findProjectRecipientStats());
+        for (MessageRepository.ProjectThreadStat s : projectStats) {
+            long[] side = expected.computeIfAbsent(new ThreadRef(s.getUserId(), null, s.getProjectId()), t -> new long[2]);
+            side[0] = Math.max(side[0], s.getLastMessageId());
+            side[1] += s.getUnread() != null ? s.getUnread() : 0;
+        }
+
+        Map<String, ConversationRepository.SummaryRow> actual = new HashMap<>();
+        for (ConversationRepository.SummaryRow row : conversationRepository.findSummaryRows()) {
+            actual.put(row.getUserId() + ":" + row.getThreadKey(), row);
+        }
+        int fixed = 0;
+        for (Map.Entry<ThreadRef, long[]> e : expected.entrySet()) {
+            ThreadRef t = e.getKey();
+            long[] v = e.getValue();
+            ConversationRepository.SummaryRow row = actual.remove(t.userId + ":" + t.key());
+            if (row == null || !Objects.equals(row.getLastMessageId(), v[0])
+                    || !Objects.equals(row.getUnreadCount(), (int) v[1])) {
+                conversationRepository.reconcileThread(t.userId, t.key(), t.otherUserId, t.projectId, v[0], (int) v[1],
+                        row != null ? row.getLastMessageId() : null);
+                fixed++;
+            }
+        }
+        for (ConversationRepository.SummaryRow stale : actual.values()) {
+            conversationRepository.deleteThread(stale.getUserId(), stale.getThreadKey());
+            fixed++;
+        }
+        if (fixed > 0) {
+            log.info("Conversation inbox reconciliation corrected {} thread row(s)", fixed);
+        }
+    }
+
+    private static String threadKeyFor(Message message, Long userId) {
+        if (message.getProject() != null) return projectKey(message.getProject().getId());
+        Long senderId = idOf(message.getSender());
+        return directKey(userId.equals(senderId) ? idOf(message.getRecipient()) : senderId);
+    }
+
+    private static Long idOf(allUsers user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static ConversationDTO toDTO(ConversationRepository.InboxRow row) {
+        return ConversationDTO.builder()
+                .threadKey(row.getThreadKey())
+                .otherUserId(row.getOtherUserId())
+                .otherUserName(row.getOtherUserId() != null ? row.getOtherFirstName() + " " + row.getOtherLastName() : null)
+                .projectId(row.getProjectId())
+                .projectName(row.getProjectName())
+                .lastMessageId(row.getLastMessageId())
+                .lastMessage(row.getLastMessage())
+                .lastAttachmentType(row.getLastAttachmentType())
+                .lastMessageTime(row.getLastMessageTime())
+                .lastSenderId(row.getLastSenderId())
+                .lastSenderName(row.getLastSenderFirstName() + " " + row.getLastSenderLastName())
+                .unreadCount(row.getUnreadCount())
+                .build();
+    }
+
+    /** A user's thread: with {@code otherUserId} for direct messages, in {@code projectId} otherwise. */
+    private record ThreadRef(Long userId, Long otherUserId, Long projectId) {
+        String key() {
+            return projectId != null ? projectKey(projectId) : directKey(otherUserId);
+        }
+    }
+}
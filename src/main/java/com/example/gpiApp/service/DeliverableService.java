@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -96,24 +97,16 @@ public class DeliverableService {
                     + " submitted \"" + savedDeliverable.getFileName()
                     + "\" for task \"" + task.getName() + "\"";
 
-            // Notify the project manager
+            // Notify the project manager and all admins in one batch
+            List<Long> recipientIds = new ArrayList<>(userRepository.findIdsByRole(allUsers.Role.ADMIN));
             if (task.getProject() != null && task.getProject().getManager() != null) {
-                notificationService.createNotification(
-                        task.getProject().getManager().getId(),
-                        notifTitle, notifMsg,
-                        Notification.NotificationType.TASK_UPDATED,
-                        savedDeliverable.getId(), "DELIVERABLE"
-                );
+                recipientIds.add(task.getProject().getManager().getId());
             }
-
-            // Notify all admins
-            userRepository.findByRole(allUsers.Role.ADMIN).forEach(admin ->
-                notificationService.createNotification(
-                        admin.getId(),
-                        notifTitle, notifMsg,
-                        Notification.NotificationType.TASK_UPDATED,
-                        savedDeliverable.getId(), "DELIVERABLE"
-                )
+            notificationService.createNotifications(
+                    recipientIds,
+                    notifTitle, notifMsg,
+                    Notification.NotificationType.TASK_UPDATED,
+                    savedDeliverable.getId(), "DELIVERABLE"
             );
 
             return ApiResponse.success("Deliverable submitted successfully", convertToDTOSafe(savedDeliverable));
@@ -0,0 +1,395 @@
+package com.example.gpiApp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Country lookups for the security console, answered from memory.
+ *
+ * IPv4 ranges are loaded at startup from the CSV at {@code geoip.database} ({@code start,end,country}
+ * rows, as in the DB-IP and IP2Location LITE country files; bounds may be dotted or integer, IPv6
+ * rows are skipped) into sorted {@code long} arrays searched by bisection. The bundled file only
+ * knows the reserved ranges; point the property at a full country file to resolve public addresses
+ * offline. An address the file does not cover reads "Inconnu" at once; when
+ * {@code geoip.online-lookup} is on it is also queued for a background thread that asks ip-api.com
+ * in batches of {@link #ONLINE_BATCH} and keeps the answers in a bounded LRU
+ * ({@code geoip.cache-size}), so the next lookup finds it. A batch that fails as a whole (timeout,
+ * rate limit, error status) is not cached: its addresses are asked again once online lookups resume,
+ * {@link #ONLINE_RETRY_MS} later. No request ever waits on the network.
+ */
+@Slf4j
+@Service
+public class GeoIpService implements MeterBinder {
+
+    static final String UNKNOWN = "Inconnu";
+    /** Most addresses ip-api.com accepts in one batch request. */
+    static final int ONLINE_BATCH = 100;
+    private static final int MAX_PENDING = 1_000;
+    /** Pause after a failed batch before anything is sent online again. */
+    static final long ONLINE_RETRY_MS = 60_000;
+    private static final String ONLINE_URL = "http://ip-api.com/batch?fields=status,query,countryCode";
+
+    private final Resource database;
+    private final boolean onlineLookup;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Ranges ranges = Ranges.EMPTY;
+    private final Map<String, String> cache;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    /** Epoch millis before which nothing is queued online, set when a batch fails. */
+    volatile long onlinePausedUntil;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService online = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "geoip-online");
+        t.setDaemon(true);
+        return t;
+    });
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public GeoIpService(@Value("${geoip.database:classpath:geoip/ip-country.csv}") Resource database,
+                        @Value("${geoip.cache-size:10000}") int cacheSize,
+                        @Value("${geoip.online-lookup:true}") boolean onlineLookup) {
+        this(database, cacheSize, onlineLookup, HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build());
+    }
+
+    GeoIpService(Resource database, int cacheSize, boolean onlineLookup, HttpClient http) {
+        this.database = database;
+        this.onlineLookup = onlineLookup;
+        this.http = http;
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    void load() {
+        try (Reader reader = new InputStreamReader(database.getInputStream(), StandardCharsets.UTF_8)) {
+            long started = System.nanoTime();
+            ranges = Ranges.parse(reader);
+            log.info("GeoIP database {} loaded: {} IPv4 ranges in {} ms", database.getDescription(),
+                    ranges.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("GeoIP database {} unavailable, countries come from online lookups only: {}",
+                    database.getDescription(), e.getMessage());
+        }
+    }
+
+    /** Country of {@code ip}, or "Inconnu" when it is not known yet. */
+    public String country(String ip) {
+        String found = known(ip);
+        if (found != null) return found;
+        queueOnline(List.of(ip));
+        return UNKNOWN;
+    }
+
+    /** Countries of many addresses at once; unknown ones go to the online queue together. */
+    public Map<String, String> countries(Collection<String> ips) {
+        Map<String, String> result = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String ip : ips) {
+            if (ip == null || result.containsKey(ip)) continue;
+            String found = known(ip);
+            result.put(ip, found != null ? found : UNKNOWN);
+            if (found == null) unknown.add(ip);
+        }
+        queueOnline(unknown);
+        return result;
+    }
+
+    private String known(String ip) {
+        String found = ranges.find(ip);
+        if (found != null) {
+            databaseHits.increment();
+            return found;
+        }
+        synchronized (cache) {
+            found = cache.get(ip);
+        }
+        if (found != null) {
+            cacheHits.increment();
+            return found;
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void queueOnline(Collection<String> ips) {
+        if (!onlineLookup || ips.isEmpty() || System.currentTimeMillis() < onlinePausedUntil) return;
+        for (String ip : ips) {
+            if (pending.size() >= MAX_PENDING) break;
+            if (!inFlight.contains(ip)) pending.add(ip);
+        }
+        if (draining.compareAndSet(false, true)) online.execute(this::drain);
+    }
+
+    /**
+     * Resolves the queued addresses in batches. Addresses ip-api.com could not place are cached as
+     * unknown; a failed batch is dropped uncached, with the rest of the queue, until the pause ends.
+     */
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                List<String> batch = new ArrayList<>(ONLINE_BATCH);
+                for (Iterator<String> it = pending.iterator(); it.hasNext() && batch.size() < ONLINE_BATCH; ) {
+                    String ip = it.next();
+                    inFlight.add(ip); // before leaving pending, so a lookup meanwhile does not queue it again
+                    batch.add(ip);
+                    it.remove();
+                }
+                Map<String, String> found = fetchOnline(batch);
+                if (found == null) {
+                    onlinePausedUntil = System.currentTimeMillis() + ONLINE_RETRY_MS;
+                    batch.forEach(inFlight::remove);
+                    pending.clear();
+                    return;
+                }
+                synchronized (cache) {
+                    for (String ip : batch) cache.put(ip, found.getOrDefault(ip, UNKNOWN));
+                }
+                batch.forEach(inFlight::remove);
+            }
+        } finally {
+            draining.set(false);
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) online.execute(this::drain);
+        }
+    }
+
+    /** Country per address ip-api.com could place, or null when the request as a whole failed. */
+    private Map<String, String> fetchOnline(List<String> ips) {
+        Map<String, String> found = new HashMap<>();
+        try {
+            HttpRequest req = HttpRequest.newBuilder(URI.create(ONLINE_URL))
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(ips)))
+                    .build();
+            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() != 200 || resp.body() == null) {
+                log.debug("GeoIP batch lookup answered {}", resp.statusCode());
+                return null;
+            }
+            for (JsonNode row : objectMapper.readTree(resp.body())) {
+                if ("success".equals(row.path("status").asText())) {
+                    found.put(row.path("query").asText(), countryName(row.path("countryCode").asText()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.debug("GeoIP batch lookup of {} addresses failed: {}", ips.size(), e.getMessage());
+            return null;
+        }
+        return found;
+    }
+
+    /** French display name for an ISO country code; any other label is kept as written. */
+    static String countryName(String code) {
+        if (code == null || code.isBlank() || code.equals("-")) return UNKNOWN;
+        if (code.length() != 2 || !Character.isLetter(code.charAt(0)) || !Character.isLetter(code.charAt(1))) {
+            return code;
+        }
+        String upper = code.toUpperCase(Locale.ROOT);
+        String name = new Locale("", upper).getDisplayCountry(Locale.FRENCH);
+        return name.isBlank() || name.equals(upper) ? upper : name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        online.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("geoip.ranges", this, s -> s.ranges.size())
+                .description("IPv4 ranges in the local GeoIP database")
+                .register(registry);
+        FunctionCounter.builder("geoip.lookups", databaseHits, LongAdder::sum)
+                .tag("source", "database")
+                .description("Country lookups answered by the local GeoIP database")
+                .register(registry);
+        FunctionCounter.builder("geoip.lookups", cacheHits, LongAdder::sum)
+                .tag("source", "cache")
+                .description("Country lookups answered from cached online results")
+                .register(registry);
+        FunctionCounter.builder("geoip.lookups", misses, LongAdder::sum)
+                .tag("source", "none")
+                .description("Country lookups that found nothing locally")
+                .register(registry);
+        Gauge.builder("geoip.online.pending", pending, Set::size)
+                .description("Addresses waiting for the background online lookup")
+                .register(registry);
+    }
+
+    /** Sorted, non-overlapping IPv4 ranges: {@code starts[i]..ends[i]} is in {@code names[country[i]]}. */
+    static final class Ranges {
+        static final Ranges EMPTY = new Ranges(new long[0], new long[0], new int[0], new String[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+        private final int[] country;
+        private final String[] names;
+
+        private Ranges(long[] starts, long[] ends, int[] country, String[] names) {
+            this.starts = starts;
+            this.ends = ends;
+            this.country = country;
+            this.names = names;
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        /** Country of an IPv4 (or IPv4-mapped IPv6) address, or null when no range holds it. */
+        String find(String ip) {
+            long address = ipv4(ip);
+            if (address < 0 || starts.length == 0) return null;
+            int i = Arrays.binarySearch(starts, address);
+            if (i < 0) i = -i - 2;
+            return i >= 0 && address <= ends[i] ? names[country[i]] : null;
+        }
+
+        static Ranges parse(Reader source) throws IOException {
+            long[] starts = new long[1024];
+            long[] ends = new long[1024];
+            int[] country = new int[1024];
+            Map<String, Integer> nameIndex = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            int n = 0, skipped = 0;
+            BufferedReader reader = new BufferedReader(source);
+            for (String line; (line = reader.readLine()) != null; ) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] cols = line.split(",", 4);
+                long start = cols.length >= 3 ? bound(cols[0]) : -1;
+                long end = cols.length >= 3 ? bound(cols[1]) : -1;
+                if (start < 0 || end < start) {
+                    skipped++;
+                    continue;
+                }
+                String name = countryName(unquote(cols[2]));
+                if (n == starts.length) {
+                    starts = Arrays.copyOf(starts, n * 2);
+                    ends = Arrays.copyOf(ends, n * 2);
+                    country = Arrays.copyOf(country, n * 2);
+                }
+                starts[n] = start;
+                ends[n] = end;
+                country[n] = nameIndex.computeIfAbsent(name, k -> {
+                    names.add(k);
+                    return names.size() - 1;
+                });
+                n++;
+            }
+            if (skipped > 0) log.debug("GeoIP database: skipped {} non-IPv4 or malformed rows", skipped);
+            return sorted(Arrays.copyOf(starts, n), Arrays.copyOf(ends, n), Arrays.copyOf(country, n),
+                    names.toArray(String[]::new));
+        }
+
+        /** Country files are normally sorted already; this only pays for a sort when one is not. */
+        private static Ranges sorted(long[] starts, long[] ends, int[] country, String[] names) {
+            boolean ordered = true;
+            for (int i = 1; i < starts.length && ordered; i++) ordered = starts[i - 1] <= starts[i];
+            if (ordered) return new Ranges(starts, ends, country, names);
+            Integer[] order = new Integer[starts.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+            long[] s = new long[order.length], e = new long[order.length];
+            int[] c = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                s[i] = starts[order[i]];
+                e[i] = ends[order[i]];
+                c[i] = country[order[i]];
+            }
+            return new Ranges(s, e, c, names);
+        }
+
+        /** A range bound: dotted IPv4 or its unsigned integer value; -1 for anything else. */
+        private static long bound(String raw) {
+            String value = unquote(raw);
+            if (value.indexOf('.') >= 0) return ipv4(value);
+            if (value.isEmpty() || value.length() > 10) return -1;
+            for (int i = 0; i < value.length(); i++) {
+                if (!Character.isDigit(value.charAt(i))) return -1;
+            }
+            long parsed = Long.parseLong(value);
+            return parsed <= 0xFFFF_FFFFL ? parsed : -1;
+        }
+
+        private static String unquote(String raw) {
+            String value = raw.strip();
+            return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                    ? value.substring(1, value.length() - 1).strip() : value;
+        }
+
+        /** Dotted IPv4 (optionally IPv4-mapped IPv6) to an unsigned value, without any DNS; -1 if not one. */
+        static long ipv4(String ip) {
+            if (ip == null) return -1;
+            String s = ip.strip();
+            if (s.regionMatches(true, 0, "::ffff:", 0, 7)) s = s.substring(7);
+            long value = 0;
+            int octets = 0, octet = -1;
+            for (int i = 0; i <= s.length(); i++) {
+                char c = i < s.length() ? s.charAt(i) : '.';
+                if (c == '.') {
+                    if (octet < 0 || ++octets > 4) return -1;
+                    value = value << 8 | octet;
+                    octet = -1;
+                } else if (c >= '0' && c <= '9') {
+                    octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                    if (octet > 255) return -1;
+                } else {
+                    return -1;
+                }
+            }
+            return octets == 4 ? value : -1;
+        }
+    }
+}
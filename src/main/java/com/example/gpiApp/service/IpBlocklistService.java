@@ -0,0 +1,290 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.BlockedIp;
+import com.example.gpiApp.repository.BlockedIpRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code blocked_ips} table held in memory, so a blocked source is refused without a database
+ * round-trip.
+ *
+ * An entry is a single address ({@code 203.0.113.7}) or a CIDR range ({@code 203.0.113.0/24},
+ * {@code 2001:db8::/32}). Single addresses live in a concurrent hash map keyed by their canonical
+ * form, holding when the block expires; ranges live in a binary prefix trie per address family,
+ * rebuilt on every range change and swapped in whole, so lookups never lock. The set is loaded
+ * before the web server starts taking requests, follows {@code blockIp}/{@code unblockIp} once their
+ * transaction commits, and is re-read every {@code security.blocklist.refresh-ms} to pick up blocks
+ * made on other nodes. That refresh also deletes expired automatic blocks; an expired address stops
+ * matching at once, an expired range at the next refresh.
+ *
+ * Every in-memory entry carries the sequence number of the change that added it. A refresh only
+ * replaces or drops entries added before it started reading the table, so a block committed while
+ * the rows were being read is kept even though the refresh did not see it.
+ */
+@Slf4j
+@Service
+public class IpBlocklistService implements MeterBinder {
+
+    /** Only literals are parsed, so a typo never becomes a DNS lookup. */
+    private static final Pattern IPV4 = Pattern.compile("((25[0-5]|2[0-4]\\d|1?\\d?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1?\\d?\\d)");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final BlockedIpRepository blockedIpRepository;
+
+    /** Canonical address → when its block expires and which change added it. */
+    private final Map<String, Block> addresses = new ConcurrentHashMap<>();
+    /** Canonical range → sequence number of the change that added it. */
+    private final Map<String, Long> ranges = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile PrefixTrie trie = PrefixTrie.EMPTY;
+    private final LongAdder rejected = new LongAdder();
+
+    public IpBlocklistService(BlockedIpRepository blockedIpRepository) {
+        this.blockedIpRepository = blockedIpRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Could not load blocked IPs, retrying on the next refresh: {}", e.getMessage());
+        }
+    }
+
+    /** Drops expired blocks and re-reads {@code blocked_ips}; rows that are not a valid address or range are skipped. */
+    @Scheduled(fixedDelayString = "${security.blocklist.refresh-ms:60000}",
+            initialDelayString = "${security.blocklist.refresh-ms:60000}")
+    public void reload() {
+        long startedAt = changes.get(); // entries stamped later were added while the table was read
+        LocalDateTime now = LocalDateTime.now();
+        int expired = blockedIpRepository.deleteExpired(now);
+        if (expired > 0) log.info("Lifted {} expired IP block(s)", expired);
+        Map<String, Long> loadedAddresses = new HashMap<>();
+        Set<String> loadedRanges = new HashSet<>();
+        for (BlockedIp row : blockedIpRepository.findAll()) {
+            Entry entry = parse(row.getIpAddress());
+            if (entry == null) {
+                log.warn("Ignoring blocked IP entry '{}': not an address or CIDR range", row.getIpAddress());
+            } else if (row.getExpiresAt() != null && !row.getExpiresAt().isAfter(now)) {
+                continue;
+            } else if (entry.isRange()) {
+                loadedRanges.add(entry.canonical());
+            } else {
+                loadedAddresses.put(entry.canonical(), expiryMillis(row.getExpiresAt()));
+            }
+        }
+        loadedAddresses.forEach((key, until) -> addresses.merge(key, new Block(until, startedAt),
+                (current, loaded) -> current.addedAt() > startedAt ? current : loaded));
+        addresses.entrySet().removeIf(e -> e.getValue().addedAt() <= startedAt && !loadedAddresses.containsKey(e.getKey()));
+        synchronized (ranges) {
+            loadedRanges.forEach(range -> ranges.merge(range, startedAt,
+                    (current, loaded) -> current > startedAt ? current : loaded));
+            ranges.entrySet().removeIf(e -> e.getValue() <= startedAt && !loadedRanges.contains(e.getKey()));
+            rebuildTrie();
+        }
+    }
+
+    /** Whether the address is blocked, exactly or by a range; false for anything that is not an IP literal. */
+    public boolean isBlocked(String ip) {
+        byte[] address = literal(ip);
+        if (address == null) return false;
+        String key = canonical(address);
+        Block block = addresses.get(key);
+        if (block != null) {
+            if (block.until() > System.currentTimeMillis()) return true;
+            addresses.remove(key, block);
+        }
+        return trie.matches(address);
+    }
+
+    /** Counts a request refused because its source is blocked. */
+    public void recordRejection() {
+        rejected.increment();
+    }
+
+    /** Starts refusing {@code entry} once the current transaction commits. */
+    public void block(String entry) {
+        block(entry, null);
+    }
+
+    /** Starts refusing {@code entry} once the current transaction commits, until {@code expiresAt} (null: never). */
+    public void block(String entry, LocalDateTime expiresAt) {
+        Entry parsed = require(entry);
+        long until = expiryMillis(expiresAt);
+        TransactionHooks.afterCommit(() -> {
+            if (!parsed.isRange()) {
+                addresses.put(parsed.canonical(), new Block(until, changes.incrementAndGet()));
+                return;
+            }
+            synchronized (ranges) {
+                if (ranges.put(parsed.canonical(), changes.incrementAndGet()) == null) rebuildTrie();
+            }
+        });
+    }
+
+    /** Stops refusing {@code entry} once the current transaction commits. */
+    public void unblock(String entry) {
+        Entry parsed = parse(entry);
+        if (parsed == null) return;
+        TransactionHooks.afterCommit(() -> {
+            if (!parsed.isRange()) {
+                addresses.remove(parsed.canonical());
+                return;
+            }
+            synchronized (ranges) {
+                if (ranges.remove(parsed.canonical()) != null) rebuildTrie();
+            }
+        });
+    }
+
+    /**
+     * The stored form of an address or range: {@code 10.1.2.3}, {@code 10.0.0.0/8} (host bits
+     * cleared), IPv6 in {@link InetAddress#getHostAddress()} form. A full-length prefix is an address.
+     */
+    public static String normalize(String entry) {
+        return require(entry).canonical();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.blocklist.entries", addresses, Map::size)
+                .tag("kind", "address")
+                .description("Blocked single IP addresses held in memory")
+                .register(registry);
+        Gauge.builder("security.blocklist.entries", ranges, Map::size)
+                .tag("kind", "range")
+                .description("Blocked CIDR ranges held in memory")
+                .register(registry);
+        FunctionCounter.builder("security.blocklist.rejected", rejected, LongAdder::sum)
+                .description("Requests refused because their source IP is blocked")
+                .register(registry);
+    }
+
+    /** Callers hold the {@code ranges} monitor. */
+    private void rebuildTrie() {
+        PrefixTrie rebuilt = new PrefixTrie();
+        for (String range : ranges.keySet()) {
+            Entry entry = parse(range);
+            if (entry != null) rebuilt.insert(entry.address(), entry.prefix());
+        }
+        trie = rebuilt;
+    }
+
+    private static long expiryMillis(LocalDateTime expiresAt) {
+        return expiresAt == null ? Long.MAX_VALUE : expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Entry require(String entry) {
+        Entry parsed = parse(entry);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Not an IP address or CIDR range: " + entry);
+        }
+        return parsed;
+    }
+
+    static Entry parse(String raw) {
+        if (raw == null) return null;
+        String value = raw.trim();
+        int slash = value.indexOf('/');
+        byte[] address = literal(slash < 0 ? value : value.substring(0, slash));
+        if (address == null) return null;
+        int bits = address.length * 8;
+        int prefix = bits;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(value.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (prefix < 0 || prefix > bits) return null;
+        }
+        for (int bit = prefix; bit < bits; bit++) {
+            address[bit >> 3] &= (byte) ~(0x80 >>> (bit & 7));
+        }
+        String canonical = canonical(address);
+        return new Entry(address, prefix, prefix == bits ? canonical : canonical + "/" + prefix);
+    }
+
+    private static byte[] literal(String ip) {
+        if (ip == null) return null;
+        String value = ip.trim();
+        if (!IPV4.matcher(value).matches() && !IPV6.matcher(value).matches()) return null;
+        try {
+            return InetAddress.getByName(value).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static String canonical(byte[] address) {
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A blocked address: epoch millis at which it expires ({@link Long#MAX_VALUE}: never), and its change number. */
+    private record Block(long until, long addedAt) {
+    }
+
+    record Entry(byte[] address, int prefix, String canonical) {
+        boolean isRange() {
+            return prefix < address.length * 8;
+        }
+    }
+
+    /** One bit per level; a node marked {@code blocked} covers everything below it. */
+    static final class PrefixTrie {
+        static final PrefixTrie EMPTY = new PrefixTrie();
+
+        private final Node v4 = new Node();
+        private final Node v6 = new Node();
+
+        void insert(byte[] address, int prefix) {
+            Node node = address.length == 4 ? v4 : v6;
+            for (int bit = 0; bit < prefix && !node.blocked; bit++) {
+                int b = (address[bit >> 3] >> (7 - (bit & 7))) & 1;
+                if (node.children[b] == null) node.children[b] = new Node();
+                node = node.children[b];
+            }
+            node.blocked = true;
+        }
+
+        boolean matches(byte[] address) {
+            Node node = address.length == 4 ? v4 : v6;
+            for (int bit = 0; node != null; bit++) {
+                if (node.blocked) return true;
+                if (bit == address.length * 8) return false;
+                node = node.children[(address[bit >> 3] >> (7 - (bit & 7))) & 1];
+            }
+            return false;
+        }
+
+        private static final class Node {
+            final Node[] children = new Node[2];
+            boolean blocked;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.gpiApp.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -13,15 +14,20 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Resolves the "real" client IP (substituting the machine's actual public/LAN IP when a request
- * arrives over loopback, e.g. local dev) and looks up a country for an IP via a free GeoIP service.
- * Everything is cached so the security pages stay fast.
+ * arrives over loopback, e.g. local dev) and looks up a country for an IP through
+ * {@link GeoIpService}, which answers from memory. The machine IP is cached so the security pages
+ * stay fast.
  */
 @Slf4j
 @Service
@@ -31,9 +37,15 @@ public class IpResolverService {
             .connectTimeout(Duration.ofSeconds(2))
             .build();
 
+    private final GeoIpService geoIp;
+    private final Pattern trustedProxies;                  // server.tomcat.remoteip.internal-proxies, if set
     private volatile String machineIp;                     // cached real machine IP (public, else LAN)
-    private final ConcurrentHashMap<String, String> countryCache = new ConcurrentHashMap<>();
-    private static final Pattern COUNTRY = Pattern.compile("\"country\"\\s*:\\s*\"([^\"]*)\"");
+
+    public IpResolverService(GeoIpService geoIp,
+                             @Value("${server.tomcat.remoteip.internal-proxies:}") String internalProxies) {
+        this.geoIp = geoIp;
+        this.trustedProxies = compile(internalProxies);
+    }
 
     /** Resolve the machine IP in the background at startup so the first request isn't delayed. */
     @jakarta.annotation.PostConstruct
@@ -43,20 +55,31 @@ public class IpResolverService {
         t.start();
     }
 
-    /** Best client IP for a request: X-Forwarded-For, else remote addr; loopback → the real machine IP. */
+    /**
+     * Client IP of a request; loopback → the real machine IP. X-Forwarded-For is never read here:
+     * Tomcat applies it to the remote address only when the connection comes from a trusted proxy
+     * ({@code server.tomcat.remoteip.internal-proxies}), so a client cannot pick the address that gets
+     * throttled or blocked.
+     */
     public String resolveClientIp(HttpServletRequest request) {
-        String ip = null;
-        if (request != null) {
-            String fwd = request.getHeader("X-Forwarded-For");
-            if (fwd != null && !fwd.isBlank()) ip = fwd.split(",")[0].trim();
-            else ip = request.getRemoteAddr();
-        }
+        String ip = request != null ? request.getRemoteAddr() : null;
         if (ip == null || ip.isBlank() || isLoopback(ip)) {
             return getMachineIp();
         }
         return ip;
     }
 
+    /**
+     * Whether failed logins from {@code ip} may get it blocked automatically. Loopback, private and
+     * trusted-proxy addresses and this machine's own IP (what loopback resolves to) are refused: many
+     * clients can share them, so one block would lock everyone out.
+     */
+    public boolean mayAutoBlock(String ip) {
+        if (ip == null || ip.isBlank() || isPrivate(ip)) return false;
+        if (ip.equals(machineIp)) return false;
+        return trustedProxies == null || !trustedProxies.matcher(ip).matches();
+    }
+
     /** Resolve the IP of the request currently being handled (for code paths without a request param). */
     public String resolveCurrentRequestIp() {
         try {
@@ -81,14 +104,37 @@ public class IpResolverService {
         }
     }
 
-    /** Country name for an IP via ip-api.com (cached). Private/loopback addresses → "Réseau local". */
+    /** Country name for an IP, never waiting on the network. Private/loopback addresses → "Réseau local". */
     public String lookupCountry(String ip) {
         if (ip == null || ip.isBlank()) return "Inconnu";
         if (isPrivate(ip)) return "Réseau local";
-        return countryCache.computeIfAbsent(ip, this::fetchCountry);
+        return geoIp.country(ip);
+    }
+
+    /** {@link #lookupCountry} for a list of IPs, sending the unknown ones online as one batch. */
+    public Map<String, String> lookupCountries(Collection<String> ips) {
+        Map<String, String> countries = new HashMap<>();
+        List<String> publicIps = new ArrayList<>();
+        for (String ip : ips) {
+            if (ip == null || ip.isBlank()) continue;
+            if (isPrivate(ip)) countries.put(ip, "Réseau local");
+            else publicIps.add(ip);
+        }
+        countries.putAll(geoIp.countries(publicIps));
+        return countries;
     }
 
     // ── helpers ───────────────────────────────────────────────────────────────
+    private static Pattern compile(String regex) {
+        if (regex == null || regex.isBlank()) return null;
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            log.warn("Ignoring invalid trusted proxy pattern '{}': {}", regex, e.getMessage());
+            return null;
+        }
+    }
+
     private String fetchPublicIp() {
         for (String url : new String[]{"https://api.ipify.org", "http://checkip.amazonaws.com"}) {
             try {
@@ -121,22 +167,6 @@ public class IpResolverService {
         return null;
     }
 
-    private String fetchCountry(String ip) {
-        try {
-            HttpRequest req = HttpRequest.newBuilder(
-                    URI.create("http://ip-api.com/json/" + ip + "?fields=status,country"))
-                    .timeout(Duration.ofSeconds(2)).GET().build();
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() == 200 && resp.body() != null) {
-                Matcher m = COUNTRY.matcher(resp.body());
-                if (m.find() && !m.group(1).isBlank()) return m.group(1);
-            }
-        } catch (Exception e) {
-            log.debug("GeoIP lookup failed for {}: {}", ip, e.getMessage());
-        }
-        return "Inconnu";
-    }
-
     private boolean isLoopback(String ip) {
         String s = ip.toLowerCase();
         return s.equals("127.0.0.1") || s.startsWith("127.") || s.equals("::1")
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +18,7 @@ import org.springframework.web.client.RestClient;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Client for the LangChain.js + Gemini sidecar microservice (see {@code ai-service/}).
@@ -23,14 +27,18 @@ import java.util.Optional;
  * and the API key live in the Node service (never in the browser). When the URL is blank or the
  * service is unreachable, calls return {@link Optional#empty()} and {@code AiChatService} falls
  * back to the in-JVM clients (OpenAI / Claude / Gemini) and finally the rule-based engine.
+ *
+ * Every sidecar call is timed as {@code ai.sidecar.requests}, tagged with its outcome
+ * (success, empty or error).
  */
 @Component
-public class LangChainAiClient {
+public class LangChainAiClient implements MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(LangChainAiClient.class);
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final RestClient restClient;
+    private volatile MeterRegistry meterRegistry;
 
     public LangChainAiClient(
             @Value("${ai.service.url:}") String baseUrl,
@@ -52,6 +60,11 @@ public class LangChainAiClient {
         return restClient != null;
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+
     /** Single-turn completion. */
     public Optional<String> complete(String systemPrompt, String userContent) {
         return chat(systemPrompt, List.of(Map.of("role", "user", "content", userContent == null ? "" : userContent)));
@@ -62,6 +75,8 @@ public class LangChainAiClient {
         if (!isEnabled() || turns == null || turns.isEmpty()) {
             return Optional.empty();
         }
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
             ObjectNode root = objectMapper.createObjectNode();
             if (systemPrompt != null) root.put("systemPrompt", systemPrompt);
@@ -81,11 +96,25 @@ public class LangChainAiClient {
                     .body(String.class);
             JsonNode node = objectMapper.readTree(response);
             String text = node.path("text").asText("");
+            outcome = text.isBlank() ? "empty" : "success";
             return text.isBlank() ? Optional.empty() : Optional.of(text.trim());
         } catch (Exception e) {
             // Sidecar down / errored — let the caller fall back to the next provider.
             log.warn("LangChain ai-service call failed, falling back: {}", e.getMessage());
             return Optional.empty();
+        } finally {
+            recordCall(outcome, System.nanoTime() - start);
         }
     }
+
+    private void recordCall(String outcome, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) return;
+        Timer.builder("ai.sidecar.requests")
+                .description("Calls to the LangChain AI sidecar")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.gpiApp.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket log-linear latency histogram (HdrHistogram-style), in milliseconds.
+ *
+ * Values below 8 ms get their own bucket; above that every power of two is split into 8 linear
+ * sub-buckets, so any recorded value is reported within 12.5% of its true value. Values above
+ * {@link #MAX_VALUE} (about 17 minutes) land in the last bucket. Each bucket is a {@link LongAdder},
+ * so {@link #record} never locks and never allocates once the histogram exists.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 19;
+
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) counts[i] = new LongAdder();
+    }
+
+    void record(long valueMs) {
+        counts[bucketOf(valueMs)].increment();
+    }
+
+    /** Adds this histogram's bucket counts into {@code acc} (length {@link #BUCKETS}). */
+    void addTo(long[] acc) {
+        for (int i = 0; i < BUCKETS; i++) acc[i] += counts[i].sum();
+    }
+
+    /** Clears all buckets. Not atomic with concurrent {@link #record} calls, which may survive it. */
+    void reset() {
+        for (LongAdder c : counts) c.reset();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return value < 0 ? 0 : (int) value;
+        if (value > MAX_VALUE) value = MAX_VALUE;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** Largest value that maps to {@code bucket}, i.e. what a percentile falling in it reports. */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Value at {@code percentile} (0–100) of accumulated bucket counts, or 0 when empty. Reported
+     * values are capped at {@code max} when known, so p99 never exceeds the largest recorded value.
+     */
+    static long percentile(long[] counts, long total, double percentile, long max) {
+        if (total <= 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long value = highestValueIn(i);
+                return max > 0 ? Math.min(value, max) : value;
+            }
+        }
+        return max;
+    }
+}
@@ -3,9 +3,7 @@ package com.example.gpiApp.service;
 import com.example.gpiApp.dto.LoginAttemptDTO;
 import com.example.gpiApp.dto.PagedResponse;
 import com.example.gpiApp.entity.LoginAttempt;
-import com.example.gpiApp.entity.allUsers;
 import com.example.gpiApp.repository.LoginAttemptRepository;
-import com.example.gpiApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,24 +23,21 @@ import java.util.stream.Collectors;
 public class LoginAttemptService {
     
     private final LoginAttemptRepository loginAttemptRepository;
-    private final UserRepository userRepository;
     private final com.example.gpiApp.repository.BlockedIpRepository blockedIpRepository;
     private final IpResolverService ipResolver;
+    private final AnalyticsRollupService analyticsRollups;
+    private final IpBlocklistService ipBlocklist;
+    private final AuditLogWriter auditLogWriter;
+    private final SecurityMetricsService securityMetrics;
     
-    @Transactional
+    /** Queued for {@link AuditLogWriter}, so a login never waits on the journal insert. */
     public void logLoginAttempt(String username, String email, LoginAttempt.LoginStatus status, 
                                String ipAddress, String userAgent, String reason, Long userId) {
-        LoginAttempt attempt = LoginAttempt.builder()
-                .username(username)
-                .email(email)
-                .status(status)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .reason(reason)
-                .user(userId != null ? userRepository.findById(userId).orElse(null) : null)
-                .build();
-        
-        loginAttemptRepository.save(attempt);
+        // The rollup follows the row once it is written, so a rebuild cannot read the table without it.
+        LocalDate day = LocalDate.now();
+        auditLogWriter.loginAttempt(username, email, status, ipAddress, userAgent, userId, reason,
+                () -> analyticsRollups.loginRecorded(status, userId, email, username, day));
+        securityMetrics.attemptRecorded(status, ipAddress, userId);
     }
     
     @Transactional(readOnly = true)
@@ -59,42 +54,24 @@ public class LoginAttemptService {
                 attemptPage.isFirst(), attemptPage.isLast());
     }
     
-    @Transactional(readOnly = true)
+    /** Served from {@link SecurityMetricsService}'s rolling counters; no query on {@code login_attempts}. */
     public Map<String, Object> getSecurityMetrics() {
         Map<String, Object> metrics = new HashMap<>();
+        SecurityMetricsService.Snapshot counters = securityMetrics.snapshot();
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        Long todayAttempts = loginAttemptRepository.countTodayLoginAttempts(startOfToday);
-        Long todayFailed = loginAttemptRepository.countTodayFailedLogins(LoginAttempt.LoginStatus.FAILURE, startOfToday);
-        Long todaySuccessful = loginAttemptRepository.countTodaySuccessfulLogins(LoginAttempt.LoginStatus.SUCCESS, startOfToday);
-        
+        metrics.put("dailyLoginAttempts", counters.todayAttempts());
+        metrics.put("failedLogins", counters.todayFailures());
+        metrics.put("successfulLogins", counters.todaySuccesses());
         // Active sessions: users who logged in successfully in the last 30 minutes
-        LocalDateTime thirtyMinutesAgo = LocalDateTime.now().minusMinutes(30);
-        Long activeSessions = loginAttemptRepository.countActiveSessionsSince(thirtyMinutesAgo, LoginAttempt.LoginStatus.SUCCESS);
-        
+        metrics.put("activeSessions", counters.activeSessions());
         // Security alerts: failed logins in last 24 hours
-        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-        List<LoginAttempt> recentFailed = loginAttemptRepository.findByAttemptedAtBetween(yesterday, LocalDateTime.now())
-                .stream()
-                .filter(a -> a.getStatus() == LoginAttempt.LoginStatus.FAILURE)
-                .collect(Collectors.toList());
-        
-        metrics.put("dailyLoginAttempts", todayAttempts != null ? todayAttempts : 0L);
-        metrics.put("failedLogins", todayFailed != null ? todayFailed : 0L);
-        metrics.put("successfulLogins", todaySuccessful != null ? todaySuccessful : 0L);
-        metrics.put("activeSessions", activeSessions != null ? activeSessions : 0L);
-        metrics.put("securityAlerts", (long) recentFailed.size());
+        metrics.put("securityAlerts", counters.failures24h());
 
         // Keys consumed by the admin frontend (SecurityMetrics)
-        long blockedIps = recentFailed.stream()
-                .map(LoginAttempt::getIpAddress)
-                .filter(ip -> ip != null && !ip.isBlank())
-                .distinct()
-                .count();
-        metrics.put("totalAttempts", loginAttemptRepository.count());
-        metrics.put("failedAttempts", todayFailed != null ? todayFailed : 0L);
-        metrics.put("successfulAttempts", todaySuccessful != null ? todaySuccessful : 0L);
-        metrics.put("blockedIps", blockedIps);
+        metrics.put("totalAttempts", counters.totalAttempts());
+        metrics.put("failedAttempts", counters.todayFailures());
+        metrics.put("successfulAttempts", counters.todaySuccesses());
+        metrics.put("blockedIps", counters.failingIps24h());
 
         return metrics;
     }
@@ -103,35 +80,73 @@ public class LoginAttemptService {
     public java.util.List<com.example.gpiApp.dto.SuspiciousIpDTO> getSuspiciousIps() {
         java.util.List<com.example.gpiApp.dto.SuspiciousIpDTO> ips =
                 loginAttemptRepository.findSuspiciousIps(LoginAttempt.LoginStatus.FAILURE);
+        Map<String, String> countries = ipResolver.lookupCountries(
+                ips.stream().map(com.example.gpiApp.dto.SuspiciousIpDTO::getIpAddress).toList());
         ips.forEach(ip -> {
-            ip.setCountry(ipResolver.lookupCountry(ip.getIpAddress()));   // GeoIP (cached)
+            ip.setCountry(countries.getOrDefault(ip.getIpAddress(), "Inconnu"));   // GeoIP, from memory
             // An IP is "Bloquée" only when an admin has actually blocked it; otherwise it is watched.
-            ip.setStatus(blockedIpRepository.existsByIpAddress(ip.getIpAddress()) ? "Bloquée" : "Surveillée");
+            ip.setStatus(ipBlocklist.isBlocked(ip.getIpAddress()) ? "Bloquée" : "Surveillée");
         });
         return ips;
     }
 
     // ── IP blocking (admin security console) ──────────────────────────────────
+    // Entries are single addresses or CIDR ranges, stored in canonical form; checks hit the
+    // in-memory IpBlocklistService, which follows these writes after commit.
     @Transactional
     public com.example.gpiApp.entity.BlockedIp blockIp(String ipAddress, String reason) {
         if (ipAddress == null || ipAddress.isBlank()) {
             throw new IllegalArgumentException("IP address is required");
         }
-        return blockedIpRepository.findByIpAddress(ipAddress).orElseGet(() ->
+        String entry = IpBlocklistService.normalize(ipAddress);
+        com.example.gpiApp.entity.BlockedIp blocked = blockedIpRepository.findByIpAddress(entry).orElseGet(() ->
                 blockedIpRepository.save(com.example.gpiApp.entity.BlockedIp.builder()
-                        .ipAddress(ipAddress)
+                        .ipAddress(entry)
                         .reason(reason != null ? reason : "Bloquée depuis la console de sécurité")
                         .build()));
+        if (blocked.getExpiresAt() != null) {
+            // An admin block of an automatically blocked IP makes it permanent.
+            blocked.setExpiresAt(null);
+            if (reason != null) blocked.setReason(reason);
+            blocked = blockedIpRepository.save(blocked);
+        }
+        ipBlocklist.block(entry);
+        return blocked;
+    }
+
+    /**
+     * Blocks an IP until {@code expiresAt} after too many failed logins. An existing admin block is
+     * left permanent; an existing automatic block is extended. Returns false, blocking nothing, for
+     * addresses many clients may share (see {@link IpResolverService#mayAutoBlock}).
+     */
+    @Transactional
+    public boolean autoBlockIp(String ipAddress, LocalDateTime expiresAt, String reason) {
+        if (!ipResolver.mayAutoBlock(ipAddress)) return false;
+        String entry = IpBlocklistService.normalize(ipAddress);
+        com.example.gpiApp.entity.BlockedIp blocked = blockedIpRepository.findByIpAddress(entry)
+                .orElseGet(() -> com.example.gpiApp.entity.BlockedIp.builder().ipAddress(entry).reason(reason).build());
+        if (blocked.getId() != null && blocked.getExpiresAt() == null) return true;
+        if (blocked.getExpiresAt() == null || blocked.getExpiresAt().isBefore(expiresAt)) {
+            blocked.setExpiresAt(expiresAt);
+        }
+        blockedIpRepository.save(blocked);
+        ipBlocklist.block(entry, blocked.getExpiresAt());
+        return true;
     }
 
     @Transactional
     public void unblockIp(String ipAddress) {
-        if (ipAddress != null) blockedIpRepository.deleteByIpAddress(ipAddress);
+        if (ipAddress == null) return;
+        blockedIpRepository.deleteByIpAddress(ipAddress);
+        IpBlocklistService.Entry entry = IpBlocklistService.parse(ipAddress);
+        if (entry != null && !entry.canonical().equals(ipAddress)) {
+            blockedIpRepository.deleteByIpAddress(entry.canonical());
+        }
+        ipBlocklist.unblock(ipAddress);
     }
 
-    @Transactional(readOnly = true)
     public boolean isIpBlocked(String ipAddress) {
-        return ipAddress != null && blockedIpRepository.existsByIpAddress(ipAddress);
+        return ipBlocklist.isBlocked(ipAddress);
     }
 
     @Transactional(readOnly = true)
@@ -142,6 +157,8 @@ public class LoginAttemptService {
     @Transactional
     public void deleteAllLoginAttempts() {
         loginAttemptRepository.deleteAll();
+        analyticsRollups.loginsCleared();
+        securityMetrics.cleared();
     }
 
     private LoginAttemptDTO convertToDTO(LoginAttempt attempt) {
@@ -0,0 +1,262 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.SystemSettings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Throttles password guessing in memory, per client IP and per account, so a brute-force run is
+ * shed before it costs a user lookup, a BCrypt check or a login-attempt row.
+ *
+ * Failed logins are counted over a sliding window as long as the lockout duration (System Settings →
+ * Sécurité), approximated with two fixed buckets, the previous one weighted by how much of it still
+ * overlaps the window. Past {@link #FREE_FAILURES} failures, each further attempt from the same IP or
+ * on the same account must wait twice as long as the previous one, up to {@link #MAX_DELAY_MS};
+ * attempts made earlier are answered 429 with {@code Retry-After}. An account reaching
+ * {@code maxLoginAttempts} is locked for the lockout duration; an IP reaching
+ * {@code ipMaxFailedLogins} is written to {@code blocked_ips} for {@code ipBlockMinutes}, after which
+ * {@code BlockedIpFilter} refuses all of its requests, unless it is an address clients may share
+ * (loopback, private, a trusted proxy or this machine), which only backs off. Windows are kept in one bounded map per key
+ * kind, split into lock stripes that evict their least recently used keys, so a spray of random
+ * usernames cannot grow the heap ({@code security.login-limiter.max-keys} per kind). Callers pass
+ * the account as the user's email once it is known, so a username and an email of the same user
+ * share one window; {@link #recordSuccess} must be given the same key.
+ */
+@Slf4j
+@Service
+public class LoginRateLimiter implements MeterBinder {
+
+    public enum Scope { IP, ACCOUNT }
+
+    /** Whether a login may proceed; when not, how long the client should wait and which key tripped. */
+    public record Verdict(boolean allowed, long retryAfterSeconds, Scope scope) {
+        static final Verdict ALLOW = new Verdict(true, 0, null);
+    }
+
+    static final int FREE_FAILURES = 3;
+    static final long BASE_DELAY_MS = 1_000;
+    static final long MAX_DELAY_MS = 30_000;
+    /** Settings are re-read at most this often, not once per login. */
+    static final long POLICY_TTL_MS = 30_000;
+    private static final int STRIPES = 16;
+
+    record Policy(int accountMaxFailures, long windowMs, int ipMaxFailures, long ipBlockMs) {
+        static Policy of(SystemSettings s) {
+            return new Policy(s.getMaxLoginAttempts(), s.getLockoutDurationMinutes() * 60_000L,
+                    s.getIpMaxFailedLogins(), s.getIpBlockMinutes() * 60_000L);
+        }
+    }
+
+    private final SystemSettingsService settingsService;
+    private final LoginAttemptService loginAttemptService;
+    private final StripedWindows ipWindows;
+    private final StripedWindows accountWindows;
+
+    private volatile Policy policy;
+    private volatile long policyLoadedAt;
+    private final LongAdder throttledByIp = new LongAdder();
+    private final LongAdder throttledByAccount = new LongAdder();
+    private final LongAdder autoBlocks = new LongAdder();
+
+    public LoginRateLimiter(SystemSettingsService settingsService,
+                            LoginAttemptService loginAttemptService,
+                            @Value("${security.login-limiter.max-keys:50000}") int maxKeys) {
+        this.settingsService = settingsService;
+        this.loginAttemptService = loginAttemptService;
+        this.ipWindows = new StripedWindows(maxKeys);
+        this.accountWindows = new StripedWindows(maxKeys);
+    }
+
+    /** Whether a login from {@code ip} on {@code account} may be attempted now; either may be null to check only the other. */
+    public Verdict check(String ip, String account) {
+        return check(ip, account, System.currentTimeMillis());
+    }
+
+    /** Counts a failed login; may lock the account or block the IP. */
+    public void recordFailure(String ip, String account) {
+        recordFailure(ip, account, System.currentTimeMillis());
+    }
+
+    /** A successful login clears the account's failures; the IP's keep counting. */
+    public void recordSuccess(String account) {
+        String key = accountKey(account);
+        if (key != null) accountWindows.remove(key);
+    }
+
+    Verdict check(String ip, String account, long now) {
+        long accountWait = accountWindows.apply(accountKey(account), false, w -> w == null ? 0L
+                : Math.max(w.lockedUntil, w.nextAttemptAt) - now);
+        long ipWait = ipWindows.apply(ip, false, w -> w == null ? 0L : w.nextAttemptAt - now);
+        if (accountWait <= 0 && ipWait <= 0) return Verdict.ALLOW;
+        Scope scope = accountWait >= ipWait ? Scope.ACCOUNT : Scope.IP;
+        (scope == Scope.ACCOUNT ? throttledByAccount : throttledByIp).increment();
+        return new Verdict(false, (Math.max(accountWait, ipWait) + 999) / 1000, scope);
+    }
+
+    void recordFailure(String ip, String account, long now) {
+        Policy p = policy(now);
+        accountWindows.apply(accountKey(account), true, w -> {
+            int failures = w.fail(now, p.windowMs());
+            w.nextAttemptAt = now + delayAfter(failures);
+            if (failures >= p.accountMaxFailures()) w.lockedUntil = now + p.windowMs();
+            return null;
+        });
+        Integer blockAt = ipWindows.apply(ip, true, w -> {
+            int failures = w.fail(now, p.windowMs());
+            w.nextAttemptAt = now + delayAfter(failures);
+            if (failures < p.ipMaxFailures() || w.lockedUntil > now) return null;
+            w.lockedUntil = now + p.ipBlockMs();
+            return failures;
+        });
+        if (blockAt != null) blockIp(ip, blockAt, p.ipBlockMs());
+    }
+
+    /** Backoff before the next attempt once {@code failures} failures are in the window. */
+    static long delayAfter(int failures) {
+        if (failures <= FREE_FAILURES) return 0;
+        int doublings = Math.min(failures - FREE_FAILURES - 1, 20);
+        return Math.min(BASE_DELAY_MS << doublings, MAX_DELAY_MS);
+    }
+
+    private void blockIp(String ip, int failures, long blockMs) {
+        try {
+            if (!loginAttemptService.autoBlockIp(ip, LocalDateTime.now().plusNanos(blockMs * 1_000_000),
+                    "Bloquée automatiquement : " + failures + " échecs de connexion")) {
+                log.warn("Not blocking {} after {} failed logins: loopback, private, proxy or own address",
+                        ip, failures);
+                return;
+            }
+            autoBlocks.increment();
+            log.warn("Blocked {} for {} min after {} failed logins", ip, blockMs / 60_000, failures);
+        } catch (RuntimeException e) {
+            log.warn("Could not block {} after {} failed logins: {}", ip, failures, e.getMessage());
+        }
+    }
+
+    private Policy policy(long now) {
+        Policy current = policy;
+        if (current != null && now - policyLoadedAt < POLICY_TTL_MS) return current;
+        try {
+            current = Policy.of(settingsService.getSettings());
+        } catch (RuntimeException e) {
+            log.warn("Could not read login throttling settings, using {}: {}",
+                    current != null ? "the previous ones" : "defaults", e.getMessage());
+            if (current == null) current = Policy.of(SystemSettings.builder().build());
+        }
+        policy = current;
+        policyLoadedAt = now;
+        return current;
+    }
+
+    private static String accountKey(String account) {
+        return account == null || account.isBlank() ? null : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.login.throttled", throttledByIp, LongAdder::sum)
+                .tag("scope", "ip")
+                .description("Login attempts refused in memory because the IP is backing off")
+                .register(registry);
+        FunctionCounter.builder("security.login.throttled", throttledByAccount, LongAdder::sum)
+                .tag("scope", "account")
+                .description("Login attempts refused in memory because the account is backing off or locked")
+                .register(registry);
+        FunctionCounter.builder("security.login.autoblocked", autoBlocks, LongAdder::sum)
+                .description("IPs blocked automatically after too many failed logins")
+                .register(registry);
+        Gauge.builder("security.login.tracked", ipWindows, StripedWindows::size)
+                .tag("kind", "ip")
+                .description("IPs with failed logins tracked by the rate limiter")
+                .register(registry);
+        Gauge.builder("security.login.tracked", accountWindows, StripedWindows::size)
+                .tag("kind", "account")
+                .description("Accounts with failed logins tracked by the rate limiter")
+                .register(registry);
+    }
+
+    /** Failure counts of one key: this window's bucket and the previous one. */
+    static final class Window {
+        long bucketStart;
+        int current;
+        int previous;
+        long nextAttemptAt;
+        long lockedUntil;
+
+        /** Adds a failure and returns the failures within the last {@code windowMs}. */
+        int fail(long now, long windowMs) {
+            long elapsed = now - bucketStart;
+            if (elapsed >= windowMs) {
+                previous = elapsed < 2 * windowMs ? current : 0;
+                current = 0;
+                bucketStart = now - elapsed % windowMs;
+                elapsed = now - bucketStart;
+            }
+            current++;
+            return (int) Math.ceil(previous * (double) (windowMs - elapsed) / windowMs) + current;
+        }
+    }
+
+    /** A size-bounded key → window map, split into independently locked LRU stripes. */
+    static final class StripedWindows {
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        StripedWindows(int maxKeys) {
+            int perStripe = Math.max(1, maxKeys / STRIPES);
+            for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe(perStripe);
+        }
+
+        /** Runs {@code fn} on the key's window under its stripe lock; a null key reads as no window. */
+        <T> T apply(String key, boolean create, Function<Window, T> fn) {
+            if (key == null) return create ? null : fn.apply(null);
+            Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+            synchronized (stripe) {
+                Window w = create ? stripe.computeIfAbsent(key, k -> new Window()) : stripe.get(key);
+                return fn.apply(w);
+            }
+        }
+
+        void remove(String key) {
+            Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+            return size;
+        }
+
+        private static final class Stripe extends LinkedHashMap<String, Window> {
+            private final int maxKeys;
+
+            Stripe(int maxKeys) {
+                super(16, 0.75f, true);
+                this.maxKeys = maxKeys;
+            }
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                return size() > maxKeys;
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.ChatEventDTO;
+import com.example.gpiApp.dto.MessageDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Pushes chat activity over STOMP so clients do not poll conversations and unread counts.
+ *
+ * New messages, read receipts, unread-count deltas and typing signals are folded into one pending
+ * {@link ChatEventDTO} per (receiver, conversation) and flushed every
+ * {@code messages.realtime.tick-ms}, so a burst produces at most one frame per conversation per
+ * tick. Direct-chat frames go to {@code /user/queue/messages}; project chats go to
+ * {@code /topic/project.{id}}. Events raised inside a transaction are queued after commit, so
+ * clients never see a message that was rolled back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageDeliveryService implements MeterBinder {
+
+    static final String USER_QUEUE = "/queue/messages";
+    static final String PROJECT_TOPIC = "/topic/project.";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Receiver, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+
+    /** A saved message: to the recipient (+1 unread), the sender's other sessions, or the project topic. */
+    public void messageSent(MessageDTO message) {
+        TransactionHooks.afterCommit(() -> {
+            if (message.getProjectId() != null) {
+                enqueue(Receiver.project(message.getProjectId()), p -> p.messages.add(message));
+                return;
+            }
+            Long sender = message.getSenderId();
+            Long recipient = message.getRecipientId();
+            if (sender == null || recipient == null) return;
+            enqueue(Receiver.direct(recipient, sender), p -> {
+                p.messages.add(message);
+                p.unreadDelta++;
+            });
+            if (!sender.equals(recipient)) {
+                enqueue(Receiver.direct(sender, recipient), p -> p.messages.add(message));
+            }
+        });
+    }
+
+    /**
+     * {@code readerId} read {@code count} messages from {@code senderId}, up to {@code upToId}:
+     * a receipt for the sender and an unread delta for the reader's sessions.
+     */
+    public void conversationRead(Long readerId, Long senderId, Long upToId, int count) {
+        if (count <= 0) return;
+        TransactionHooks.afterCommit(() -> {
+            enqueue(Receiver.direct(senderId, readerId), p -> {
+                p.readBy = readerId;
+                if (upToId != null && (p.readUpTo == null || upToId > p.readUpTo)) p.readUpTo = upToId;
+            });
+            enqueue(Receiver.direct(readerId, senderId), p -> p.unreadDelta -= count);
+        });
+    }
+
+    /** {@code readerId} read the single message {@code messageId} from {@code senderId}. */
+    public void messageRead(Long readerId, Long senderId, Long messageId) {
+        if (readerId == null || senderId == null) return;
+        TransactionHooks.afterCommit(() -> {
+            enqueue(Receiver.direct(senderId, readerId), p -> {
+                p.readBy = readerId;
+                p.readMessageIds.add(messageId);
+            });
+            enqueue(Receiver.direct(readerId, senderId), p -> p.unreadDelta--);
+        });
+    }
+
+    /** Relays a typing signal; nothing is stored. */
+    public void typing(Long userId, Long recipientId, Long projectId) {
+        if (projectId != null) {
+            enqueue(Receiver.project(projectId), p -> p.typing.add(userId));
+        } else if (recipientId != null && !recipientId.equals(userId)) {
+            enqueue(Receiver.direct(recipientId, userId), p -> p.typing.add(userId));
+        }
+    }
+
+    /** Sends one frame per conversation that had activity since the previous tick. */
+    @Scheduled(fixedDelayString = "${messages.realtime.tick-ms:100}")
+    public void flush() {
+        for (Receiver receiver : pending.keySet()) {
+            Pending p = pending.remove(receiver);
+            if (p == null) continue;
+            try {
+                if (receiver.userId != null) {
+                    messagingTemplate.convertAndSendToUser(receiver.userId.toString(), USER_QUEUE, p.toFrame(receiver));
+                } else {
+                    messagingTemplate.convertAndSend(PROJECT_TOPIC + receiver.projectId, p.toFrame(receiver));
+                }
+                frames.increment();
+            } catch (Exception e) {
+                log.warn("Chat frame for {} could not be sent: {}", receiver, e.getMessage());
+            }
+        }
+    }
+
+    int pendingFrames() {
+        return pending.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("chat.events", events, LongAdder::sum)
+                .description("Chat events queued for STOMP delivery").register(registry);
+        FunctionCounter.builder("chat.frames", frames, LongAdder::sum)
+                .description("Coalesced chat frames sent over STOMP").register(registry);
+    }
+
+    private void enqueue(Receiver receiver, Consumer<Pending> change) {
+        events.increment();
+        // compute() serialises changes with flush()'s remove() for the same conversation.
+        pending.compute(receiver, (r, p) -> {
+            Pending target = p != null ? p : new Pending();
+            change.accept(target);
+            return target;
+        });
+    }
+
+    /** A user's view of a direct conversation with {@code otherUserId}, or a project topic. */
+    private record Receiver(Long userId, Long otherUserId, Long projectId) {
+        static Receiver direct(Long userId, Long otherUserId) {
+            return new Receiver(userId, otherUserId, null);
+        }
+
+        static Receiver project(Long projectId) {
+            return new Receiver(null, null, projectId);
+        }
+    }
+
+    private static final class Pending {
+        final List<MessageDTO> messages = new ArrayList<>();
+        final List<Long> readMessageIds = new ArrayList<>();
+        final Set<Long> typing = new LinkedHashSet<>();
+        int unreadDelta;
+        Long readBy;
+        Long readUpTo;
+
+        ChatEventDTO toFrame(Receiver receiver) {
+            return ChatEventDTO.builder()
+                    .threadKey(receiver.projectId != null
+                            ? ConversationService.projectKey(receiver.projectId)
+                            : ConversationService.directKey(receiver.otherUserId))
+                    .otherUserId(receiver.otherUserId)
+                    .projectId(receiver.projectId)
+                    .messages(messages.isEmpty() ? null : messages)
+                    .unreadDelta(unreadDelta != 0 ? unreadDelta : null)
+                    .readBy(readBy)
+                    .readUpTo(readUpTo)
+                    .readMessageIds(readMessageIds.isEmpty() ? null : readMessageIds)
+                    .typingUserIds(typing.isEmpty() ? null : new ArrayList<>(typing))
+                    .build();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.gpiApp.entity.Message;
 import com.example.gpiApp.repository.MessageRepository;
 import com.example.gpiApp.repository.ProjectRepository;
 import com.example.gpiApp.repository.UserRepository;
+import com.example.gpiApp.service.UnreadCounterService.Kind;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +14,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,11 +23,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MessageService {
     
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final ActivityLogService activityLogService;
     private final NotificationService notificationService;
+    private final ConversationService conversationService;
+    private final MessageDeliveryService messageDeliveryService;
+    private final UnreadCounterService unreadCounters;
     
     @Transactional(readOnly = true)
     public PagedResponse<MessageDTO> getAllMessages(int page, int size) {
@@ -73,6 +82,10 @@ public class MessageService {
         }
         
         Message savedMessage = messageRepository.save(message);
+        conversationService.messageSent(savedMessage);
+        if (savedMessage.getRecipient() != null) {
+            unreadCounters.add(Kind.MESSAGES, savedMessage.getRecipient().getId(), 1);
+        }
         
         // Log activity
         userRepository.findById(senderId).ifPresent(user -> 
@@ -93,7 +106,9 @@ public class MessageService {
             notificationService.notifyNewMessage(request.getRecipientId(), senderId, senderName, savedMessage.getId());
         }
         
-        return ApiResponse.success("Message sent successfully", convertToDTO(savedMessage));
+        MessageDTO sent = convertToDTO(savedMessage);
+        messageDeliveryService.messageSent(sent);
+        return ApiResponse.success("Message sent successfully", sent);
     }
     
     @Transactional(readOnly = true)
@@ -121,11 +136,85 @@ public class MessageService {
         }
     }
     
+    /**
+     * A page of a project chat in chronological order: the messages right after {@code after} when
+     * it is given, otherwise the ones right before {@code before} (the latest when both are null).
+     * {@code nextCursor} continues in the same direction.
+     */
+    @Transactional(readOnly = true)
+    public CursorResponse<MessageDTO> getProjectHistory(Long projectId, Long before, Long after, int limit) {
+        int size = historyPageSize(limit);
+        PageRequest window = PageRequest.of(0, size + 1);
+        if (after != null) {
+            return forwardPage(messageRepository.findProjectPageAfter(projectId, after, window), size);
+        }
+        return backwardPage(messageRepository.findProjectPageBefore(projectId, before != null ? before : Long.MAX_VALUE, window), size);
+    }
+    
+    /**
+     * Same as {@link #getProjectHistory} for the direct conversation between two users. Each
+     * direction is read from the (sender, recipient, id) index and the two windows are merged.
+     */
+    @Transactional(readOnly = true)
+    public CursorResponse<MessageDTO> getDirectHistory(Long userId, Long otherUserId, Long before, Long after, int limit) {
+        int size = historyPageSize(limit);
+        PageRequest window = PageRequest.of(0, size + 1);
+        boolean self = userId.equals(otherUserId);
+        if (after != null) {
+            List<Message> page = merge(messageRepository.findDirectPageAfter(userId, otherUserId, after, window),
+                    self ? List.of() : messageRepository.findDirectPageAfter(otherUserId, userId, after, window),
+                    Comparator.comparing(Message::getId));
+            return forwardPage(page, size);
+        }
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        List<Message> page = merge(messageRepository.findDirectPageBefore(userId, otherUserId, cursor, window),
+                self ? List.of() : messageRepository.findDirectPageBefore(otherUserId, userId, cursor, window),
+                Comparator.comparing(Message::getId).reversed());
+        return backwardPage(page, size);
+    }
+    
+    private static int historyPageSize(int limit) {
+        return limit > 0 ? Math.min(limit, MAX_HISTORY_PAGE_SIZE) : HISTORY_PAGE_SIZE;
+    }
+    
+    private static List<Message> merge(List<Message> a, List<Message> b, Comparator<Message> order) {
+        List<Message> all = new ArrayList<>(a.size() + b.size());
+        all.addAll(a);
+        all.addAll(b);
+        all.sort(order);
+        return all;
+    }
+    
+    /** {@code ascending} holds up to size + 1 messages after the cursor. */
+    private CursorResponse<MessageDTO> forwardPage(List<Message> ascending, int size) {
+        int n = Math.min(size, ascending.size());
+        List<MessageDTO> data = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            data.add(convertToDTO(ascending.get(i)));
+        }
+        return CursorResponse.of(data, n > 0 ? data.get(n - 1).getId() : null, ascending.size() > size);
+    }
+    
+    /** {@code descending} holds up to size + 1 messages before the cursor; the page is returned oldest first. */
+    private CursorResponse<MessageDTO> backwardPage(List<Message> descending, int size) {
+        int n = Math.min(size, descending.size());
+        List<MessageDTO> data = new ArrayList<>(n);
+        for (int i = n - 1; i >= 0; i--) {
+            data.add(convertToDTO(descending.get(i)));
+        }
+        return CursorResponse.of(data, n > 0 ? data.get(0).getId() : null, descending.size() > size);
+    }
+    
     @Transactional
     public ApiResponse<Void> deleteMessage(Long id) {
         return messageRepository.findById(id)
                 .map(message -> {
                     messageRepository.delete(message);
+                    messageRepository.flush();
+                    conversationService.messageDeleted(message);
+                    if (message.getRecipient() != null && !Boolean.TRUE.equals(message.getIsRead())) {
+                        unreadCounters.add(Kind.MESSAGES, message.getRecipient().getId(), -1);
+                    }
                     return ApiResponse.<Void>success("Message deleted successfully", null);
                 })
                 .orElse(ApiResponse.error("Message not found"));
@@ -167,10 +256,9 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
     
-    @Transactional(readOnly = true)
+    /** Served from {@link UnreadCounterService}; no query once the user's count is cached. */
     public ApiResponse<Long> getUnreadCount(Long userId) {
-        Long count = messageRepository.countUnreadByRecipientId(userId);
-        return ApiResponse.success("Unread count retrieved", count != null ? count : 0L);
+        return ApiResponse.success("Unread count retrieved", unreadCounters.get(Kind.MESSAGES, userId));
     }
     
     @Transactional(readOnly = true)
@@ -183,7 +271,13 @@ public class MessageService {
     
     @Transactional
     public ApiResponse<Void> markAsRead(Long recipientId, Long senderId) {
-        messageRepository.markAsRead(recipientId, senderId);
+        int marked = messageRepository.markAsRead(recipientId, senderId);
+        conversationService.conversationRead(recipientId, senderId);
+        unreadCounters.add(Kind.MESSAGES, recipientId, -marked);
+        if (marked > 0) {
+            List<Long> head = messageRepository.findDirectThreadHead(recipientId, senderId, PageRequest.of(0, 1));
+            messageDeliveryService.conversationRead(recipientId, senderId, head.isEmpty() ? null : head.get(0), marked);
+        }
         return ApiResponse.success("Messages marked as read", null);
     }
     
@@ -191,6 +285,16 @@ public class MessageService {
     public ApiResponse<Void> markSingleAsRead(Long messageId) {
         return messageRepository.findById(messageId)
                 .map(message -> {
+                    if (!Boolean.TRUE.equals(message.getIsRead())) {
+                        conversationService.messageRead(message);
+                        if (message.getRecipient() != null) {
+                            unreadCounters.add(Kind.MESSAGES, message.getRecipient().getId(), -1);
+                        }
+                        if (message.getRecipient() != null && message.getProject() == null) {
+                            messageDeliveryService.messageRead(message.getRecipient().getId(),
+                                    message.getSender().getId(), message.getId());
+                        }
+                    }
                     message.setIsRead(true);
                     messageRepository.save(message);
                     return ApiResponse.<Void>success("Message marked as read", null);
@@ -198,39 +302,9 @@ public class MessageService {
                 .orElse(ApiResponse.error("Message not found"));
     }
     
-    @Transactional(readOnly = true)
-    public ApiResponse<List<MessageDTO>> getConversations(Long userId) {
-        // Get all messages where user is sender or recipient
-        List<Message> sentMessages = messageRepository.findBySenderIdOrderByCreatedAtDesc(userId);
-        List<Message> receivedMessages = messageRepository.findByRecipientIdOrderByCreatedAtDesc(userId);
-        
-        // Combine and get unique conversations (latest message from each)
-        java.util.Map<String, Message> latestMessages = new java.util.LinkedHashMap<>();
-        
-        java.util.List<Message> allMessages = new java.util.ArrayList<>();
-        allMessages.addAll(sentMessages);
-        allMessages.addAll(receivedMessages);
-        allMessages.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
-        
-        for (Message msg : allMessages) {
-            String conversationKey;
-            if (msg.getProject() != null) {
-                conversationKey = "project_" + msg.getProject().getId();
-            } else {
-                Long otherUserId = msg.getSender().getId().equals(userId) ? 
-                        (msg.getRecipient() != null ? msg.getRecipient().getId() : null) : 
-                        msg.getSender().getId();
-                if (otherUserId == null) continue;
-                conversationKey = "user_" + Math.min(userId, otherUserId) + "_" + Math.max(userId, otherUserId);
-            }
-            latestMessages.putIfAbsent(conversationKey, msg);
-        }
-        
-        List<MessageDTO> messageDTOs = latestMessages.values().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return ApiResponse.success("Conversations retrieved successfully", messageDTOs);
+    /** One keyset page of the user's conversations, newest first (see {@link ConversationService}). */
+    public CursorResponse<ConversationDTO> getConversations(Long userId, Long before, int limit) {
+        return conversationService.getInbox(userId, before, limit);
     }
     
     private MessageDTO convertToDTO(Message message) {
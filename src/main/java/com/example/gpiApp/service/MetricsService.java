@@ -1,6 +1,10 @@
 package com.example.gpiApp.service;
 
 import com.example.gpiApp.dto.analytics.PerformanceDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.lang.management.ManagementFactory;
@@ -10,99 +14,187 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
  * In-memory aggregation of real HTTP request metrics. {@code MetricsFilter} calls
- * {@link #record} for every request; the admin performance page reads {@link #snapshot()}.
+ * {@link #record} for every request; the admin performance page reads {@link #snapshot(int)}.
  * Holds lifetime counters, per-endpoint latency stats, a rolling 60-minute load history,
  * and a ring of the most recent 5xx errors.
+ *
+ * Latency percentiles come from {@link LatencyHistogram}s: one per minute of load history and,
+ * per endpoint, one per 5-minute slot of the last hour, so a snapshot can report p50/p95/p99 (and a
+ * max that ages out) for any window up to 60 minutes.
+ *
+ * The recording path does not allocate once a route has been seen: routes are resolved through a
+ * cache keyed on the handler's path pattern, minutes live in a fixed ring indexed by epoch-minute
+ * mod 60 and are reused in place, and CPU/memory are sampled once a second by a scheduled task
+ * instead of per request.
+ *
+ * Lifetime totals are also published to Micrometer (and so /actuator/prometheus); latency
+ * distributions there come from Spring's own {@code http.server.requests} timer.
  */
 @Service
-public class MetricsService {
+public class MetricsService implements MeterBinder {
 
     private static final int HISTORY_MINUTES = 60;
     private static final int MAX_RECENT_ERRORS = 12;
+    private static final int SLOT_MINUTES = 5;
+    private static final int SLOTS = HISTORY_MINUTES / SLOT_MINUTES;
+    /** Safety cap on handler patterns; they are bounded by the controllers, so it should never be hit. */
+    private static final int MAX_ROUTES = 2048;
+    private static final String[] METHODS = {"GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", "OTHER"};
     private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
 
-    private final AtomicLong totalRequests = new AtomicLong();
-    private final AtomicLong totalErrors = new AtomicLong();
-    private final AtomicLong totalLatency = new AtomicLong();
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder totalErrors = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
 
-    private final Map<String, EndpointStat> endpoints = new ConcurrentHashMap<>();
-    private final Map<Long, MinuteBucket> minutes = new ConcurrentHashMap<>(); // epoch-minute -> bucket
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();      // handler pattern -> route
+    private final Queue<Route> distinctRoutes = new ConcurrentLinkedQueue<>();
+    /** Requests no handler matched (404s, scans, rejected by security) and anything past the cap. */
+    private final Route unmatchedRoute = new Route("/api/**");
+    private final MinuteBucket[] minutes = new MinuteBucket[HISTORY_MINUTES]; // index = epoch-minute % 60
     private final Deque<PerformanceDTO.RecentError> recentErrors = new ArrayDeque<>();
 
-    public void record(String method, String path, int status, long durationMs) {
-        String endpoint = method + " " + normalize(path);
-        totalRequests.incrementAndGet();
-        totalLatency.addAndGet(durationMs);
+    // Latest once-a-second system sample; NaN until the sampler has run.
+    private volatile double sampledCpu = Double.NaN;
+    private volatile double sampledMemory = Double.NaN;
+
+    public MetricsService() {
+        for (int i = 0; i < HISTORY_MINUTES; i++) minutes[i] = new MinuteBucket();
+        distinctRoutes.add(unmatchedRoute);
+    }
+
+    /**
+     * Records one request. {@code route} is the handler's path pattern (e.g. {@code /api/tasks/{id}}),
+     * or null when no handler matched; raw paths are never used as keys, so scanners cannot grow the
+     * route table.
+     */
+    public void record(String method, String route, int status, long durationMs) {
+        EndpointStat endpoint = route(route).stat(methodIndex(method));
+        totalRequests.increment();
+        totalLatency.add(durationMs);
         boolean isError = status >= 500;
-        if (isError) totalErrors.incrementAndGet();
+        if (isError) totalErrors.increment();
 
-        endpoints.computeIfAbsent(endpoint, k -> new EndpointStat()).add(durationMs);
+        long epochMinute = System.currentTimeMillis() / 60_000;
+        endpoint.add(epochMinute, durationMs);
 
-        long epochMinute = Instant.now().getEpochSecond() / 60;
-        MinuteBucket bucket = minutes.computeIfAbsent(epochMinute, k -> new MinuteBucket());
+        MinuteBucket bucket = minuteBucket(epochMinute);
         bucket.requests.increment();
         bucket.latency.add(durationMs);
+        bucket.histogram.record(durationMs);
+        bucket.max.accumulate(durationMs);
         if (isError) bucket.errors.increment();
-        sampleSystem(bucket);
-        pruneMinutes(epochMinute);
 
         if (isError) {
             synchronized (recentErrors) {
                 recentErrors.addFirst(PerformanceDTO.RecentError.builder()
-                        .status(status).endpoint(endpoint).at(LocalDateTime.now()).build());
+                        .status(status).endpoint(endpoint.name).at(LocalDateTime.now()).build());
                 while (recentErrors.size() > MAX_RECENT_ERRORS) recentErrors.removeLast();
             }
         }
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.api.requests", totalRequests, LongAdder::sum)
+                .description("API requests recorded by MetricsFilter")
+                .register(registry);
+        FunctionCounter.builder("app.api.errors", totalErrors, LongAdder::sum)
+                .description("API requests answered with a 5xx status")
+                .register(registry);
+    }
+
+    /** Samples CPU and heap once a second into the current minute, off the request path. */
+    @Scheduled(fixedRate = 1000)
+    public void sampleSystem() {
+        double memory = memoryUsedPct();
+        double cpu = cpuLoadPct();
+        sampledMemory = memory;
+        if (cpu > 0) sampledCpu = cpu;
+        MinuteBucket bucket = minuteBucket(System.currentTimeMillis() / 60_000);
+        bucket.memory = memory;
+        if (cpu > 0) bucket.cpu = cpu;
+    }
+
     public PerformanceDTO snapshot() {
-        long reqs = totalRequests.get();
-        double avgMs = reqs > 0 ? round1((double) totalLatency.get() / reqs) : 0;
-        double errorRate = reqs > 0 ? round2((double) totalErrors.get() / reqs * 100) : 0;
+        return snapshot(HISTORY_MINUTES);
+    }
+
+    /**
+     * Current metrics; latency percentiles and the slowest endpoints cover the last
+     * {@code windowMinutes} (1–60). Endpoint stats are kept in 5-minute slots, so their window is
+     * rounded up to a multiple of 5 minutes.
+     */
+    public PerformanceDTO snapshot(int windowMinutes) {
+        int window = Math.max(1, Math.min(HISTORY_MINUTES, windowMinutes));
+        long reqs = totalRequests.sum();
+        double avgMs = reqs > 0 ? round1((double) totalLatency.sum() / reqs) : 0;
+        double errorRate = reqs > 0 ? round2((double) totalErrors.sum() / reqs * 100) : 0;
 
-        long nowMinute = Instant.now().getEpochSecond() / 60;
-        double curMem = memoryUsedPct();
-        double curCpu = cpuLoadPct();
+        long nowMinute = System.currentTimeMillis() / 60_000;
+        double curMem = Double.isNaN(sampledMemory) ? memoryUsedPct() : sampledMemory;
+        double curCpu = Double.isNaN(sampledCpu) ? cpuLoadPct() : sampledCpu;
 
         // Rolling 60-minute load history (oldest → newest). Empty minutes carry the
         // current system sample so the line stays continuous.
         List<PerformanceDTO.LoadPoint> load = new ArrayList<>();
+        long[] windowCounts = new long[LatencyHistogram.BUCKETS];
+        long[] minuteCounts = new long[LatencyHistogram.BUCKETS];
+        long windowTotal = 0;
+        long windowMax = 0;
         for (int back = HISTORY_MINUTES - 1; back >= 0; back--) {
             long m = nowMinute - back;
-            MinuteBucket b = minutes.get(m);
+            MinuteBucket b = minutes[(int) (m % HISTORY_MINUTES)];
+            if (b.minute != m) b = null;
             LocalDateTime t = LocalDateTime.ofInstant(Instant.ofEpochSecond(m * 60), ZoneId.systemDefault());
             long count = b != null ? b.requests.sum() : 0;
             double minuteAvg = (b != null && count > 0) ? round1((double) b.latency.sum() / count) : 0;
+            long minuteP95 = 0;
+            if (b != null && count > 0) {
+                Arrays.fill(minuteCounts, 0);
+                b.histogram.addTo(minuteCounts);
+                minuteP95 = LatencyHistogram.percentile(minuteCounts, count, 95, b.max.get());
+                if (back < window) {
+                    for (int i = 0; i < minuteCounts.length; i++) windowCounts[i] += minuteCounts[i];
+                    windowTotal += count;
+                    windowMax = Math.max(windowMax, b.max.get());
+                }
+            }
             load.add(PerformanceDTO.LoadPoint.builder()
                     .minute(t.format(HHMM))
                     .cpu(b != null && b.cpu > 0 ? round1(b.cpu) : round1(curCpu))
                     .memory(b != null && b.memory > 0 ? round1(b.memory) : round1(curMem))
                     .requests(count)
                     .avgMs(minuteAvg)
+                    .p95Ms(minuteP95)
                     .build());
         }
-        long requestsLastMin = minutes.containsKey(nowMinute) ? minutes.get(nowMinute).requests.sum() : 0;
-
-        List<PerformanceDTO.SlowEndpoint> slowest = endpoints.entrySet().stream()
-                .map(e -> PerformanceDTO.SlowEndpoint.builder()
-                        .endpoint(e.getKey())
-                        .avgMs(round1(e.getValue().avg()))
-                        .maxMs(e.getValue().max.get())
-                        .count(e.getValue().count.sum())
-                        .build())
-                .sorted(Comparator.comparingDouble(PerformanceDTO.SlowEndpoint::getAvgMs).reversed())
-                .limit(6)
-                .collect(java.util.stream.Collectors.toList());
+        MinuteBucket current = minutes[(int) (nowMinute % HISTORY_MINUTES)];
+        long requestsLastMin = current.minute == nowMinute ? current.requests.sum() : 0;
+
+        long oldestSlot = nowMinute / SLOT_MINUTES - (window + SLOT_MINUTES - 1) / SLOT_MINUTES + 1;
+        List<PerformanceDTO.SlowEndpoint> slowest = new ArrayList<>();
+        for (Route route : distinctRoutes) {
+            for (EndpointStat endpoint : route.byMethod) {
+                PerformanceDTO.SlowEndpoint stat = endpoint != null ? endpoint.summarize(oldestSlot) : null;
+                if (stat != null) slowest.add(stat);
+            }
+        }
+        slowest.sort(Comparator.comparingLong(PerformanceDTO.SlowEndpoint::getP95Ms)
+                .thenComparingDouble(PerformanceDTO.SlowEndpoint::getAvgMs).reversed());
+        if (slowest.size() > 6) slowest = new ArrayList<>(slowest.subList(0, 6));
 
         List<PerformanceDTO.RecentError> errs;
         synchronized (recentErrors) { errs = new ArrayList<>(recentErrors); }
@@ -115,6 +207,10 @@ public class MetricsService {
                 .memoryUsedPct(round1(curMem))
                 .processors(Runtime.getRuntime().availableProcessors())
                 .totalRequests(reqs)
+                .windowMinutes(window)
+                .p50Ms(LatencyHistogram.percentile(windowCounts, windowTotal, 50, windowMax))
+                .p95Ms(LatencyHistogram.percentile(windowCounts, windowTotal, 95, windowMax))
+                .p99Ms(LatencyHistogram.percentile(windowCounts, windowTotal, 99, windowMax))
                 .serverLoad(load)
                 .slowest(slowest)
                 .recentErrors(errs)
@@ -123,10 +219,36 @@ public class MetricsService {
     }
 
     // ── helpers ──
-    private void sampleSystem(MinuteBucket bucket) {
-        bucket.memory = memoryUsedPct();
-        double cpu = cpuLoadPct();
-        if (cpu > 0) bucket.cpu = cpu;
+    private MinuteBucket minuteBucket(long epochMinute) {
+        MinuteBucket bucket = minutes[(int) (epochMinute % HISTORY_MINUTES)];
+        if (bucket.minute != epochMinute) bucket.rotate(epochMinute);
+        return bucket;
+    }
+
+    private Route route(String pattern) {
+        if (pattern == null) return unmatchedRoute;
+        Route known = routes.get(pattern);
+        if (known != null) return known;
+        if (routes.size() >= MAX_ROUTES) return unmatchedRoute;
+        return routes.computeIfAbsent(pattern, t -> {
+            Route created = new Route(t);
+            distinctRoutes.add(created);
+            return created;
+        });
+    }
+
+    private static int methodIndex(String method) {
+        if (method == null) return METHODS.length - 1;
+        switch (method) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "PATCH": return 3;
+            case "DELETE": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return METHODS.length - 1;
+        }
     }
 
     private double memoryUsedPct() {
@@ -149,43 +271,111 @@ public class MetricsService {
         return 0;
     }
 
-    /** Collapse numeric path segments to {id} so /api/projects/42 groups with /api/projects/{id}. */
-    private String normalize(String path) {
-        if (path == null) return "/";
-        String[] parts = path.split("/");
-        StringBuilder sb = new StringBuilder();
-        for (String p : parts) {
-            if (p.isEmpty()) continue;
-            sb.append('/').append(p.matches("\\d+") ? "{id}" : p);
+    private double round1(double v) { return Math.round(v * 10.0) / 10.0; }
+    private double round2(double v) { return Math.round(v * 100.0) / 100.0; }
+
+    /** A route template with its per-method stats, created on the first request of each method. */
+    private static class Route {
+        final String template;
+        final EndpointStat[] byMethod = new EndpointStat[METHODS.length];
+
+        Route(String template) {
+            this.template = template;
         }
-        return sb.length() == 0 ? "/" : sb.toString();
-    }
 
-    private void pruneMinutes(long nowMinute) {
-        long cutoff = nowMinute - HISTORY_MINUTES;
-        minutes.keySet().removeIf(m -> m < cutoff);
+        EndpointStat stat(int method) {
+            EndpointStat stat = byMethod[method];
+            if (stat != null) return stat;
+            synchronized (this) {
+                if (byMethod[method] == null) byMethod[method] = new EndpointStat(METHODS[method] + " " + template);
+                return byMethod[method];
+            }
+        }
     }
 
-    private double round1(double v) { return Math.round(v * 10.0) / 10.0; }
-    private double round2(double v) { return Math.round(v * 100.0) / 100.0; }
-
+    /** Per-endpoint latency over the last hour, as a ring of 5-minute slots reused in place. */
     private static class EndpointStat {
+        final String name;
+        final Slot[] slots = new Slot[SLOTS];
+
+        EndpointStat(String name) {
+            this.name = name;
+            for (int i = 0; i < SLOTS; i++) slots[i] = new Slot();
+        }
+
+        void add(long epochMinute, long ms) {
+            long slotId = epochMinute / SLOT_MINUTES;
+            Slot slot = slots[(int) (slotId % SLOTS)];
+            if (slot.id != slotId) slot.rotate(slotId);
+            slot.count.increment();
+            slot.latency.add(ms);
+            slot.max.accumulate(ms);
+            slot.histogram.record(ms);
+        }
+
+        /** Stats over slots from {@code oldestSlot} on, or null if the endpoint was not hit in that window. */
+        PerformanceDTO.SlowEndpoint summarize(long oldestSlot) {
+            long[] counts = new long[LatencyHistogram.BUCKETS];
+            long count = 0, latency = 0, max = 0;
+            for (Slot slot : slots) {
+                if (slot.id < oldestSlot) continue;
+                count += slot.count.sum();
+                latency += slot.latency.sum();
+                max = Math.max(max, slot.max.get());
+                slot.histogram.addTo(counts);
+            }
+            if (count == 0) return null;
+            return PerformanceDTO.SlowEndpoint.builder()
+                    .endpoint(name)
+                    .avgMs(Math.round((double) latency / count * 10.0) / 10.0)
+                    .maxMs(max)
+                    .count(count)
+                    .p50Ms(LatencyHistogram.percentile(counts, count, 50, max))
+                    .p95Ms(LatencyHistogram.percentile(counts, count, 95, max))
+                    .p99Ms(LatencyHistogram.percentile(counts, count, 99, max))
+                    .build();
+        }
+    }
+
+    private static class Slot {
+        volatile long id = -1;
         final LongAdder count = new LongAdder();
         final LongAdder latency = new LongAdder();
-        final AtomicLong max = new AtomicLong();
-        void add(long ms) {
-            count.increment();
-            latency.add(ms);
-            max.updateAndGet(prev -> Math.max(prev, ms));
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        /** First request of a new 5-minute slot clears what the slot held an hour ago. */
+        synchronized void rotate(long slotId) {
+            if (id == slotId) return;
+            count.reset();
+            latency.reset();
+            max.reset();
+            histogram.reset();
+            id = slotId;
         }
-        double avg() { long c = count.sum(); return c > 0 ? (double) latency.sum() / c : 0; }
     }
 
+    /** One minute of load history; the ring slot is cleared and reused when its minute comes round again. */
     private static class MinuteBucket {
+        volatile long minute = -1;
         final LongAdder requests = new LongAdder();
         final LongAdder errors = new LongAdder();
         final LongAdder latency = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram histogram = new LatencyHistogram();
         volatile double cpu;
         volatile double memory;
+
+        synchronized void rotate(long epochMinute) {
+            if (minute == epochMinute) return;
+            requests.reset();
+            errors.reset();
+            latency.reset();
+            max.reset();
+            histogram.reset();
+            cpu = 0;
+            memory = 0;
+            minute = epochMinute;
+        }
     }
 }
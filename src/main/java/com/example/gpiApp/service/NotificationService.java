@@ -7,22 +7,41 @@ import com.example.gpiApp.entity.Notification;
 import com.example.gpiApp.entity.allUsers;
 import com.example.gpiApp.repository.NotificationRepository;
 import com.example.gpiApp.repository.UserRepository;
+import com.example.gpiApp.service.UnreadCounterService.Kind;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    /** Rows per JDBC batch; the MySQL driver rewrites each batch into one multi-row INSERT. */
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO notifications "
+            + "(user_id, title, message, type, is_read, reference_id, reference_type, created_at) "
+            + "VALUES (?, ?, ?, ?, FALSE, ?, ?, ?)";
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WebSocketNotificationService webSocketNotificationService;
+    private final UnreadCounterService unreadCounters;
 
     public PagedResponse<NotificationDTO> getUserNotifications(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -58,19 +77,24 @@ public class NotificationService {
         }
     }
 
+    /** Served from {@link UnreadCounterService}; no query once the user's count is cached. */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounters.get(Kind.NOTIFICATIONS, userId);
     }
 
     @Transactional
     public ApiResponse<Void> markAsRead(Long notificationId) {
-        notificationRepository.markAsRead(notificationId);
+        if (notificationRepository.markAsRead(notificationId) > 0) {
+            notificationRepository.findUserIdById(notificationId)
+                    .ifPresent(userId -> unreadCounters.add(Kind.NOTIFICATIONS, userId, -1));
+        }
         return ApiResponse.success("Notification marked as read", null);
     }
 
     @Transactional
     public ApiResponse<Void> markAllAsRead(Long userId) {
         notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounters.reset(Kind.NOTIFICATIONS, userId);
         return ApiResponse.success("All notifications marked as read", null);
     }
 
@@ -91,7 +115,64 @@ public class NotificationService {
                 .referenceType(referenceType)
                 .build();
         
-        return convertToDTO(notificationRepository.save(notification));
+        NotificationDTO saved = convertToDTO(notificationRepository.save(notification));
+        unreadCounters.add(Kind.NOTIFICATIONS, userId, 1);
+        pushAfterCommit(List.of(saved));
+        return saved;
+    }
+
+    /** One notification per user with the same content, e.g. a broadcast to every admin. */
+    @Transactional
+    public int createNotifications(Collection<Long> userIds, String title, String message,
+            Notification.NotificationType type, Long referenceId, String referenceType) {
+        List<NotificationDTO> drafts = new ArrayList<>(userIds.size());
+        for (Long userId : new HashSet<>(userIds)) {
+            drafts.add(NotificationDTO.builder()
+                    .userId(userId).title(title).message(message).type(type)
+                    .referenceId(referenceId).referenceType(referenceType)
+                    .build());
+        }
+        return createNotifications(drafts);
+    }
+
+    /**
+     * Stores many notifications with JDBC batch inserts instead of one {@code save} round-trip
+     * each, then pushes them over WebSocket asynchronously once the transaction commits. Drafts
+     * for unknown users are skipped, as in {@link #createNotification}. Pushed notifications carry
+     * no id: clients treat the push as a signal and page the list as usual.
+     *
+     * @return the number of notifications stored
+     */
+    @Transactional
+    public int createNotifications(List<NotificationDTO> drafts) {
+        if (drafts.isEmpty()) return 0;
+        Set<Long> userIds = drafts.stream().map(NotificationDTO::getUserId).collect(Collectors.toSet());
+        Set<Long> known = new HashSet<>(userRepository.findExistingIds(userIds));
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDTO> rows = new ArrayList<>(drafts.size());
+        for (NotificationDTO draft : drafts) {
+            if (!known.contains(draft.getUserId())) continue;
+            draft.setIsRead(false);
+            draft.setCreatedAt(now);
+            rows.add(draft);
+        }
+        if (rows.isEmpty()) return 0;
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, d) -> {
+            ps.setLong(1, d.getUserId());
+            ps.setString(2, d.getTitle());
+            ps.setString(3, d.getMessage());
+            ps.setString(4, d.getType().name());
+            if (d.getReferenceId() != null) ps.setLong(5, d.getReferenceId()); else ps.setNull(5, Types.BIGINT);
+            ps.setString(6, d.getReferenceType());
+            ps.setTimestamp(7, createdAt);
+        });
+        rows.stream()
+                .collect(Collectors.groupingBy(NotificationDTO::getUserId, Collectors.counting()))
+                .forEach((userId, count) -> unreadCounters.add(Kind.NOTIFICATIONS, userId, count));
+        pushAfterCommit(rows);
+        return rows.size();
     }
 
     // Helper methods for common notification types
@@ -107,8 +188,12 @@ public class NotificationService {
     }
 
     public void notifyComment(Long recipientId, String commenterName, String taskName, Long taskId) {
-        createNotification(
-                recipientId,
+        notifyComment(List.of(recipientId), commenterName, taskName, taskId);
+    }
+
+    public void notifyComment(Collection<Long> recipientIds, String commenterName, String taskName, Long taskId) {
+        createNotifications(
+                recipientIds,
                 "New Comment",
                 commenterName + " commented on task: " + taskName,
                 Notification.NotificationType.COMMENT,
@@ -174,11 +259,19 @@ public class NotificationService {
 
     @Transactional
     public ApiResponse<Void> deleteNotification(Long notificationId) {
-        if (notificationRepository.existsById(notificationId)) {
-            notificationRepository.deleteById(notificationId);
-            return ApiResponse.success("Notification deleted", null);
-        }
-        return ApiResponse.error("Notification not found");
+        return notificationRepository.findById(notificationId)
+                .map(notification -> {
+                    notificationRepository.delete(notification);
+                    if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                        unreadCounters.add(Kind.NOTIFICATIONS, notification.getUser().getId(), -1);
+                    }
+                    return ApiResponse.<Void>success("Notification deleted", null);
+                })
+                .orElse(ApiResponse.error("Notification not found"));
+    }
+
+    private void pushAfterCommit(List<NotificationDTO> notifications) {
+        TransactionHooks.afterCommit(() -> webSocketNotificationService.pushNotifications(notifications));
     }
 
     private NotificationDTO convertToDTO(Notification notification) {
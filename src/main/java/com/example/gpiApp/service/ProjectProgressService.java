@@ -0,0 +1,87 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps {@code Project.progress} in step with the project's tasks without counting them.
+ *
+ * Each project stores its task total and completed count. A task change applies a ±1 delta to the
+ * affected project(s) in a single UPDATE that also recomputes progress, inside the caller's
+ * transaction. A reconciliation pass (at startup and nightly) recounts with one GROUP BY query
+ * and rewrites only the projects that drifted, e.g. after direct SQL edits or on the first start
+ * after the counter columns were added.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectProgressService {
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+
+    /**
+     * Records a task moving from one (project, completed) state to another. Pass {@code null}
+     * projects for the missing side of a create or delete.
+     */
+    public void taskChanged(Project fromProject, boolean wasCompleted, Project toProject, boolean isCompleted) {
+        Long from = fromProject != null ? fromProject.getId() : null;
+        Long to = toProject != null ? toProject.getId() : null;
+        if (Objects.equals(from, to)) {
+            if (to != null && wasCompleted != isCompleted) {
+                projectRepository.adjustTaskCounters(to, 0, isCompleted ? 1 : -1);
+            }
+            return;
+        }
+        if (from != null) projectRepository.adjustTaskCounters(from, -1, wasCompleted ? -1 : 0);
+        if (to != null) projectRepository.adjustTaskCounters(to, 1, isCompleted ? 1 : 0);
+    }
+
+    public static boolean isCompleted(Task task) {
+        return task != null && task.getStatus() == Task.TaskStatus.COMPLETED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /** Recounts every project's tasks and rewrites counters and progress where the counters drifted. */
+    @Scheduled(cron = "${projects.progress.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        Map<Long, long[]> actual = new HashMap<>();
+        for (TaskRepository.ProjectTaskCount row : taskRepository.countPerProject()) {
+            actual.put(row.getProjectId(), new long[] {row.getTotal(), row.getCompleted()});
+        }
+        int fixed = 0;
+        for (ProjectRepository.CounterRow row : projectRepository.findCounterRows()) {
+            long[] counts = actual.getOrDefault(row.getId(), new long[2]);
+            int total = (int) counts[0];
+            int completed = (int) counts[1];
+            int progress = total > 0 ? completed * 100 / total : 0;
+            // Progress alone is not compared: a manager may have set it by hand on the project.
+            if (!Objects.equals(row.getTaskCount(), total) || !Objects.equals(row.getCompletedTaskCount(), completed)) {
+                projectRepository.setTaskCounters(row.getId(), total, completed, progress);
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            log.info("Project progress reconciliation corrected {} project(s)", fixed);
+        }
+    }
+}
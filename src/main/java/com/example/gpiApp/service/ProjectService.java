@@ -291,7 +291,7 @@ public class ProjectService {
                 .status(project.getStatus())
                 .progress(project.getProgress())
                 .archived(project.getArchived())
-                .taskCount(project.getTasks() != null ? project.getTasks().size() : 0)
+                .taskCount(project.getTaskCount() != null ? project.getTaskCount() : 0)
                 .teamCount((int) (project.getTeams() != null ? 
                         project.getTeams().stream()
                                 .flatMap(t -> t.getMembers().stream())
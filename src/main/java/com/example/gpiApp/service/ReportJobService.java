@@ -0,0 +1,294 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.report.ReportJobDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Renders PDF reports in the background so large exports no longer hold the HTTP request open.
+ *
+ * A job is accepted onto a bounded worker pool (a full queue is rejected, not grown), rendered by
+ * {@link ReportService}, and written to {@code <app.upload.dir>/report-jobs/<job id>.pdf}. The owner
+ * is notified through {@link WebSocketNotificationService} when it is ready or failed, and can poll
+ * the status or download the file until it expires ({@code reports.jobs.ttl-minutes}).
+ *
+ * Jobs live in memory only: after a restart their artifacts are orphaned and removed by the sweep.
+ *
+ * Render times are published as {@code reports.generation} (tagged by report type and outcome),
+ * with the queue depth and busy workers as gauges.
+ */
+@Slf4j
+@Service
+public class ReportJobService implements MeterBinder {
+
+    /** PDF reports that can be rendered as jobs; the slug matches the synchronous endpoint path. */
+    public enum ReportType {
+        TASKS("tasks"),
+        PROJECTS("projects"),
+        USERS("users"),
+        PROJECT_HEALTH("project-health"),
+        TEAM_ALLOCATION("team-allocation"),
+        MILESTONE_DELIVERY("milestone-delivery");
+
+        private final String slug;
+
+        ReportType(String slug) {
+            this.slug = slug;
+        }
+
+        public String getSlug() {
+            return slug;
+        }
+
+        public static Optional<ReportType> fromSlug(String slug) {
+            return Arrays.stream(values()).filter(t -> t.slug.equalsIgnoreCase(slug)).findFirst();
+        }
+    }
+
+    public enum JobStatus { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    /** What the client is told about a failed job; the exception is only logged. */
+    static final String FAILURE_MESSAGE = "La génération du rapport a échoué. Réessayez ou contactez un administrateur.";
+
+    private final ReportService reportService;
+    private final WebSocketNotificationService webSocketNotificationService;
+    private final Path artifactDir;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public ReportJobService(
+            ReportService reportService,
+            WebSocketNotificationService webSocketNotificationService,
+            @Value("${app.upload.dir:uploads}") String uploadDir,
+            @Value("${reports.jobs.workers:2}") int workers,
+            @Value("${reports.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${reports.jobs.ttl-minutes:60}") long ttlMinutes) {
+        this.reportService = reportService;
+        this.webSocketNotificationService = webSocketNotificationService;
+        this.artifactDir = Path.of(uploadDir, "report-jobs");
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "report-job-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        Gauge.builder("reports.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Report jobs waiting for a worker")
+                .register(registry);
+        Gauge.builder("reports.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Report jobs being rendered")
+                .register(registry);
+    }
+
+    /**
+     * Queues a report for {@code userId} and returns immediately with the job in QUEUED state.
+     *
+     * @throws RejectedExecutionException when every worker is busy and the queue is full
+     */
+    public ReportJobDTO submit(ReportType type, Long projectId, Long userId) {
+        Job job = new Job(UUID.randomUUID().toString(), type, projectId, userId);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        log.info("Report job {} ({}) queued for user {}", job.id, type, userId);
+        return toDTO(job);
+    }
+
+    /** The job if it exists, has not expired and belongs to {@code userId}. */
+    public Optional<ReportJobDTO> getJob(String jobId, Long userId) {
+        return owned(jobId, userId).map(this::toDTO);
+    }
+
+    /** Path of the finished artifact, if the job is completed, unexpired and owned by {@code userId}. */
+    public Optional<Path> getArtifact(String jobId, Long userId) {
+        return owned(jobId, userId)
+                .filter(job -> job.status == JobStatus.COMPLETED)
+                .map(job -> job.file)
+                .filter(Files::isReadable);
+    }
+
+    private Optional<Job> owned(String jobId, Long userId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId) || job.isExpired(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private void run(Job job) {
+        job.status = JobStatus.RUNNING;
+        long start = System.currentTimeMillis();
+        try {
+            byte[] pdf = render(job.type, job.projectId);
+            Files.createDirectories(artifactDir);
+            Path target = artifactDir.resolve(job.id + ".pdf");
+            Path tmp = Files.createTempFile(artifactDir, job.id, ".tmp");
+            Files.write(tmp, pdf);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = target;
+            job.sizeBytes = (long) pdf.length;
+            finish(job, JobStatus.COMPLETED);
+            recordRender(job, System.currentTimeMillis() - start);
+            log.info("Report job {} ({}) completed in {} ms, {} bytes",
+                    job.id, job.type, System.currentTimeMillis() - start, pdf.length);
+        } catch (Exception e) {
+            job.error = FAILURE_MESSAGE; // the cause stays in the server log
+            finish(job, JobStatus.FAILED);
+            recordRender(job, System.currentTimeMillis() - start);
+            log.error("Report job {} ({}) failed: {}", job.id, job.type, e.getMessage(), e);
+        }
+        try {
+            webSocketNotificationService.sendReportJobUpdate(job.userId, toDTO(job));
+        } catch (Exception e) {
+            log.warn("Could not push report job {} update: {}", job.id, e.getMessage());
+        }
+    }
+
+    private void recordRender(Job job, long millis) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) return;
+        Timer.builder("reports.generation")
+                .description("Time to render and store a background report")
+                .tag("type", job.type.getSlug())
+                .tag("outcome", job.status == JobStatus.COMPLETED ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Timestamps are set before the status so a reader seeing the final status sees them too. */
+    private void finish(Job job, JobStatus status) {
+        job.completedAt = LocalDateTime.now();
+        job.expiresAt = job.completedAt.plus(ttl);
+        job.status = status;
+    }
+
+    private byte[] render(ReportType type, Long projectId) throws JRException {
+        return switch (type) {
+            case TASKS -> reportService.generateTasksReport(projectId);
+            case PROJECTS -> reportService.generateProjectsReport();
+            case USERS -> reportService.generateUsersReport();
+            case PROJECT_HEALTH -> reportService.generateProjectHealthReport();
+            case TEAM_ALLOCATION -> reportService.generateTeamAllocationReport();
+            case MILESTONE_DELIVERY -> reportService.generateMilestoneDeliveryReport();
+        };
+    }
+
+    /**
+     * Drops expired jobs and deletes their files, plus any artifact no live job points to (left
+     * over from before a restart) once it is older than the TTL.
+     */
+    @Scheduled(fixedDelayString = "${reports.jobs.sweep-ms:300000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) return false;
+            deleteQuietly(job.file);
+            return true;
+        });
+
+        if (!Files.isDirectory(artifactDir)) return;
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        try (Stream<Path> files = Files.list(artifactDir)) {
+            files.filter(f -> !jobs.containsKey(f.getFileName().toString().replaceFirst("\\.pdf$", "")))
+                 .filter(f -> f.toFile().lastModified() < cutoff)
+                 .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not sweep report artifacts in {}: {}", artifactDir, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report artifact {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReportJobDTO toDTO(Job job) {
+        return ReportJobDTO.builder()
+                .id(job.id)
+                .type(job.type.getSlug())
+                .status(job.status.name())
+                .fileName(job.type.getSlug().replace('-', '_') + "_report.pdf")
+                .sizeBytes(job.sizeBytes)
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .completedAt(job.completedAt)
+                .expiresAt(job.expiresAt)
+                .downloadUrl(job.status == JobStatus.COMPLETED ? "/api/reports/jobs/" + job.id + "/download" : null)
+                .build();
+    }
+
+    private static final class Job {
+        final String id;
+        final ReportType type;
+        final Long projectId;
+        final Long userId;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile JobStatus status = JobStatus.QUEUED;
+        volatile Path file;
+        volatile Long sizeBytes;
+        volatile String error;
+        volatile LocalDateTime completedAt;
+        volatile LocalDateTime expiresAt;
+
+        Job(String id, ReportType type, Long projectId, Long userId) {
+            this.id = id;
+            this.type = type;
+            this.projectId = projectId;
+            this.userId = userId;
+        }
+
+        boolean isExpired(LocalDateTime now) {
+            return expiresAt != null && now.isAfter(expiresAt);
+        }
+    }
+}
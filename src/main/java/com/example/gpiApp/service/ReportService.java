@@ -13,11 +13,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +33,10 @@ public class ReportService {
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ReportTemplateRegistry reportTemplates;
+
+    /** Rows fetched per CSV page; each page is written and flushed before the next is read. */
+    static final int CSV_PAGE_SIZE = 1000;
 
     // ── Existing reports ────────────────────────────────────────────────────
 
@@ -48,8 +54,7 @@ public class ReportService {
         parameters.put("COMPANY_NAME", "GPI Enterprise");
         parameters.put("COMPANY_TAGLINE", "Project & Task Management Platform");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/tasks_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("tasks_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -66,8 +71,7 @@ public class ReportService {
         parameters.put("title", "Projects Report");
         parameters.put("generatedBy", "Task Management System");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/projects_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("projects_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -84,8 +88,7 @@ public class ReportService {
         parameters.put("title", "Users Report");
         parameters.put("generatedBy", "Task Management System");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/users_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("users_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -125,9 +128,7 @@ public class ReportService {
         parameters.put("title", "Project Health Report");
         parameters.put("generatedBy", "Task Management System");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/project_health_report.jrxml");
-        if (reportStream == null) throw new IllegalStateException("JRXML not found: project_health_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("project_health_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -173,9 +174,7 @@ public class ReportService {
         parameters.put("title", "Team Allocation Report");
         parameters.put("generatedBy", "Task Management System");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/team_allocation_report.jrxml");
-        if (reportStream == null) throw new IllegalStateException("JRXML not found: team_allocation_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("team_allocation_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -210,9 +209,7 @@ public class ReportService {
         parameters.put("title", "Milestone Delivery Report");
         parameters.put("generatedBy", "Task Management System");
 
-        InputStream reportStream = getClass().getResourceAsStream("/reports/milestone_delivery_report.jrxml");
-        if (reportStream == null) throw new IllegalStateException("JRXML not found: milestone_delivery_report.jrxml");
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+        JasperReport jasperReport = reportTemplates.get("milestone_delivery_report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -222,46 +219,52 @@ public class ReportService {
 
     // ── CSV exports ──────────────────────────────────────────────────────────
 
-    @Transactional(readOnly = true)
-    public String generateTasksCsv() {
-        List<Task> tasks = taskRepository.findAll();
-        StringBuilder sb = new StringBuilder();
-        sb.append("Task Name,Status,Priority,Progress,Deadline,Project,Assignee\n");
-        for (Task task : tasks) {
-            String projectName = task.getProject() != null ? task.getProject().getName() : "";
-            String assignee = task.getAssignedTo() != null
-                ? task.getAssignedTo().getFirstName() + " " + task.getAssignedTo().getLastName()
-                : "";
-            sb.append(escapeCsv(task.getName())).append(",")
-              .append(task.getStatus()).append(",")
-              .append(task.getPriority()).append(",")
-              .append(task.getProgress() != null ? task.getProgress() : 0).append(",")
-              .append(task.getDeadline() != null ? task.getDeadline().toString() : "").append(",")
-              .append(escapeCsv(projectName)).append(",")
-              .append(escapeCsv(assignee)).append("\n");
-        }
-        return sb.toString();
+    /**
+     * Writes the task export to {@code out} page by page (keyset on id), flushing after each page so
+     * the client gets the first rows immediately and memory stays flat however many tasks exist.
+     */
+    public void writeTasksCsv(Writer out) throws IOException {
+        out.write("Task Name,Status,Priority,Progress,Deadline,Project,Assignee\n");
+        long afterId = 0;
+        List<TaskRepository.CsvRow> page;
+        do {
+            page = taskRepository.findCsvPage(afterId, PageRequest.of(0, CSV_PAGE_SIZE));
+            for (TaskRepository.CsvRow task : page) {
+                String assignee = task.getAssigneeFirstName() != null
+                    ? task.getAssigneeFirstName() + " " + task.getAssigneeLastName()
+                    : "";
+                out.append(escapeCsv(task.getName())).append(',')
+                   .append(String.valueOf(task.getStatus())).append(',')
+                   .append(String.valueOf(task.getPriority())).append(',')
+                   .append(String.valueOf(task.getProgress() != null ? task.getProgress() : 0)).append(',')
+                   .append(task.getDeadline() != null ? task.getDeadline().toString() : "").append(',')
+                   .append(escapeCsv(task.getProjectName())).append(',')
+                   .append(escapeCsv(assignee)).append('\n');
+                afterId = task.getId();
+            }
+            out.flush();
+        } while (page.size() == CSV_PAGE_SIZE);
     }
 
-    @Transactional(readOnly = true)
-    public String generateProjectsCsv() {
-        List<Project> projects = projectRepository.findAll();
-        StringBuilder sb = new StringBuilder();
-        sb.append("Project Name,Status,Progress,Start Date,End Date,Total Tasks,Completed Tasks\n");
-        for (Project project : projects) {
-            List<Task> tasks = project.getTasks();
-            int totalTasks = tasks.size();
-            int completedTasks = (int) tasks.stream()
-                .filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED).count();
-            sb.append(escapeCsv(project.getName())).append(",")
-              .append(project.getStatus()).append(",")
-              .append(project.getProgress() != null ? project.getProgress() : 0).append(",")
-              .append(project.getStartDate() != null ? project.getStartDate().toString() : "").append(",")
-              .append(project.getEndDate() != null ? project.getEndDate().toString() : "").append(",")
-              .append(totalTasks).append(",")
-              .append(completedTasks).append("\n");
-        }
-        return sb.toString();
+    /** Same as {@link #writeTasksCsv}, with per-project task totals computed by the page query. */
+    public void writeProjectsCsv(Writer out) throws IOException {
+        out.write("Project Name,Status,Progress,Start Date,End Date,Total Tasks,Completed Tasks\n");
+        long afterId = 0;
+        List<ProjectRepository.CsvRow> page;
+        do {
+            page = projectRepository.findCsvPage(afterId, PageRequest.of(0, CSV_PAGE_SIZE));
+            for (ProjectRepository.CsvRow project : page) {
+                out.append(escapeCsv(project.getName())).append(',')
+                   .append(String.valueOf(project.getStatus())).append(',')
+                   .append(String.valueOf(project.getProgress() != null ? project.getProgress() : 0)).append(',')
+                   .append(project.getStartDate() != null ? project.getStartDate().toString() : "").append(',')
+                   .append(project.getEndDate() != null ? project.getEndDate().toString() : "").append(',')
+                   .append(String.valueOf(project.getTotalTasks())).append(',')
+                   .append(String.valueOf(project.getCompletedTasks() != null ? project.getCompletedTasks() : 0)).append('\n');
+                afterId = project.getId();
+            }
+            out.flush();
+        } while (page.size() == CSV_PAGE_SIZE);
     }
 
     private String escapeCsv(String value) {
@@ -0,0 +1,155 @@
+package com.example.gpiApp.service;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled JasperReports templates, shared by every PDF export.
+ *
+ * Compiling a JRXML takes hundreds of milliseconds, so each template in {@code /reports} is compiled
+ * once (at startup when {@code reports.precompile} is on, otherwise on first use) and the
+ * {@link JasperReport} is reused — it is immutable once compiled and safe to fill concurrently.
+ *
+ * When {@code reports.compiled-dir} is set, compiled templates are also written there as
+ * {@code <name>-<hash>.jasper} so a restart loads them instead of compiling. The hash is taken over
+ * the JRXML source: a redeployed template gets a new file and stale ones are simply ignored.
+ */
+@Component
+public class ReportTemplateRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportTemplateRegistry.class);
+
+    static final List<String> TEMPLATES = List.of(
+            "tasks_report",
+            "projects_report",
+            "users_report",
+            "project_health_report",
+            "team_allocation_report",
+            "milestone_delivery_report");
+
+    private final Map<String, JasperReport> compiled = new ConcurrentHashMap<>();
+    private final Path compiledDir;
+    private final boolean precompile;
+
+    public ReportTemplateRegistry(
+            @Value("${reports.compiled-dir:}") String compiledDir,
+            @Value("${reports.precompile:true}") boolean precompile) {
+        this.compiledDir = compiledDir == null || compiledDir.isBlank() ? null : Path.of(compiledDir.trim());
+        this.precompile = precompile;
+    }
+
+    /** Compiles (or loads) every known template so the first export of each is as fast as the rest. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!precompile) return;
+        long start = System.currentTimeMillis();
+        for (String name : TEMPLATES) {
+            try {
+                get(name);
+            } catch (JRException | RuntimeException e) {
+                log.warn("Could not precompile report template {}: {}", name, e.getMessage());
+            }
+        }
+        log.info("Report templates ready: {} of {} in {} ms",
+                compiled.size(), TEMPLATES.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the compiled template {@code /reports/<name>.jrxml}, compiling it at most once.
+     *
+     * @throws IllegalStateException when the JRXML is not on the classpath
+     */
+    public JasperReport get(String name) throws JRException {
+        JasperReport report = compiled.get(name);
+        if (report != null) return report;
+        synchronized (this) {
+            report = compiled.get(name);
+            if (report == null) {
+                report = load(name);
+                compiled.put(name, report);
+            }
+            return report;
+        }
+    }
+
+    /** Number of templates currently held in memory. */
+    public int size() {
+        return compiled.size();
+    }
+
+    private JasperReport load(String name) throws JRException {
+        byte[] source = readSource(name);
+        Path cached = compiledDir != null ? compiledDir.resolve(name + "-" + hash(source) + ".jasper") : null;
+
+        if (cached != null && Files.isReadable(cached)) {
+            try {
+                JasperReport report = (JasperReport) JRLoader.loadObject(cached.toFile());
+                log.debug("Loaded compiled report template {} from {}", name, cached);
+                return report;
+            } catch (JRException | ClassCastException e) {
+                // Written by another JasperReports version or truncated — recompile and overwrite.
+                log.warn("Ignoring unreadable compiled template {}: {}", cached, e.getMessage());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        JasperReport report = JasperCompileManager.compileReport(new ByteArrayInputStream(source));
+        log.info("Compiled report template {} in {} ms", name, System.currentTimeMillis() - start);
+
+        if (cached != null) save(report, cached);
+        return report;
+    }
+
+    private void save(JasperReport report, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            JRSaver.saveObject(report, tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | JRException e) {
+            // Persistence only makes restarts warm; the in-memory template is still valid.
+            log.warn("Could not persist compiled template {}: {}", target, e.getMessage());
+        }
+    }
+
+    private byte[] readSource(String name) {
+        String path = "/reports/" + name + ".jrxml";
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            if (in == null) throw new IllegalStateException("JRXML not found: " + name + ".jrxml");
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + path, e);
+        }
+    }
+
+    private static String hash(byte[] source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source);
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
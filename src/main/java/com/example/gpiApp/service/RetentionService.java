@@ -0,0 +1,287 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.RetentionStatusDTO;
+import com.example.gpiApp.service.UnreadCounterService.Kind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@code notifications} and {@code activity_logs} bounded.
+ *
+ * Rows older than their type's retention (System Settings → Rétention; 0 keeps a type forever) are
+ * removed oldest first, {@code retention.batch-size} rows per statement, walking the
+ * {@code (type, created_at)} indexes. With archiving on, each batch is first appended to
+ * {@code <retention.archive-dir>/<table>/<yyyy-MM>.ndjson.gz} (one gzip member per batch, so the
+ * file reads back as one stream), keyed by the month the rows were created. A batch is deleted only
+ * after its archive write succeeded; a crash in between archives it twice, never loses it. One run
+ * stops after {@code retention.max-batches-per-run} batches and the next run carries on.
+ */
+@Slf4j
+@Service
+public class RetentionService {
+
+    enum Table {
+        NOTIFICATIONS("notifications", "type",
+                "id, user_id, title, message, type, is_read, reference_id, reference_type, created_at, read_at"),
+        ACTIVITY_LOGS("activity_logs", "activity_type",
+                "id, activity_type, description, user_id, entity_type, entity_id, ip_address, created_at");
+
+        final String name;
+        final String typeColumn;
+        final String columns;
+
+        Table(String name, String typeColumn, String columns) {
+            this.name = name;
+            this.typeColumn = typeColumn;
+            this.columns = columns;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SystemSettingsService settingsService;
+    private final UnreadCounterService unreadCounters;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService manualRuns = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "retention-purge");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Path archiveDir;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<Table, Progress> progress = new LinkedHashMap<>();
+    private volatile String currentStep;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile boolean lastRunComplete;
+    private volatile String lastRunError;
+
+    public RetentionService(JdbcTemplate jdbcTemplate,
+                            SystemSettingsService settingsService,
+                            UnreadCounterService unreadCounters,
+                            ObjectMapper objectMapper,
+                            @Value("${retention.archive-dir:data/archive}") String archiveDir,
+                            @Value("${retention.batch-size:1000}") int batchSize,
+                            @Value("${retention.max-batches-per-run:500}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settingsService = settingsService;
+        this.unreadCounters = unreadCounters;
+        this.objectMapper = objectMapper;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        for (Table table : Table.values()) progress.put(table, new Progress());
+    }
+
+    @Scheduled(cron = "${retention.cron:0 15 2 * * *}")
+    public void scheduledPurge() {
+        purge();
+    }
+
+    /** Starts a purge in the background unless one is already running; returns whether it started. */
+    public boolean triggerPurge() {
+        if (running.get()) return false;
+        manualRuns.execute(this::purge);
+        return true;
+    }
+
+    /** One retention run over both tables; a no-op while another run is in progress. */
+    public void purge() {
+        if (!running.compareAndSet(false, true)) return;
+        lastRunStartedAt = LocalDateTime.now();
+        lastRunError = null;
+        progress.values().forEach(Progress::resetRun);
+        int[] budget = {maxBatchesPerRun};
+        try {
+            SystemSettingsService.RetentionPolicy policy = settingsService.getRetentionPolicy();
+            LocalDateTime now = LocalDateTime.now();
+            boolean complete = true;
+            for (var e : policy.notificationDays().entrySet()) {
+                complete &= purgeType(Table.NOTIFICATIONS, e.getKey().name(), e.getValue(), now, policy.archive(), budget);
+            }
+            for (var e : policy.activityLogDays().entrySet()) {
+                complete &= purgeType(Table.ACTIVITY_LOGS, e.getKey().name(), e.getValue(), now, policy.archive(), budget);
+            }
+            lastRunComplete = complete;
+            progress.forEach((table, p) -> {
+                if (p.purgedLastRun.get() > 0) {
+                    log.info("Retention purged {} {} rows ({} archived)", p.purgedLastRun.get(), table.name, p.archivedLastRun.get());
+                }
+            });
+        } catch (RuntimeException e) {
+            lastRunComplete = false;
+            lastRunError = e.getMessage();
+            log.error("Retention run failed", e);
+        } finally {
+            currentStep = null;
+            lastRunFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    /** Purges one type; returns false when the run's batch budget ran out before the type was done. */
+    private boolean purgeType(Table table, String type, int days, LocalDateTime now, boolean archive, int[] budget) {
+        if (days <= 0) return true;
+        currentStep = table.name + "/" + type;
+        Timestamp cutoff = Timestamp.valueOf(now.minusDays(days));
+        String select = "SELECT " + table.columns + " FROM " + table.name + " WHERE " + table.typeColumn
+                + " = ? AND created_at < ? ORDER BY created_at, id LIMIT ?";
+        Progress p = progress.get(table);
+        while (true) {
+            if (budget[0] <= 0) return false;
+            budget[0]--;
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, type, cutoff, batchSize);
+            if (rows.isEmpty()) return true;
+            if (archive) {
+                archive(table, rows);
+                p.archivedLastRun.addAndGet(rows.size());
+            }
+            List<Long> ids = rows.stream().map(r -> ((Number) r.get("id")).longValue()).collect(Collectors.toList());
+            int deleted = jdbcTemplate.update("DELETE FROM " + table.name + " WHERE id IN ("
+                    + String.join(",", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+            p.purgedLastRun.addAndGet(deleted);
+            p.purgedTotal.addAndGet(deleted);
+            if (table == Table.NOTIFICATIONS) releaseUnread(rows);
+            if (rows.size() < batchSize) return true;
+        }
+    }
+
+    /** Purged unread notifications no longer count towards their users' badges. */
+    private void releaseUnread(List<Map<String, Object>> rows) {
+        rows.stream()
+                .filter(r -> !Boolean.TRUE.equals(r.get("is_read")))
+                .collect(Collectors.groupingBy(r -> ((Number) r.get("user_id")).longValue(), Collectors.counting()))
+                .forEach((userId, count) -> unreadCounters.add(Kind.NOTIFICATIONS, userId, -count));
+    }
+
+    /** Appends the rows to their creation months' archive files, one gzip member per file. */
+    void archive(Table table, List<Map<String, Object>> rows) {
+        Map<YearMonth, List<Map<String, Object>>> byMonth = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            row.forEach((column, value) -> record.put(column, value instanceof Timestamp ts ? ts.toLocalDateTime() : value));
+            LocalDateTime createdAt = (LocalDateTime) record.get("created_at");
+            YearMonth month = createdAt != null ? YearMonth.from(createdAt) : YearMonth.of(1970, 1);
+            byMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(record);
+        }
+        try {
+            Path dir = Files.createDirectories(archiveDir.resolve(table.name));
+            for (var e : byMonth.entrySet()) {
+                Path file = dir.resolve(e.getKey() + ".ndjson.gz");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                    for (Map<String, Object> record : e.getValue()) {
+                        out.write(objectMapper.writeValueAsBytes(record));
+                        out.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive " + table.name + " rows to " + archiveDir, e);
+        }
+    }
+
+    public RetentionStatusDTO getStatus() {
+        List<RetentionStatusDTO.TableStats> tables = new ArrayList<>();
+        for (Table table : Table.values()) {
+            Progress p = progress.get(table);
+            RetentionStatusDTO.TableStats stats = tableSize(table);
+            stats.setOldestCreatedAt(jdbcTemplate.queryForObject(
+                    "SELECT MIN(created_at) FROM " + table.name, LocalDateTime.class));
+            stats.setPurgedLastRun(p.purgedLastRun.get());
+            stats.setArchivedLastRun(p.archivedLastRun.get());
+            stats.setPurgedSinceStartup(p.purgedTotal.get());
+            tables.add(stats);
+        }
+        int files = 0;
+        long bytes = 0;
+        if (Files.isDirectory(archiveDir)) {
+            try (Stream<Path> paths = Files.walk(archiveDir)) {
+                for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                    files++;
+                    bytes += Files.size(path);
+                }
+            } catch (IOException e) {
+                log.warn("Could not size the retention archive {}: {}", archiveDir, e.getMessage());
+            }
+        }
+        return RetentionStatusDTO.builder()
+                .running(running.get())
+                .currentStep(currentStep)
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunFinishedAt(lastRunFinishedAt)
+                .lastRunComplete(lastRunComplete)
+                .lastRunError(lastRunError)
+                .archiveDir(archiveDir.toString())
+                .archiveFiles(files)
+                .archiveBytes(bytes)
+                .tables(tables)
+                .build();
+    }
+
+    /** InnoDB's estimate from information_schema (no table scan); an exact COUNT where that is unavailable. */
+    private RetentionStatusDTO.TableStats tableSize(Table table) {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "SELECT table_rows, data_length, index_length FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name = ?",
+                    (rs, i) -> RetentionStatusDTO.TableStats.builder()
+                            .table(table.name)
+                            .rows(rs.getLong(1))
+                            .dataBytes(rs.getLong(2))
+                            .indexBytes(rs.getLong(3))
+                            .build(),
+                    table.name);
+        } catch (RuntimeException e) {
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table.name, Long.class);
+            return RetentionStatusDTO.TableStats.builder().table(table.name).rows(rows != null ? rows : 0).build();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        manualRuns.shutdownNow();
+    }
+
+    private static final class Progress {
+        final AtomicLong purgedLastRun = new AtomicLong();
+        final AtomicLong archivedLastRun = new AtomicLong();
+        final AtomicLong purgedTotal = new AtomicLong();
+
+        void resetRun() {
+            purgedLastRun.set(0);
+            archivedLastRun.set(0);
+        }
+    }
+}
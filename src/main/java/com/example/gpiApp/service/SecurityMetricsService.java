@@ -0,0 +1,184 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.LoginAttempt;
+import com.example.gpiApp.repository.LoginAttemptRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling login counters behind the admin security console, so its metrics poll never touches
+ * {@code login_attempts}.
+ *
+ * Attempts, failures and successes are counted per minute in a ring covering the last 24 hours;
+ * "today" and "last 24 hours" are sums over the ring. Failing IPs and recently signed-in users are
+ * kept in insertion-ordered maps (re-inserted on every event, so the oldest entry is always first)
+ * and trimmed from the front when read; each holds at most {@code security.metrics.max-tracked-keys}
+ * entries, after which the least recent key is forgotten. Everything is rebuilt from the last 24
+ * hours of {@code login_attempts} before the web server starts taking requests, so no attempt can be
+ * counted in memory while its row still waits in {@link AuditLogWriter}'s queue and then be wiped by
+ * the rebuild; from then on the counters follow each attempt this node records.
+ */
+@Slf4j
+@Service
+public class SecurityMetricsService {
+
+    static final int WINDOW_MINUTES = 24 * 60;
+    static final int ACTIVE_SESSION_MINUTES = 30;
+
+    /** What the security console shows. */
+    public record Snapshot(long todayAttempts, long todayFailures, long todaySuccesses, long failures24h,
+                           long failingIps24h, long activeSessions, long totalAttempts) {}
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final long[] slotMinute = new long[WINDOW_MINUTES];
+    private final int[] attempts = new int[WINDOW_MINUTES];
+    private final int[] failures = new int[WINDOW_MINUTES];
+    private final int[] successes = new int[WINDOW_MINUTES];
+    private final RecentKeys<String> failingIps;
+    private final RecentKeys<Long> signedInUsers;
+    private long totalAttempts;
+
+    public SecurityMetricsService(LoginAttemptRepository loginAttemptRepository,
+                                  @Value("${security.metrics.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.failingIps = new RecentKeys<>(maxTrackedKeys);
+        this.signedInUsers = new RecentKeys<>(maxTrackedKeys);
+    }
+
+    @PostConstruct
+    void rebuildOnStartup() {
+        try {
+            rebuild(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild security counters, counting from now on: {}", e.getMessage());
+        }
+    }
+
+    /** Replaces the counters with what the last 24 hours of {@code login_attempts} say. */
+    synchronized void rebuild(long nowMillis) {
+        reset();
+        long now = nowMillis / 60_000;
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone).minusMinutes(WINDOW_MINUTES);
+        int rows = 0;
+        for (LoginAttemptRepository.AttemptSample sample : loginAttemptRepository.findSamplesSince(since)) {
+            if (sample.getAttemptedAt() == null) continue;
+            long minute = sample.getAttemptedAt().atZone(zone).toEpochSecond() / 60;
+            record(sample.getStatus(), sample.getIpAddress(), sample.getUserId(), Math.min(minute, now));
+            rows++;
+        }
+        totalAttempts = loginAttemptRepository.count();
+        log.info("Security counters rebuilt from {} login attempts of the last 24 hours", rows);
+    }
+
+    /** Counts one login attempt, once the caller's transaction (if any) commits, like its journal row. */
+    public void attemptRecorded(LoginAttempt.LoginStatus status, String ipAddress, Long userId) {
+        TransactionHooks.afterCommit(() -> recorded(status, ipAddress, userId, System.currentTimeMillis()));
+    }
+
+    synchronized void recorded(LoginAttempt.LoginStatus status, String ipAddress, Long userId, long nowMillis) {
+        record(status, ipAddress, userId, nowMillis / 60_000);
+        totalAttempts++;
+    }
+
+    /** The journal was emptied; counting starts again once that commits. */
+    public void cleared() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                reset();
+            }
+        });
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(System.currentTimeMillis());
+    }
+
+    synchronized Snapshot snapshot(long nowMillis) {
+        long now = nowMillis / 60_000;
+        long midnight = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate().atStartOfDay(zone).toEpochSecond() / 60;
+        long todayAttempts = 0, todayFailures = 0, todaySuccesses = 0, failures24h = 0;
+        for (int i = 0; i < WINDOW_MINUTES; i++) {
+            long minute = slotMinute[i];
+            if (minute <= now - WINDOW_MINUTES || minute > now) continue;
+            failures24h += failures[i];
+            if (minute >= midnight) {
+                todayAttempts += attempts[i];
+                todayFailures += failures[i];
+                todaySuccesses += successes[i];
+            }
+        }
+        return new Snapshot(todayAttempts, todayFailures, todaySuccesses, failures24h,
+                failingIps.countSince(now - WINDOW_MINUTES + 1),
+                signedInUsers.countSince(now - ACTIVE_SESSION_MINUTES + 1),
+                totalAttempts);
+    }
+
+    private void record(LoginAttempt.LoginStatus status, String ipAddress, Long userId, long minute) {
+        int slot = (int) Math.floorMod(minute, (long) WINDOW_MINUTES);
+        if (slotMinute[slot] < minute) {
+            slotMinute[slot] = minute;
+            attempts[slot] = 0;
+            failures[slot] = 0;
+            successes[slot] = 0;
+        }
+        if (slotMinute[slot] == minute) {
+            attempts[slot]++;
+            if (status == LoginAttempt.LoginStatus.FAILURE) failures[slot]++;
+            if (status == LoginAttempt.LoginStatus.SUCCESS) successes[slot]++;
+        }
+        if (status == LoginAttempt.LoginStatus.FAILURE && ipAddress != null && !ipAddress.isBlank()) {
+            failingIps.touch(ipAddress, minute);
+        }
+        if (status == LoginAttempt.LoginStatus.SUCCESS && userId != null) {
+            signedInUsers.touch(userId, minute);
+        }
+    }
+
+    private void reset() {
+        Arrays.fill(slotMinute, 0);
+        Arrays.fill(attempts, 0);
+        Arrays.fill(failures, 0);
+        Arrays.fill(successes, 0);
+        failingIps.clear();
+        signedInUsers.clear();
+        totalAttempts = 0;
+    }
+
+    /** Key → minute last seen, oldest first; callers hold the service monitor. */
+    private static final class RecentKeys<K> extends LinkedHashMap<K, Long> {
+        private final int maxKeys;
+
+        RecentKeys(int maxKeys) {
+            this.maxKeys = Math.max(1, maxKeys);
+        }
+
+        void touch(K key, long minute) {
+            Long previous = remove(key);
+            put(key, previous != null ? Math.max(previous, minute) : minute);
+        }
+
+        /** Drops keys last seen before {@code fromMinute} and returns how many are left. */
+        long countSince(long fromMinute) {
+            Iterator<Long> it = values().iterator();
+            while (it.hasNext() && it.next() < fromMinute) it.remove();
+            return size();
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
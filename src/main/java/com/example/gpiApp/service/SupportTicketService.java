@@ -27,6 +27,7 @@ public class SupportTicketService {
     private final SupportTicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollups;
 
     @Transactional(readOnly = true)
     public PagedResponse<SupportTicketDTO> getAllTickets(int page, int size) {
@@ -90,19 +91,17 @@ public class SupportTicketService {
                 .build();
 
         SupportTicket saved = ticketRepository.save(ticket);
+        analyticsRollups.ticketChanged(null, AnalyticsRollupService.TicketFacts.of(saved));
 
         // Notify all admins about the new support ticket
         String notifTitle = "New Support Ticket";
         String notifMsg = user.getFirstName() + " " + user.getLastName()
                 + " submitted a ticket: \"" + subject + "\"";
-        List<allUsers> admins = userRepository.findByRole(allUsers.Role.ADMIN);
-        for (allUsers admin : admins) {
-            notificationService.createNotification(
-                    admin.getId(), notifTitle, notifMsg,
-                    Notification.NotificationType.SYSTEM,
-                    saved.getId(), "SUPPORT_TICKET"
-            );
-        }
+        notificationService.createNotifications(
+                userRepository.findIdsByRole(allUsers.Role.ADMIN), notifTitle, notifMsg,
+                Notification.NotificationType.SYSTEM,
+                saved.getId(), "SUPPORT_TICKET"
+        );
 
         return ApiResponse.success("Ticket created successfully", convertToDTO(saved));
     }
@@ -111,11 +110,13 @@ public class SupportTicketService {
     public ApiResponse<SupportTicketDTO> updateTicketStatus(Long id, String status) {
         return ticketRepository.findById(id)
                 .map(ticket -> {
+                    AnalyticsRollupService.TicketFacts before = AnalyticsRollupService.TicketFacts.of(ticket);
                     ticket.setStatus(SupportTicket.Status.valueOf(status));
                     if (status.equals("RESOLVED") || status.equals("CLOSED")) {
                         ticket.setResolvedAt(LocalDateTime.now());
                     }
                     SupportTicket saved = ticketRepository.save(ticket);
+                    analyticsRollups.ticketChanged(before, AnalyticsRollupService.TicketFacts.of(saved));
 
                     // Notify the ticket owner of the status change
                     String statusLabel = status.charAt(0) + status.substring(1).toLowerCase().replace('_', ' ');
@@ -136,12 +137,14 @@ public class SupportTicketService {
     public ApiResponse<SupportTicketDTO> assignTicket(Long id, Long assignedToId) {
         return ticketRepository.findById(id)
                 .map(ticket -> {
+                    AnalyticsRollupService.TicketFacts before = AnalyticsRollupService.TicketFacts.of(ticket);
                     allUsers assignedTo = userRepository.findById(assignedToId).orElse(null);
                     ticket.setAssignedTo(assignedTo);
                     if (ticket.getStatus() == SupportTicket.Status.OPEN) {
                         ticket.setStatus(SupportTicket.Status.IN_PROGRESS);
                     }
                     SupportTicket saved = ticketRepository.save(ticket);
+                    analyticsRollups.ticketChanged(before, AnalyticsRollupService.TicketFacts.of(saved));
                     return ApiResponse.success("Ticket assigned successfully", convertToDTO(saved));
                 })
                 .orElse(ApiResponse.error("Ticket not found"));
@@ -149,11 +152,13 @@ public class SupportTicketService {
 
     @Transactional
     public ApiResponse<Void> deleteTicket(Long id) {
-        if (ticketRepository.existsById(id)) {
-            ticketRepository.deleteById(id);
-            return ApiResponse.success("Ticket deleted", null);
-        }
-        return ApiResponse.error("Ticket not found");
+        return ticketRepository.findById(id)
+                .map(ticket -> {
+                    analyticsRollups.ticketChanged(AnalyticsRollupService.TicketFacts.of(ticket), null);
+                    ticketRepository.delete(ticket);
+                    return ApiResponse.<Void>success("Ticket deleted", null);
+                })
+                .orElse(ApiResponse.error("Ticket not found"));
     }
 
     public long countOpenTickets() {
@@ -1,12 +1,19 @@
 package com.example.gpiApp.service;
 
 import com.example.gpiApp.dto.SystemSettingsDTO;
+import com.example.gpiApp.entity.ActivityLog;
+import com.example.gpiApp.entity.Notification;
 import com.example.gpiApp.entity.SystemSettings;
 import com.example.gpiApp.repository.SystemSettingsRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Reads and persists the application-wide configuration singleton, and exposes
  * helpers so the rest of the app (registration, JWT issuance) honours the policy.
@@ -94,6 +101,8 @@ public class SystemSettingsService {
         if (dto.getJwtValidityMinutes() != null) s.setJwtValidityMinutes(Math.max(5, dto.getJwtValidityMinutes()));
         if (dto.getMaxLoginAttempts() != null) s.setMaxLoginAttempts(Math.max(1, dto.getMaxLoginAttempts()));
         if (dto.getLockoutDurationMinutes() != null) s.setLockoutDurationMinutes(Math.max(1, dto.getLockoutDurationMinutes()));
+        if (dto.getIpMaxFailedLogins() != null) s.setIpMaxFailedLogins(Math.max(1, dto.getIpMaxFailedLogins()));
+        if (dto.getIpBlockMinutes() != null) s.setIpBlockMinutes(Math.max(1, dto.getIpBlockMinutes()));
         if (dto.getPasswordMinLength() != null) s.setPasswordMinLength(Math.min(64, Math.max(4, dto.getPasswordMinLength())));
         if (dto.getPasswordRequireUppercase() != null) s.setPasswordRequireUppercase(dto.getPasswordRequireUppercase());
         if (dto.getPasswordRequireDigit() != null) s.setPasswordRequireDigit(dto.getPasswordRequireDigit());
@@ -129,6 +138,79 @@ public class SystemSettingsService {
         return toDTO(repository.save(s));
     }
 
+    @Transactional
+    public SystemSettingsDTO updateRetention(SystemSettingsDTO dto) {
+        SystemSettings s = getSettings();
+        if (dto.getNotificationRetentionDays() != null) s.setNotificationRetentionDays(Math.max(0, dto.getNotificationRetentionDays()));
+        if (dto.getActivityLogRetentionDays() != null) s.setActivityLogRetentionDays(Math.max(0, dto.getActivityLogRetentionDays()));
+        // Unknown type names are dropped; an empty map clears the overrides.
+        if (dto.getNotificationRetentionByType() != null) {
+            s.setNotificationRetentionOverrides(formatOverrides(
+                    parseOverrides(dto.getNotificationRetentionByType(), Notification.NotificationType.class)));
+        }
+        if (dto.getActivityLogRetentionByType() != null) {
+            s.setActivityLogRetentionOverrides(formatOverrides(
+                    parseOverrides(dto.getActivityLogRetentionByType(), ActivityLog.ActivityType.class)));
+        }
+        if (dto.getRetentionArchiveEnabled() != null) s.setRetentionArchiveEnabled(dto.getRetentionArchiveEnabled());
+        return toDTO(repository.save(s));
+    }
+
+    /** Days to keep, per notification and activity type (0 = forever), resolved from the table default and overrides. */
+    public RetentionPolicy getRetentionPolicy() {
+        SystemSettings s = getSettings();
+        return new RetentionPolicy(
+                resolve(Notification.NotificationType.class, s.getNotificationRetentionDays(), s.getNotificationRetentionOverrides()),
+                resolve(ActivityLog.ActivityType.class, s.getActivityLogRetentionDays(), s.getActivityLogRetentionOverrides()),
+                !Boolean.FALSE.equals(s.getRetentionArchiveEnabled()));
+    }
+
+    public record RetentionPolicy(Map<Notification.NotificationType, Integer> notificationDays,
+                                  Map<ActivityLog.ActivityType, Integer> activityLogDays,
+                                  boolean archive) {
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> resolve(Class<E> type, Integer defaultDays, String overrides) {
+        Map<E, Integer> days = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) days.put(value, defaultDays != null ? defaultDays : 0);
+        days.putAll(parseOverrides(splitOverrides(overrides), type));
+        return days;
+    }
+
+    /** "MESSAGE=30,SYSTEM=180" → {MESSAGE=30, SYSTEM=180}; malformed entries are skipped. */
+    static Map<String, Integer> splitOverrides(String overrides) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        if (overrides == null || overrides.isBlank()) return map;
+        for (String entry : overrides.split(",")) {
+            String[] kv = entry.split("=", 2);
+            if (kv.length != 2) continue;
+            try {
+                map.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+            } catch (NumberFormatException ignored) {
+                // skip malformed entry
+            }
+        }
+        return map;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> parseOverrides(Map<String, Integer> raw, Class<E> type) {
+        Map<E, Integer> parsed = new EnumMap<>(type);
+        raw.forEach((name, days) -> {
+            if (name == null || days == null) return;
+            for (E value : type.getEnumConstants()) {
+                if (value.name().equalsIgnoreCase(name.trim())) parsed.put(value, Math.max(0, days));
+            }
+        });
+        return parsed;
+    }
+
+    private static String formatOverrides(Map<? extends Enum<?>, Integer> overrides) {
+        if (overrides.isEmpty()) return null;
+        return overrides.entrySet().stream()
+                .map(e -> e.getKey().name() + "=" + e.getValue())
+                .collect(Collectors.joining(","));
+    }
+
     /**
      * Generate a simple, human-friendly temporary password that satisfies the active policy
      * (used by the admin "reset password" action). A 4-digit random suffix keeps each reset unique.
@@ -208,6 +290,8 @@ public class SystemSettingsService {
                 .jwtValidityMinutes(s.getJwtValidityMinutes())
                 .maxLoginAttempts(s.getMaxLoginAttempts())
                 .lockoutDurationMinutes(s.getLockoutDurationMinutes())
+                .ipMaxFailedLogins(s.getIpMaxFailedLogins())
+                .ipBlockMinutes(s.getIpBlockMinutes())
                 .passwordMinLength(s.getPasswordMinLength())
                 .passwordRequireUppercase(s.getPasswordRequireUppercase())
                 .passwordRequireDigit(s.getPasswordRequireDigit())
@@ -228,6 +312,11 @@ public class SystemSettingsService {
                 .notifyOnProjectOverdue(s.getNotifyOnProjectOverdue())
                 .backupRetentionDays(s.getBackupRetentionDays())
                 .maxFileUploadMb(s.getMaxFileUploadMb())
+                .notificationRetentionDays(s.getNotificationRetentionDays())
+                .activityLogRetentionDays(s.getActivityLogRetentionDays())
+                .notificationRetentionByType(splitOverrides(s.getNotificationRetentionOverrides()))
+                .activityLogRetentionByType(splitOverrides(s.getActivityLogRetentionOverrides()))
+                .retentionArchiveEnabled(s.getRetentionArchiveEnabled())
                 .build();
     }
 }
@@ -18,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,6 +33,8 @@ public class TaskService {
     private final ActivityLogService activityLogService;
     private final CalendarService calendarService;
     private final NotificationService notificationService;
+    private final AnalyticsRollupService analyticsRollups;
+    private final ProjectProgressService projectProgress;
 
     public TaskService(TaskRepository taskRepository,
                        ProjectRepository projectRepository,
@@ -40,7 +43,9 @@ public class TaskService {
                        TimeLogRepository timeLogRepository,
                        ActivityLogService activityLogService,
                        CalendarService calendarService,
-                       NotificationService notificationService) {
+                       NotificationService notificationService,
+                       AnalyticsRollupService analyticsRollups,
+                       ProjectProgressService projectProgress) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
@@ -49,6 +54,8 @@ public class TaskService {
         this.activityLogService = activityLogService;
         this.calendarService = calendarService;
         this.notificationService = notificationService;
+        this.analyticsRollups = analyticsRollups;
+        this.projectProgress = projectProgress;
     }
 
     /** Notify an assignee that a task has landed on their plate (and calendar). */
@@ -69,11 +76,9 @@ public class TaskService {
     public PagedResponse<TaskDTO> getAllTasks(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         PageRequest pageable = PageRequest.of(page, size, sort);
-        Page<Task> taskPage = taskRepository.findAll(pageable);
+        Page<Task> taskPage = taskRepository.findAllWithDetails(pageable);
         
-        List<TaskDTO> taskDTOs = taskPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<TaskDTO> taskDTOs = convertToDTOs(taskPage.getContent());
         
         return PagedResponse.of(taskDTOs, taskPage.getNumber(), taskPage.getSize(),
                 taskPage.getTotalElements(), taskPage.getTotalPages(),
@@ -82,7 +87,7 @@ public class TaskService {
     
     @Transactional(readOnly = true)
     public ApiResponse<TaskDTO> getTaskById(Long id) {
-        return taskRepository.findById(id)
+        return taskRepository.findWithDetailsById(id)
                 .map(task -> ApiResponse.success("Task retrieved successfully", convertToDTO(task)))
                 .orElse(ApiResponse.error("Task not found"));
     }
@@ -112,11 +117,8 @@ public class TaskService {
         userRepository.findById(createdById).ifPresent(task::setCreatedBy);
         
         Task savedTask = taskRepository.save(task);
-        
-        // Auto-update project progress
-        if (savedTask.getProject() != null) {
-            updateProjectProgressAutomatically(savedTask.getProject());
-        }
+        analyticsRollups.taskChanged(null, savedTask);
+        projectProgress.taskChanged(null, false, savedTask.getProject(), ProjectProgressService.isCompleted(savedTask));
         
         // Log activity
         userRepository.findById(createdById).ifPresent(user -> 
@@ -150,7 +152,9 @@ public class TaskService {
         return taskRepository.findById(id)
                 .map(task -> {
                     Project oldProject = task.getProject();
+                    boolean wasCompleted = ProjectProgressService.isCompleted(task);
                     Long oldAssigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+                    AnalyticsRollupService.TaskFacts before = AnalyticsRollupService.TaskFacts.of(task);
 
                     task.setName(request.getName());
                     task.setDescription(request.getDescription());
@@ -172,14 +176,9 @@ public class TaskService {
                     }
                     
                     Task updatedTask = taskRepository.save(task);
-                    
-                    // Auto-update project progress
-                    if (oldProject != null && (updatedTask.getProject() == null || !oldProject.getId().equals(updatedTask.getProject().getId()))) {
-                        updateProjectProgressAutomatically(oldProject);
-                    }
-                    if (updatedTask.getProject() != null) {
-                        updateProjectProgressAutomatically(updatedTask.getProject());
-                    }
+                    analyticsRollups.taskChanged(before, updatedTask);
+                    projectProgress.taskChanged(oldProject, wasCompleted,
+                            updatedTask.getProject(), ProjectProgressService.isCompleted(updatedTask));
                     
                     // Log activity
                     userRepository.findById(updatedById).ifPresent(user -> 
@@ -217,12 +216,12 @@ public class TaskService {
                 .map(task -> {
                     Project project = task.getProject();
                     String taskName = task.getName();
+                    analyticsRollups.taskChanged(AnalyticsRollupService.TaskFacts.of(task), null);
+                    // Time logs go with the task (cascade), so their hours leave the rollups too.
+                    task.getTimeLogs().forEach(l ->
+                            analyticsRollups.timeLogChanged(AnalyticsRollupService.TimeLogFacts.of(l), null));
                     taskRepository.delete(task);
-                    
-                    // Auto-update project progress
-                    if (project != null) {
-                        updateProjectProgressAutomatically(project);
-                    }
+                    projectProgress.taskChanged(project, ProjectProgressService.isCompleted(task), null, false);
                     
                     // Log activity
                     userRepository.findById(deletedById).ifPresent(user -> 
@@ -244,11 +243,9 @@ public class TaskService {
     @Transactional(readOnly = true)
     public PagedResponse<TaskDTO> getTasksByAssignedUser(Long userId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size, Sort.by("deadline").ascending());
-        Page<Task> taskPage = taskRepository.findByAssignedToId(userId, pageable);
+        Page<Task> taskPage = taskRepository.findWithDetailsByAssignedToId(userId, pageable);
         
-        List<TaskDTO> taskDTOs = taskPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<TaskDTO> taskDTOs = convertToDTOs(taskPage.getContent());
         
         return PagedResponse.of(taskDTOs, taskPage.getNumber(), taskPage.getSize(),
                 taskPage.getTotalElements(), taskPage.getTotalPages(),
@@ -258,11 +255,9 @@ public class TaskService {
     @Transactional(readOnly = true)
     public PagedResponse<TaskDTO> getTasksByProject(Long projectId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size, Sort.by("deadline").ascending());
-        Page<Task> taskPage = taskRepository.findByProjectId(projectId, pageable);
+        Page<Task> taskPage = taskRepository.findWithDetailsByProjectId(projectId, pageable);
         
-        List<TaskDTO> taskDTOs = taskPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<TaskDTO> taskDTOs = convertToDTOs(taskPage.getContent());
         
         return PagedResponse.of(taskDTOs, taskPage.getNumber(), taskPage.getSize(),
                 taskPage.getTotalElements(), taskPage.getTotalPages(),
@@ -272,11 +267,9 @@ public class TaskService {
     @Transactional(readOnly = true)
     public PagedResponse<TaskDTO> getTasksByStatus(Task.TaskStatus status, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size, Sort.by("deadline").ascending());
-        Page<Task> taskPage = taskRepository.findByStatus(status, pageable);
+        Page<Task> taskPage = taskRepository.findWithDetailsByStatus(status, pageable);
         
-        List<TaskDTO> taskDTOs = taskPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<TaskDTO> taskDTOs = convertToDTOs(taskPage.getContent());
         
         return PagedResponse.of(taskDTOs, taskPage.getNumber(), taskPage.getSize(),
                 taskPage.getTotalElements(), taskPage.getTotalPages(),
@@ -285,16 +278,15 @@ public class TaskService {
     
     @Transactional(readOnly = true)
     public List<TaskDTO> getOverdueTasks() {
-        List<Task> overdueTasks = taskRepository.findOverdueTasks(LocalDate.now());
-        return overdueTasks.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(taskRepository.findOverdueTasksWithDetails(LocalDate.now()));
     }
     
     @Transactional
     public ApiResponse<TaskDTO> updateTaskProgress(Long id, Integer progress, String status, Long updatedById) {
         return taskRepository.findById(id)
                 .map(task -> {
+                    AnalyticsRollupService.TaskFacts before = AnalyticsRollupService.TaskFacts.of(task);
+                    boolean wasCompleted = ProjectProgressService.isCompleted(task);
                     if (progress != null) {
                         task.setProgress(progress);
                     }
@@ -324,36 +316,39 @@ public class TaskService {
                         );
                     }
                     Task updatedTask = taskRepository.save(task);
-                    
-                    // Auto-update project progress
-                    if (updatedTask.getProject() != null) {
-                        updateProjectProgressAutomatically(updatedTask.getProject());
-                    }
+                    analyticsRollups.taskChanged(before, updatedTask);
+                    projectProgress.taskChanged(updatedTask.getProject(), wasCompleted,
+                            updatedTask.getProject(), ProjectProgressService.isCompleted(updatedTask));
                     
                     return ApiResponse.success("Task progress updated successfully", convertToDTO(updatedTask));
                 })
                 .orElse(ApiResponse.error("Task not found"));
     }
     
-    private void updateProjectProgressAutomatically(Project project) {
-        if (project == null) return;
-        List<Task> tasks = taskRepository.findByProject(project);
-        if (tasks == null || tasks.isEmpty()) {
-            project.setProgress(0);
-        } else {
-            long completedCount = tasks.stream()
-                .filter(t -> t.getStatus() == Task.TaskStatus.COMPLETED)
-                .count();
-            int newProgress = (int) ((completedCount * 100) / tasks.size());
-            project.setProgress(newProgress);
-        }
-        projectRepository.save(project);
-    }
-    
     private TaskDTO convertToDTO(Task task) {
         Double totalHours = timeLogRepository.getTotalHoursByTaskId(task.getId());
         Long commentCount = commentRepository.countByTaskId(task.getId());
-        
+        return convertToDTO(task, totalHours, commentCount);
+    }
+    
+    /**
+     * Converts a page of tasks with two extra queries in total: logged hours and comment counts are
+     * fetched for all ids at once. The tasks should come from a "Task.details" finder so project,
+     * assignee and creator are already loaded.
+     */
+    private List<TaskDTO> convertToDTOs(List<Task> tasks) {
+        if (tasks.isEmpty()) return List.of();
+        List<Long> ids = tasks.stream().map(Task::getId).collect(Collectors.toList());
+        Map<Long, Double> hours = timeLogRepository.sumHoursByTaskIds(ids).stream()
+                .collect(Collectors.toMap(TimeLogRepository.TaskHours::getTaskId, TimeLogRepository.TaskHours::getHours));
+        Map<Long, Long> comments = commentRepository.countByTaskIds(ids).stream()
+                .collect(Collectors.toMap(CommentRepository.TaskCount::getTaskId, CommentRepository.TaskCount::getCount));
+        return tasks.stream()
+                .map(task -> convertToDTO(task, hours.get(task.getId()), comments.get(task.getId())))
+                .collect(Collectors.toList());
+    }
+    
+    private TaskDTO convertToDTO(Task task, Double totalHours, Long commentCount) {
         return TaskDTO.builder()
                 .id(task.getId())
                 .name(task.getName())
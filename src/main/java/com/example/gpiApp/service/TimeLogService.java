@@ -25,6 +25,7 @@ public class TimeLogService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final ActivityLogService activityLogService;
+    private final AnalyticsRollupService analyticsRollups;
     
     @Transactional(readOnly = true)
     public PagedResponse<TimeLogDTO> getAllTimeLogs(int page, int size) {
@@ -72,6 +73,7 @@ public class TimeLogService {
                     .build();
             
             TimeLog savedTimeLog = timeLogRepository.save(timeLog);
+            analyticsRollups.timeLogChanged(null, AnalyticsRollupService.TimeLogFacts.of(savedTimeLog));
             
             // Log activity
             activityLogService.logActivity(
@@ -94,6 +96,7 @@ public class TimeLogService {
     public ApiResponse<TimeLogDTO> updateTimeLog(Long id, TimeLogRequestDTO request) {
         return timeLogRepository.findById(id)
                 .map(timeLog -> {
+                    AnalyticsRollupService.TimeLogFacts before = AnalyticsRollupService.TimeLogFacts.of(timeLog);
                     timeLog.setHoursSpent(request.getHoursSpent());
                     timeLog.setLogDate(request.getLogDate());
                     timeLog.setDescription(request.getDescription());
@@ -104,6 +107,7 @@ public class TimeLogService {
                     }
                     
                     TimeLog updatedTimeLog = timeLogRepository.save(timeLog);
+                    analyticsRollups.timeLogChanged(before, AnalyticsRollupService.TimeLogFacts.of(updatedTimeLog));
                     return ApiResponse.success("Time log updated successfully", convertToDTO(updatedTimeLog));
                 })
                 .orElse(ApiResponse.error("Time log not found"));
@@ -113,6 +117,7 @@ public class TimeLogService {
     public ApiResponse<Void> deleteTimeLog(Long id) {
         return timeLogRepository.findById(id)
                 .map(timeLog -> {
+                    analyticsRollups.timeLogChanged(AnalyticsRollupService.TimeLogFacts.of(timeLog), null);
                     timeLogRepository.delete(timeLog);
                     return ApiResponse.<Void>success("Time log deleted successfully", null);
                 })
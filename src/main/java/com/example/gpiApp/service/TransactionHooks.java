@@ -0,0 +1,28 @@
+package com.example.gpiApp.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (caches, counters, pushes) until the surrounding transaction
+ * commits, so rolled-back work leaves no trace. Outside a transaction the action runs at once.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /** Runs {@code action} after the current transaction commits, or now when there is none. */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
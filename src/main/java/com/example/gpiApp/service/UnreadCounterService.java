@@ -0,0 +1,156 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.repository.MessageRepository;
+import com.example.gpiApp.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory unread counts per user for the notification bell and the message badge, so badge polls
+ * are map reads instead of COUNT queries.
+ *
+ * A user's count is loaded from the database on first read, then moved by deltas applied after
+ * the writing transaction commits (new notification or message, read, read-all, delete). Every
+ * {@code unread.reconcile-ms} the cached counts are re-read with one grouped query per 500 users,
+ * which corrects drift from writes that raced a load, and users idle for longer than
+ * {@code unread.idle-evict-minutes} are dropped.
+ */
+@Slf4j
+@Service
+public class UnreadCounterService implements MeterBinder {
+
+    public enum Kind { NOTIFICATIONS, MESSAGES }
+
+    static final int RECONCILE_CHUNK = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final MessageRepository messageRepository;
+    private final long idleMillis;
+
+    private final Map<Kind, Map<Long, Counter>> counters = new EnumMap<>(Kind.class);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UnreadCounterService(NotificationRepository notificationRepository,
+                                MessageRepository messageRepository,
+                                @Value("${unread.idle-evict-minutes:30}") long idleMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.messageRepository = messageRepository;
+        this.idleMillis = idleMinutes * 60_000;
+        for (Kind kind : Kind.values()) counters.put(kind, new ConcurrentHashMap<>());
+    }
+
+    /** The user's unread count, loaded from the database if it is not cached yet. */
+    public long get(Kind kind, Long userId) {
+        if (userId == null) return 0;
+        Map<Long, Counter> byUser = counters.get(kind);
+        Counter counter = byUser.get(userId);
+        if (counter != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Counter loaded = new Counter(load(kind, userId));
+            counter = byUser.putIfAbsent(userId, loaded);
+            if (counter == null) counter = loaded;
+        }
+        counter.touchedAt = System.currentTimeMillis();
+        return counter.unread.get();
+    }
+
+    /** Moves a cached count by {@code delta} once the current transaction commits; never below zero. */
+    public void add(Kind kind, Long userId, long delta) {
+        if (userId == null || delta == 0) return;
+        TransactionHooks.afterCommit(() -> {
+            Counter counter = counters.get(kind).get(userId);
+            if (counter != null) counter.unread.updateAndGet(v -> Math.max(0, v + delta));
+        });
+    }
+
+    /** Everything of this kind was marked read. */
+    public void reset(Kind kind, Long userId) {
+        if (userId == null) return;
+        TransactionHooks.afterCommit(() -> {
+            Counter counter = counters.get(kind).get(userId);
+            if (counter != null) counter.unread.set(0);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${unread.reconcile-ms:300000}", initialDelayString = "${unread.reconcile-ms:300000}")
+    public void reconcile() {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        for (Kind kind : Kind.values()) {
+            Map<Long, Counter> byUser = counters.get(kind);
+            byUser.values().removeIf(c -> c.touchedAt <= idleBefore);
+            List<Long> userIds = new ArrayList<>(byUser.keySet());
+            int drifted = 0;
+            for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK) {
+                List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK, userIds.size()));
+                Map<Long, Long> actual = loadAll(kind, chunk);
+                for (Long userId : chunk) {
+                    Counter counter = byUser.get(userId);
+                    if (counter == null) continue;
+                    long expected = actual.getOrDefault(userId, 0L);
+                    if (counter.unread.getAndSet(expected) != expected) drifted++;
+                }
+            }
+            if (drifted > 0) log.info("Reconciled {} unread counts: {} of {} had drifted", kind, drifted, userIds.size());
+        }
+    }
+
+    int cachedUsers(Kind kind) {
+        return counters.get(kind).size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("unread.cache.hits", hits, LongAdder::sum)
+                .description("Unread-count reads served from memory").register(registry);
+        FunctionCounter.builder("unread.cache.misses", misses, LongAdder::sum)
+                .description("Unread-count reads loaded from the database").register(registry);
+        for (Kind kind : Kind.values()) {
+            Gauge.builder("unread.cache.users", counters.get(kind), Map::size)
+                    .tag("kind", kind.name().toLowerCase()).register(registry);
+        }
+    }
+
+    private long load(Kind kind, Long userId) {
+        Long count = kind == Kind.NOTIFICATIONS
+                ? notificationRepository.countByUserIdAndIsReadFalse(userId)
+                : messageRepository.countUnreadByRecipientId(userId);
+        return count != null ? count : 0;
+    }
+
+    private Map<Long, Long> loadAll(Kind kind, List<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (kind == Kind.NOTIFICATIONS) {
+            notificationRepository.countUnreadByUserIds(userIds).forEach(r -> counts.put(r.getUserId(), r.getUnread()));
+        } else {
+            messageRepository.countUnreadByRecipientIds(userIds).forEach(r -> counts.put(r.getUserId(), r.getUnread()));
+        }
+        return counts;
+    }
+
+    private static final class Counter {
+        final AtomicLong unread;
+        volatile long touchedAt = System.currentTimeMillis();
+
+        Counter(long unread) {
+            this.unread = new AtomicLong(unread);
+        }
+    }
+}
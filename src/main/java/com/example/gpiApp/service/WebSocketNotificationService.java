@@ -1,15 +1,18 @@
 package com.example.gpiApp.service;
 
 import com.example.gpiApp.dto.NotificationDTO;
+import com.example.gpiApp.dto.report.ReportJobDTO;
 import com.example.gpiApp.entity.Notification;
 import com.example.gpiApp.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -80,4 +83,32 @@ public class WebSocketNotificationService {
         
         log.info("Broadcast notification sent: {}", title);
     }
+
+    /**
+     * Pushes stored notifications to their users on {@code /user/queue/notifications}, off the
+     * caller's thread so a broadcast to every user does not hold the request. A user who is not
+     * connected simply sees the notification on the next fetch.
+     */
+    @Async
+    public void pushNotifications(List<NotificationDTO> notifications) {
+        int sent = 0;
+        for (NotificationDTO notification : notifications) {
+            try {
+                messagingTemplate.convertAndSendToUser(notification.getUserId().toString(), "/queue/notifications", notification);
+                sent++;
+            } catch (Exception e) {
+                log.warn("Notification push to user {} failed: {}", notification.getUserId(), e.getMessage());
+            }
+        }
+        log.debug("Pushed {} of {} notifications", sent, notifications.size());
+    }
+
+    /**
+     * Pushes a report job state change (ready or failed) to its owner on {@code /user/queue/reports}.
+     * Nothing is stored: the job itself is the record, and the client polls it if it missed the push.
+     */
+    public void sendReportJobUpdate(Long userId, ReportJobDTO job) {
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/reports", job);
+        log.info("Report job {} {} pushed to user {}", job.getId(), job.getStatus(), userId);
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.analytics.WebSocketStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * STOMP session registry and broker state for the admin dashboard and Prometheus.
+ *
+ * Session counts come from this node's WebSocket handler. The user count comes from the
+ * {@link SimpUserRegistry}, which in relay mode merges the registries broadcast by the other nodes,
+ * so it is cluster-wide.
+ */
+@Service
+public class WebSocketStatsService implements MeterBinder {
+
+    private final WebSocketMessageBrokerStats brokerStats;
+    private final WebSocketHandler webSocketHandler;
+    private final SimpUserRegistry userRegistry;
+    private final List<AbstractBrokerMessageHandler> brokers;
+    private final String brokerMode;
+
+    public WebSocketStatsService(WebSocketMessageBrokerStats brokerStats,
+                                 @Qualifier("subProtocolWebSocketHandler") WebSocketHandler webSocketHandler,
+                                 SimpUserRegistry userRegistry,
+                                 List<AbstractBrokerMessageHandler> brokers,
+                                 @Value("${websocket.broker.mode:simple}") String brokerMode) {
+        this.brokerStats = brokerStats;
+        this.webSocketHandler = webSocketHandler;
+        this.userRegistry = userRegistry;
+        this.brokers = brokers;
+        this.brokerMode = brokerMode;
+    }
+
+    public WebSocketStatsDTO snapshot() {
+        int websocket = sessions(SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+        int streaming = sessions(SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+        int polling = sessions(SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+        return WebSocketStatsDTO.builder()
+                .brokerMode("relay".equalsIgnoreCase(brokerMode) ? "relay" : "simple")
+                .brokerAvailable(isBrokerAvailable())
+                .connectedUsers(userRegistry.getUserCount())
+                .localSessions(websocket + streaming + polling)
+                .webSocketSessions(websocket)
+                .httpStreamingSessions(streaming)
+                .httpPollingSessions(polling)
+                .totalSessionsOpened(sessions(SubProtocolWebSocketHandler.Stats::getTotalSessions))
+                .sessionStats(brokerStats.getWebSocketSessionStatsInfo())
+                .stompStats(brokerStats.getStompSubProtocolStatsInfo())
+                .brokerRelayStats(brokerStats.getStompBrokerRelayStatsInfo())
+                .inboundExecutorStats(brokerStats.getClientInboundExecutorStatsInfo())
+                .outboundExecutorStats(brokerStats.getClientOutboundExecutorStatsInfo())
+                .build();
+    }
+
+    /** Whether the message broker accepts messages; in relay mode, whether the TCP link is up. */
+    public boolean isBrokerAvailable() {
+        return !brokers.isEmpty() && brokers.stream().allMatch(AbstractBrokerMessageHandler::isBrokerAvailable);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.sessions", this, s -> s.sessions(SubProtocolWebSocketHandler.Stats::getWebSocketSessions))
+                .tag("transport", "websocket").register(registry);
+        Gauge.builder("websocket.sessions", this, s -> s.sessions(SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions))
+                .tag("transport", "http-streaming").register(registry);
+        Gauge.builder("websocket.sessions", this, s -> s.sessions(SubProtocolWebSocketHandler.Stats::getHttpPollingSessions))
+                .tag("transport", "http-polling").register(registry);
+        FunctionCounter.builder("websocket.sessions.opened", this, s -> s.sessions(SubProtocolWebSocketHandler.Stats::getTotalSessions))
+                .description("STOMP sessions opened since startup").register(registry);
+        Gauge.builder("websocket.users", userRegistry, SimpUserRegistry::getUserCount)
+                .description("Users with an open STOMP session, on any node").register(registry);
+        Gauge.builder("websocket.broker.available", this, s -> s.isBrokerAvailable() ? 1 : 0)
+                .tag("mode", brokerMode).register(registry);
+    }
+
+    /** Zero when the endpoint is not served by the STOMP handler. */
+    private int sessions(ToIntFunction<SubProtocolWebSocketHandler.Stats> counter) {
+        if (!(webSocketHandler instanceof SubProtocolWebSocketHandler stomp) || stomp.getStats() == null) return 0;
+        return counter.applyAsInt(stomp.getStats());
+    }
+}
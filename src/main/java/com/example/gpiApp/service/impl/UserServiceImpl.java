@@ -4,6 +4,7 @@ import com.example.gpiApp.dto.UserDTO;
 import com.example.gpiApp.dto.UserListResponseDTO;
 import com.example.gpiApp.dto.UserRequestDTO;
 import com.example.gpiApp.dto.UserResponseDTO;
+import com.example.gpiApp.config.security.JwtPrincipalCache;
 import com.example.gpiApp.entity.Notification;
 import com.example.gpiApp.entity.allUsers;
 import com.example.gpiApp.entity.allUsers.Role;
@@ -31,12 +32,14 @@ public class UserServiceImpl implements UserService {
     private final com.example.gpiApp.service.EmailService emailService;
     private final com.example.gpiApp.repository.ProjectRepository projectRepository;
     private final com.example.gpiApp.service.ActivityLogService activityLogService;
+    private final JwtPrincipalCache principalCache;
 
     public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, NotificationService notificationService,
                            com.example.gpiApp.service.SystemSettingsService systemSettingsService,
                            com.example.gpiApp.service.EmailService emailService,
                            com.example.gpiApp.repository.ProjectRepository projectRepository,
-                           com.example.gpiApp.service.ActivityLogService activityLogService) {
+                           com.example.gpiApp.service.ActivityLogService activityLogService,
+                           JwtPrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.notificationService = notificationService;
@@ -44,6 +47,7 @@ public class UserServiceImpl implements UserService {
         this.emailService = emailService;
         this.projectRepository = projectRepository;
         this.activityLogService = activityLogService;
+        this.principalCache = principalCache;
     }
 
     /** The admin/user performing the current request, resolved from the security context (for traceability). */
@@ -79,6 +83,7 @@ public class UserServiceImpl implements UserService {
         String tempPassword = systemSettingsService.generateCompliantPassword();
         user.setPassword(passwordEncoder.encode(tempPassword));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         // Best-effort email (no-op/logged when mail is disabled).
         try { emailService.sendPasswordResetEmail(user.getEmail(), tempPassword); } catch (Exception ignore) { }
@@ -185,6 +190,7 @@ public class UserServiceImpl implements UserService {
         }
 
         allUsers existingAllUsers = userOptional.get();
+        String previousEmail = existingAllUsers.getEmail();
         System.out.println("Found existing user: " + existingAllUsers);
 
         try {
@@ -232,6 +238,8 @@ public class UserServiceImpl implements UserService {
 
             System.out.println("Saving updated user: " + existingAllUsers);
             allUsers updatedAllUsers = userRepository.save(existingAllUsers);
+            principalCache.invalidate(previousEmail);
+            principalCache.invalidate(updatedAllUsers.getEmail());
             System.out.println("allUsers saved successfully: " + updatedAllUsers);
 
             logUserAction(com.example.gpiApp.entity.ActivityLog.ActivityType.USER_UPDATED,
@@ -254,6 +262,7 @@ public class UserServiceImpl implements UserService {
         }
         String username = target.get().getUsername();
         userRepository.deleteById(id);
+        principalCache.invalidate(target.get().getEmail());
         logUserAction(com.example.gpiApp.entity.ActivityLog.ActivityType.USER_DELETED,
                 "User account '" + username + "' was deleted", id);
         return new UserResponseDTO(true, "allUsers deleted successfully", null);
@@ -306,6 +315,7 @@ public class UserServiceImpl implements UserService {
         
         // Execute clean modifying update to prevent entity merge lockups
         userRepository.updateUserStatus(id, newStatus);
+        principalCache.invalidate(user.getEmail());
         
         // Retrieve fresh state
         allUsers updatedUser = userRepository.findById(id).orElse(user);
@@ -327,6 +337,7 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
 
     private UserDTO convertToDTO(allUsers allUsers) {
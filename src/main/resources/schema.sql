@@ -387,6 +387,11 @@ ALTER TABLE `projects` ADD COLUMN `created_by` BIGINT;
 -- Archive flag for projects (admin "archive" action). Harmless duplicate-column error on re-run.
 ALTER TABLE `projects` ADD COLUMN `archived` BOOLEAN NOT NULL DEFAULT FALSE;
 
+-- Task counters behind projects.progress, maintained per task change and reconciled nightly
+-- (ProjectProgressService). Harmless duplicate-column errors on re-run.
+ALTER TABLE `projects` ADD COLUMN `task_count` INT NOT NULL DEFAULT 0;
+ALTER TABLE `projects` ADD COLUMN `completed_task_count` INT NOT NULL DEFAULT 0;
+
 -- Blocked IP addresses (admin security console). Logins from these IPs are refused.
 CREATE TABLE IF NOT EXISTS `blocked_ips` (
     `id` BIGINT NOT NULL AUTO_INCREMENT,
@@ -413,3 +418,45 @@ ALTER TABLE `messages` ADD COLUMN `attachment_url` VARCHAR(500);
 ALTER TABLE `messages` ADD COLUMN `attachment_name` VARCHAR(255);
 ALTER TABLE `messages` ADD COLUMN `attachment_type` VARCHAR(30);
 ALTER TABLE `messages` ADD COLUMN `attachment_size` VARCHAR(40);
+
+-- Cursor-paginated chat history (GET /api/messages/.../history): project channels and each
+-- direction of a direct conversation are read in id order from these indexes. MySQL has no
+-- CREATE INDEX IF NOT EXISTS; the duplicate-key error on re-run is harmless (continue-on-error).
+CREATE INDEX idx_messages_project_id_id ON messages(project_id, id);
+CREATE INDEX idx_messages_sender_recipient_id ON messages(sender_id, recipient_id, id);
+
+-- Conversation inbox: one row per (user, thread) pointing at the thread's latest message, with that
+-- user's unread count. Maintained on send/read/delete and rebuilt nightly (ConversationService).
+-- thread_key is 'user_<otherUserId>' for direct messages and 'project_<projectId>' for project chats.
+CREATE TABLE IF NOT EXISTS `conversations` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `user_id` BIGINT NOT NULL,
+    `thread_key` VARCHAR(40) NOT NULL,
+    `other_user_id` BIGINT,
+    `project_id` BIGINT,
+    `last_message_id` BIGINT,
+    `unread_count` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uq_conversations_user_thread` (`user_id`, `thread_key`),
+    KEY `idx_conversations_user_last` (`user_id`, `last_message_id`),
+    FOREIGN KEY (`user_id`) REFERENCES `allUsers`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`other_user_id`) REFERENCES `allUsers`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`project_id`) REFERENCES `projects`(`id`) ON DELETE CASCADE,
+    FOREIGN KEY (`last_message_id`) REFERENCES `messages`(`id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Retention (RetentionService): per-table TTLs with per-type overrides, and the indexes the purge
+-- walks (oldest rows of one type first). Duplicate-column/index errors are harmless on re-run.
+ALTER TABLE `system_settings` ADD COLUMN `notification_retention_days` INT NOT NULL DEFAULT 90;
+ALTER TABLE `system_settings` ADD COLUMN `activity_log_retention_days` INT NOT NULL DEFAULT 365;
+ALTER TABLE `system_settings` ADD COLUMN `notification_retention_overrides` VARCHAR(1000);
+ALTER TABLE `system_settings` ADD COLUMN `activity_log_retention_overrides` VARCHAR(1000) DEFAULT 'SECURITY_ALERT=730';
+ALTER TABLE `system_settings` ADD COLUMN `retention_archive_enabled` BOOLEAN NOT NULL DEFAULT TRUE;
+CREATE INDEX idx_notifications_type_created ON notifications(type, created_at);
+CREATE INDEX idx_activity_logs_type_created ON activity_logs(activity_type, created_at);
+
+-- Login throttling (LoginRateLimiter): per-IP failure threshold and the length of the automatic
+-- block it triggers. Automatic blocks expire; admin blocks keep expires_at NULL.
+ALTER TABLE `system_settings` ADD COLUMN `ip_max_failed_logins` INT NOT NULL DEFAULT 20;
+ALTER TABLE `system_settings` ADD COLUMN `ip_block_minutes` INT NOT NULL DEFAULT 60;
+ALTER TABLE `blocked_ips` ADD COLUMN `expires_at` DATETIME;
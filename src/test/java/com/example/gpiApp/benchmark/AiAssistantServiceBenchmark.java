@@ -0,0 +1,75 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.dto.ai.PrioritizationResultDTO;
+import com.example.gpiApp.dto.ai.ProjectInsightDTO;
+import com.example.gpiApp.dto.ai.RiskAssessmentDTO;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.service.AiAssistantService;
+import com.example.gpiApp.service.LangChainAiClient;
+import com.example.gpiApp.service.SystemSettingsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * The rule-based assistant engine (risk prediction, priority scoring, project summary) over one
+ * project's tasks. The AI sidecar is disabled, so only the local scoring is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiAssistantServiceBenchmark {
+
+    @Param({"100", "2000"})
+    public int tasks;
+
+    private AiAssistantService assistant;
+
+    @Setup
+    public void setUp() {
+        Project project = Project.builder().id(1L).name("Apollo")
+                .startDate(LocalDate.now().minusDays(90)).endDate(LocalDate.now().plusDays(30)).build();
+        ProjectRepository projectRepository = Fixtures.stub(ProjectRepository.class);
+        TaskRepository taskRepository = Fixtures.stub(TaskRepository.class);
+        LangChainAiClient langChainClient = Fixtures.stub(LangChainAiClient.class);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(taskRepository.findByProject(project)).thenReturn(Fixtures.tasks(project, Fixtures.users(12), tasks));
+        when(langChainClient.isEnabled()).thenReturn(false);
+        assistant = new AiAssistantService(projectRepository, taskRepository, langChainClient,
+                Fixtures.stub(SystemSettingsService.class));
+    }
+
+    @Benchmark
+    public RiskAssessmentDTO assessRisks() {
+        return assistant.assessProjectRisks(1L);
+    }
+
+    @Benchmark
+    public PrioritizationResultDTO suggestPriorities() {
+        return assistant.suggestTaskPriorities(1L);
+    }
+
+    @Benchmark
+    public ProjectInsightDTO summary() {
+        return assistant.generateProjectSummary(1L);
+    }
+}
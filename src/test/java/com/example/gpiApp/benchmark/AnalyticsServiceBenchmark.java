@@ -0,0 +1,74 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.dto.analytics.ManagerAnalyticsDTO;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.repository.TeamRepository;
+import com.example.gpiApp.repository.UserRepository;
+import com.example.gpiApp.service.AnalyticsRollupService;
+import com.example.gpiApp.service.AnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Manager analytics (on-time rate, completion time, velocity, weekly trend, workload) aggregated
+ * over a synthetic portfolio of 10 projects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsServiceBenchmark {
+
+    private static final int PROJECTS = 10;
+
+    @Param({"1000", "20000"})
+    public int tasks;
+
+    private AnalyticsService analytics;
+
+    @Setup
+    public void setUp() {
+        ProjectRepository projectRepository = Fixtures.stub(ProjectRepository.class);
+        TaskRepository taskRepository = Fixtures.stub(TaskRepository.class);
+        List<allUsers> users = Fixtures.users(25);
+        List<Project> projects = new ArrayList<>();
+        for (long id = 1; id <= PROJECTS; id++) {
+            Project project = Project.builder().id(id).name("Project " + id).build();
+            projects.add(project);
+            when(taskRepository.findByProject(project)).thenReturn(Fixtures.tasks(project, users, tasks / PROJECTS));
+        }
+        when(projectRepository.findByManagerId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(projects));
+        analytics = new AnalyticsService(projectRepository, taskRepository,
+                Fixtures.stub(TeamRepository.class), Fixtures.stub(UserRepository.class),
+                Fixtures.stub(AnalyticsRollupService.class));
+    }
+
+    @Benchmark
+    public ManagerAnalyticsDTO managerAnalytics() {
+        return analytics.getManagerAnalytics(1L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.entity.allUsers;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic in-memory data for the benchmarks: no database, no network, same data every run.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * A mock that keeps no invocation history, so millions of benchmark calls do not accumulate
+     * in memory (a regular Mockito mock records every call for verification).
+     */
+    static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    static List<allUsers> users(int count) {
+        List<allUsers> users = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            users.add(allUsers.builder().id(i).firstName("First" + i).lastName("Last" + i)
+                    .email("user" + i + "@example.com").build());
+        }
+        return users;
+    }
+
+    /**
+     * {@code count} tasks spread over the past 90 days with a realistic mix: about a third
+     * completed, some overdue, deadlines up to a month out, assigned round-robin to {@code users}.
+     */
+    static List<Task> tasks(Project project, List<allUsers> users, int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task.TaskStatus status = statuses[random.nextInt(statuses.length)];
+            int createdDaysAgo = random.nextInt(1, 90);
+            tasks.add(Task.builder()
+                    .id((long) i + 1)
+                    .name("Task " + (i + 1))
+                    .status(status)
+                    .priority(priorities[random.nextInt(priorities.length)])
+                    .progress(status == Task.TaskStatus.COMPLETED ? 100 : random.nextInt(0, 95))
+                    .deadline(today.plusDays(random.nextInt(-20, 30)))
+                    .createdAt(now.minusDays(createdDaysAgo))
+                    .updatedAt(now.minusDays(random.nextInt(0, createdDaysAgo)))
+                    .project(project)
+                    .assignedTo(users.get(i % users.size()))
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.config.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ *
+ * {@code legacy} reproduces the previous code path: a new parser and key for every parse, the token
+ * parsed twice to validate and a third time for the subject. {@code parseOnce} is the current path
+ * with the verified-token cache off; {@code cached} is a client repeating the same token.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=JwtValidation}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyThatIsLongEnoughForHmacSha256Signing";
+
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtTokenProvider(SECRET, 3600L, 0, 0);
+        cached = new JwtTokenProvider(SECRET, 3600L, 30, 10_000);
+        token = cached.generateToken(User.withUsername("alice@example.com").password("x").authorities(List.of()).build());
+    }
+
+    @Benchmark
+    public String legacy() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        Date expiration = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getExpiration();
+        if (expiration.before(new Date())) throw new IllegalStateException("expired");
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String parseOnce() {
+        Claims claims = uncached.parseVerifiedClaims(token);
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String cached() {
+        Claims claims = cached.parseVerifiedClaims(token);
+        return claims.getSubject();
+    }
+}
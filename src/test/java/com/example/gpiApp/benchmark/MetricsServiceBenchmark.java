@@ -0,0 +1,69 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.dto.analytics.PerformanceDTO;
+import com.example.gpiApp.service.MetricsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the metrics filter adds to every request ({@code record}, single-threaded and contended,
+ * with the route template the filter passes; {@code recordRawPath} for requests no handler matched)
+ * and the cost of rendering the admin performance page ({@code snapshot}) over a populated store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsServiceBenchmark {
+
+    private static final String[] ROUTES = {
+            "/api/tasks", "/api/tasks/{id}", "/api/projects/{projectId}/tasks", "/api/users/{id}",
+            "/api/notifications/unread-count", "/api/messages/conversations", "/api/analytics/admin/performance"};
+
+    private MetricsService metrics;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        metrics = new MetricsService();
+        for (int i = 0; i < 10_000; i++) {
+            metrics.record(i % 4 == 0 ? "POST" : "GET", ROUTES[i % ROUTES.length], i % 50 == 0 ? 500 : 200, i % 300);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        int i = next++;
+        metrics.record("GET", ROUTES[i % ROUTES.length], 200, i & 127);
+    }
+
+    @Benchmark
+    public void recordRawPath() {
+        metrics.record("GET", "/api/tasks/42", 401, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        metrics.record("POST", "/api/tasks/{id}", 201, 12);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PerformanceDTO snapshot() {
+        return metrics.snapshot();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.repository.UserRepository;
+import com.example.gpiApp.service.ReportService;
+import com.example.gpiApp.service.ReportTemplateRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV export of 5,000 tasks and 5,000 projects (five keyset pages each) into a writer that
+ * discards its input, so only row formatting and escaping are measured. Rows are plain objects
+ * rather than Spring projection proxies, whose reflective getters would dominate the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportServiceBenchmark {
+
+    private static final int PAGE = 1000;
+    private static final int PAGES = 5;
+
+    private ReportService reports;
+    private final Writer sink = Writer.nullWriter();
+
+    @Setup
+    public void setUp() {
+        TaskRepository taskRepository = Fixtures.stub(TaskRepository.class);
+        ProjectRepository projectRepository = Fixtures.stub(ProjectRepository.class);
+        when(taskRepository.findCsvPage(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(projectRepository.findCsvPage(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        LocalDate today = LocalDate.now();
+        for (int p = 0; p < PAGES; p++) {
+            List<TaskRepository.CsvRow> tasks = new ArrayList<>(PAGE);
+            List<ProjectRepository.CsvRow> projects = new ArrayList<>(PAGE);
+            for (long id = (long) p * PAGE + 1; id <= (long) (p + 1) * PAGE; id++) {
+                tasks.add(new TaskRow(id, id % 10 == 0 ? "Review \"phase " + id + "\", part 2" : "Task " + id,
+                        Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.MEDIUM, (int) (id % 100),
+                        today.plusDays(id % 30), "Project " + id % 40, "Alice", "Wu"));
+                projects.add(new ProjectRow(id, "Project " + id, Project.ProjectStatus.ACTIVE, (int) (id % 100),
+                        today.minusDays(60), today.plusDays(60), 40L, 12L));
+            }
+            when(taskRepository.findCsvPage(eq((long) p * PAGE), any(Pageable.class))).thenReturn(tasks);
+            when(projectRepository.findCsvPage(eq((long) p * PAGE), any(Pageable.class))).thenReturn(projects);
+        }
+        reports = new ReportService(taskRepository, projectRepository,
+                Fixtures.stub(UserRepository.class), Fixtures.stub(ReportTemplateRegistry.class));
+    }
+
+    @Benchmark
+    public Writer tasksCsv() throws IOException {
+        reports.writeTasksCsv(sink);
+        return sink;
+    }
+
+    @Benchmark
+    public Writer projectsCsv() throws IOException {
+        reports.writeProjectsCsv(sink);
+        return sink;
+    }
+
+    private record TaskRow(Long id, String name, Task.TaskStatus status, Task.TaskPriority priority,
+                           Integer progress, LocalDate deadline, String projectName,
+                           String assigneeFirstName, String assigneeLastName) implements TaskRepository.CsvRow {
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public Task.TaskStatus getStatus() { return status; }
+        public Task.TaskPriority getPriority() { return priority; }
+        public Integer getProgress() { return progress; }
+        public LocalDate getDeadline() { return deadline; }
+        public String getProjectName() { return projectName; }
+        public String getAssigneeFirstName() { return assigneeFirstName; }
+        public String getAssigneeLastName() { return assigneeLastName; }
+    }
+
+    private record ProjectRow(Long id, String name, Project.ProjectStatus status, Integer progress,
+                              LocalDate startDate, LocalDate endDate, Long totalTasks,
+                              Long completedTasks) implements ProjectRepository.CsvRow {
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public Project.ProjectStatus getStatus() { return status; }
+        public Integer getProgress() { return progress; }
+        public LocalDate getStartDate() { return startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public Long getTotalTasks() { return totalTasks; }
+        public Long getCompletedTasks() { return completedTasks; }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.gpiApp.benchmark;
+
+import com.example.gpiApp.service.TotpService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a 2FA code at login. A wrong code is the worst case: every step of the
+ * clock-skew window is computed before it is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotpServiceBenchmark {
+
+    private TotpService totp;
+    private String secret;
+
+    @Setup
+    public void setUp() {
+        totp = new TotpService();
+        secret = totp.generateSecret();
+    }
+
+    @Benchmark
+    public boolean verifyWrongCode() {
+        return totp.verifyCode(secret, "000000");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.gpiApp.config;
+
+import com.example.gpiApp.config.security.StompAuthChannelInterceptor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.simp.user.UserRegistryMessageHandler;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Configuration tests for the STOMP broker: the in-memory broker by default, and in relay mode a
+ * relay wired with the configured host, credentials and the cross-node user broadcasts.
+ */
+class WebSocketConfigTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withBean(StompAuthChannelInterceptor.class, () -> mock(StompAuthChannelInterceptor.class))
+            .withUserConfiguration(WebSocketConfig.class);
+
+    @Test
+    @DisplayName("Simple mode keeps the in-memory broker and no relay")
+    void simpleBroker() {
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBeansOfType(AbstractBrokerMessageHandler.class).values())
+                    .singleElement().isInstanceOf(SimpleBrokerMessageHandler.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Relay mode relays /topic and /queue with the configured host, credentials and user broadcasts")
+    void relayWiring() throws IOException {
+        int port = unusedPort();
+        runner.withPropertyValues("websocket.broker.mode=relay", "websocket.broker.relay.host=127.0.0.1",
+                        "websocket.broker.relay.port=" + port, "websocket.broker.relay.login=app",
+                        "websocket.broker.relay.passcode=secret", "websocket.broker.relay.virtual-host=gpi")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBeansOfType(AbstractBrokerMessageHandler.class).values())
+                            .singleElement().isInstanceOf(StompBrokerRelayMessageHandler.class);
+                    StompBrokerRelayMessageHandler relay = context.getBean(StompBrokerRelayMessageHandler.class);
+                    assertThat(relay.getDestinationPrefixes()).containsExactlyInAnyOrder("/topic", "/queue");
+                    assertThat(relay.getRelayHost()).isEqualTo("127.0.0.1");
+                    assertThat(relay.getRelayPort()).isEqualTo(port);
+                    assertThat(relay.getClientLogin()).isEqualTo("app");
+                    assertThat(relay.getClientPasscode()).isEqualTo("secret");
+                    assertThat(relay.getSystemLogin()).isEqualTo("app");
+                    assertThat(relay.getSystemPasscode()).isEqualTo("secret");
+                    assertThat(relay.getVirtualHost()).isEqualTo("gpi");
+                    assertThat(relay.getSystemSubscriptions()).containsKey(WebSocketConfig.USER_REGISTRY_BROADCAST);
+                    assertThat(context.getBean(UserDestinationMessageHandler.class).getBroadcastDestination())
+                            .isEqualTo(WebSocketConfig.UNRESOLVED_USER_BROADCAST);
+                    assertThat(context.getBean(UserRegistryMessageHandler.class).getBroadcastDestination())
+                            .isEqualTo(WebSocketConfig.USER_REGISTRY_BROADCAST);
+                });
+    }
+
+    @Test
+    @DisplayName("An unreachable relay does not block startup and is reported as unavailable")
+    void unreachableRelay() throws IOException {
+        runner.withPropertyValues("websocket.broker.mode=relay", "websocket.broker.relay.host=127.0.0.1",
+                        "websocket.broker.relay.port=" + unusedPort())
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    StompBrokerRelayMessageHandler relay = context.getBean(StompBrokerRelayMessageHandler.class);
+                    assertThat(relay.isRunning()).isTrue();
+                    assertThat(relay.isBrokerAvailable()).isFalse();
+                });
+    }
+
+    /** A local port nothing listens on, so relay connections are refused at once. */
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.gpiApp.config.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the JWT principal cache: hits per token, invalidation on account changes and the
+ * size bound. No Spring context — the loader counts how often the "database" is hit.
+ */
+class JwtPrincipalCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserDetails> loader = email -> {
+        loads.incrementAndGet();
+        return User.withUsername(email).password("x").authorities(List.of()).build();
+    };
+
+    @Test
+    @DisplayName("Repeated requests with the same token load the user once")
+    void cachesPerToken() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(60, 100);
+
+        UserDetails first = cache.get("a@x.io", 1000L, loader);
+        UserDetails second = cache.get("a@x.io", 1000L, loader);
+        cache.get("a@x.io", 2000L, loader); // a new login is a new token
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Invalidating a subject drops all of its tokens and nobody else's")
+    void invalidatesSubject() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(60, 100);
+        cache.get("a@x.io", 1000L, loader);
+        cache.get("a@x.io", 2000L, loader);
+        cache.get("b@x.io", 1000L, loader);
+
+        cache.invalidate("a@x.io");
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get("a@x.io", 1000L, loader);
+        cache.get("b@x.io", 1000L, loader);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("A TTL of zero turns the cache off")
+    void disabled() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(0, 100);
+        cache.get("a@x.io", 1000L, loader);
+        cache.get("a@x.io", 1000L, loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("The cache never grows past max-entries")
+    void bounded() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(60, 16);
+        for (int i = 0; i < 100; i++) cache.get("u" + i + "@x.io", i, loader);
+
+        assertThat(cache.size()).isLessThanOrEqualTo(16);
+        assertThat(cache.getEvictions()).isPositive();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.gpiApp.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for parse-once token validation and the verified-token cache.
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "UnitTestSecretKeyThatIsLongEnoughForHmacSha256Signing";
+
+    private final UserDetails alice = User.withUsername("alice@example.com").password("x").authorities(List.of()).build();
+
+    @Test
+    @DisplayName("A verified token is served from the cache until it is sent again")
+    void cachesVerifiedClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600L, 30, 100);
+        String token = provider.generateToken(alice);
+
+        Claims first = provider.parseVerifiedClaims(token);
+        Claims second = provider.parseVerifiedClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo("alice@example.com");
+        assertThat(second).isSameAs(first);
+        assertThat(provider.getUsernameFromJWT(token)).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    @DisplayName("Tokens signed with another key are rejected, even if that key's cache saw them")
+    void rejectsForeignSignature() {
+        JwtTokenProvider other = new JwtTokenProvider(SECRET.replace('U', 'V'), 3600L, 30, 100);
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3600L, 30, 100);
+        String forged = other.generateToken(alice);
+        other.parseVerifiedClaims(forged);
+
+        assertThat(provider.validateToken(forged)).isFalse();
+        assertThatThrownBy(() -> provider.parseVerifiedClaims(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Expired tokens are neither accepted nor cached")
+    void rejectsExpired() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, -1L, 30, 100);
+        String expired = provider.generateToken(alice);
+
+        assertThat(provider.validateToken(expired)).isFalse();
+        assertThat(provider.validateToken(expired)).isFalse();
+        assertThat(provider.validateToken("not-a-token")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Cache entries never outlive the token's own expiry")
+    void entriesBoundedByExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(30_000, 100);
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 10L, 0, 0);
+        String token = provider.generateToken(alice);
+        Claims claims = provider.parseVerifiedClaims(token);
+        long now = System.currentTimeMillis();
+
+        cache.put(token, claims, now);
+
+        assertThat(cache.get(token, now)).isSameAs(claims);
+        assertThat(cache.get(token, claims.getExpiration().getTime())).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.gpiApp.config.security;
+
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the STOMP subscription allow-list: the user's own queues, the notifications
+ * broadcast and participant-only project topics pass; broker patterns and anything else are refused.
+ */
+class StompAuthChannelInterceptorTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final StompAuthChannelInterceptor interceptor = new StompAuthChannelInterceptor(
+            mock(JwtUtil.class), mock(UserRepository.class), projectRepository);
+
+    @Test
+    @DisplayName("Own queues and the notifications broadcast are open to any authenticated session")
+    void allowsOwnQueuesAndNotifications() {
+        for (String destination : List.of("/user/queue/messages", "/user/queue/notifications",
+                "/user/queue/reports", "/topic/notifications")) {
+            assertThatCode(() -> subscribe("USER", destination)).as(destination).doesNotThrowAnyException();
+        }
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("Broker patterns are refused even for admins, so they cannot match every project topic")
+    void rejectsPatternSubscriptions() {
+        for (String destination : List.of("/topic/**", "/topic/project*", "/topic/project.*", "/topic/#",
+                "/topic/project.{id}", "/topic/project.7?", "/user/queue/*")) {
+            assertThatThrownBy(() -> subscribe("ADMIN", destination)).as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("Internal and unlisted destinations are refused")
+    void rejectsUnlistedDestinations() {
+        for (String destination : List.of("/topic/simp-user-registry", "/topic/unresolved-user-destination",
+                "/queue/messages-user1a2b3c", "/topic/project.", "/topic/project.abc", "/user/5/queue/messages")) {
+            assertThatThrownBy(() -> subscribe("ADMIN", destination)).as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("A project topic needs a participant or an admin")
+    void projectTopicNeedsParticipant() {
+        when(projectRepository.isParticipant(7L, 5L)).thenReturn(true);
+
+        assertThatCode(() -> subscribe("USER", "/topic/project.7")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> subscribe("USER", "/topic/project.8")).isInstanceOf(AccessDeniedException.class);
+        assertThatCode(() -> subscribe("ADMIN", "/topic/project.8")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("An unauthenticated session cannot subscribe at all")
+    void requiresUser() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/topic/notifications");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertThatThrownBy(() -> interceptor.preSend(message, null)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    /** Sends a SUBSCRIBE frame through the interceptor as user 5 with the given role. */
+    private void subscribe(String role, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(new UsernamePasswordAuthenticationToken("5", null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.LoginAttempt;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.SupportTicket;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.LoginAttemptRepository;
+import com.example.gpiApp.repository.SupportTicketRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.repository.TimeLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the incremental admin-report rollups. Repositories are mocked — no database —
+ * and return GROUP BY projection rows; write hooks run immediately because no transaction is active.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnalyticsRollupServiceTest {
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private TimeLogRepository timeLogRepository;
+    @Mock private SupportTicketRepository supportTicketRepository;
+    @Mock private LoginAttemptRepository loginAttemptRepository;
+    @InjectMocks private AnalyticsRollupService rollups;
+
+    private final LocalDate today = LocalDate.now();
+    private final Project apollo = Project.builder().id(7L).name("Apollo").build();
+    private final allUsers alice = allUsers.builder().id(1L).firstName("Alice").lastName("Wu").build();
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    /**
+     * Database state: one task completed 2 days ago (deadline yesterday, created 10 days ago) and
+     * one in-progress task created 5 days ago, overdue since 3 days — both Alice's, on Apollo.
+     */
+    @BeforeEach
+    void setUp() {
+        when(taskRepository.countPerStatus()).thenReturn(List.of(
+                row(TaskRepository.StatusCount.class, "status", Task.TaskStatus.COMPLETED, "count", 1L),
+                row(TaskRepository.StatusCount.class, "status", Task.TaskStatus.IN_PROGRESS, "count", 1L)));
+        when(taskRepository.countCreatedPerDay()).thenReturn(List.of(
+                row(TaskRepository.DailyCount.class, "day", today.minusDays(10), "count", 1L),
+                row(TaskRepository.DailyCount.class, "day", today.minusDays(5), "count", 1L)));
+        when(taskRepository.countCompletedPerDayAndAssignee()).thenReturn(List.of(
+                row(TaskRepository.DailyCompletion.class, "day", today.minusDays(2), "assigneeId", 1L,
+                        "completed", 1L, "withDeadline", 1L, "onTime", 1L)));
+        when(taskRepository.countOpenPerAssignee()).thenReturn(List.of(
+                row(TaskRepository.IdCount.class, "id", 1L, "count", 1L)));
+        when(taskRepository.countPerProject()).thenReturn(List.of(
+                row(TaskRepository.ProjectTaskCount.class, "projectId", 7L, "total", 2L, "completed", 1L)));
+        when(taskRepository.countOpenPerProjectAndDeadline()).thenReturn(List.of(
+                row(TaskRepository.ProjectDeadlineCount.class, "projectId", 7L, "deadline", today.minusDays(3), "count", 1L)));
+        when(timeLogRepository.sumHoursPerDayAndProject()).thenReturn(List.of());
+        when(supportTicketRepository.countPerDayAndPriority()).thenReturn(List.of());
+        when(loginAttemptRepository.findDailyLoginKeysSince(any())).thenReturn(List.of());
+    }
+
+    private <T> T row(Class<T> type, Object... keyValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put((String) keyValues[i], keyValues[i + 1]);
+        return projections.createProjection(type, values);
+    }
+
+    private Task task(Long id, Task.TaskStatus status, LocalDate deadline, int createdDaysAgo, int updatedDaysAgo) {
+        return Task.builder()
+                .id(id)
+                .name("t" + id)
+                .status(status)
+                .deadline(deadline)
+                .project(apollo)
+                .assignedTo(alice)
+                .createdAt(LocalDateTime.now().minusDays(createdDaysAgo))
+                .updatedAt(LocalDateTime.now().minusDays(updatedDaysAgo))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Initial load turns the grouped rows into KPIs, overdue work and burndown")
+    void loadsFromDatabase() {
+        AnalyticsRollupService.Totals all = rollups.window(null, today);
+
+        assertThat(rollups.totalTasks()).isEqualTo(2);
+        assertThat(rollups.completedTasks()).isEqualTo(1);
+        assertThat(all.getCompletedWithDeadline()).isEqualTo(1);
+        assertThat(all.getCompletedOnTime()).isEqualTo(1); // finished 2 days ago, deadline yesterday
+        assertThat(all.getCompletedByAssignee()).containsEntry(1L, 1L);
+        assertThat(rollups.openTasksByAssignee()).containsEntry(1L, 1L);
+        assertThat(rollups.projectCounts(7L, today)).containsExactly(2, 1, 1);
+
+        long[] open = rollups.openTasksPerDay(today, 14);
+        assertThat(open[13]).isEqualTo(1);               // today: only the in-progress task
+        assertThat(open[13 - 3]).isEqualTo(2);           // 3 days ago: both open
+        assertThat(open[13 - 7]).isEqualTo(1);           // 7 days ago: only the 10-day-old task existed
+    }
+
+    @Test
+    @DisplayName("Status transitions move counters without rescanning")
+    void appliesTransitions() {
+        rollups.totalTasks(); // force the initial load
+
+        Task late = task(2L, Task.TaskStatus.IN_PROGRESS, today.minusDays(3), 5, 5);
+        AnalyticsRollupService.TaskFacts before = AnalyticsRollupService.TaskFacts.of(late);
+        late.setStatus(Task.TaskStatus.COMPLETED);
+        late.setUpdatedAt(LocalDateTime.now());
+        rollups.taskChanged(before, late);
+
+        assertThat(rollups.completedTasks()).isEqualTo(2);
+        assertThat(rollups.openTasksByAssignee().get(1L)).isZero();
+        assertThat(rollups.projectCounts(7L, today)).containsExactly(2, 2, 0);
+        assertThat(rollups.window(today, today).getCompletedByAssignee()).containsEntry(1L, 1L);
+
+        rollups.taskChanged(AnalyticsRollupService.TaskFacts.of(late), null);
+        assertThat(rollups.totalTasks()).isEqualTo(1);
+        assertThat(rollups.projectCounts(7L, today)).containsExactly(1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("A write committed while the nightly rebuild runs is replayed onto the rebuilt store")
+    void keepsWritesDuringRebuild() {
+        rollups.totalTasks();
+        Task fresh = task(3L, Task.TaskStatus.IN_PROGRESS, null, 0, 0);
+        when(supportTicketRepository.countPerDayAndPriority()).thenAnswer(call -> {
+            rollups.taskChanged(null, fresh); // commits after the task queries already ran
+            return List.of();
+        });
+
+        rollups.reconcile();
+
+        assertThat(rollups.totalTasks()).isEqualTo(3);
+        assertThat(rollups.projectCounts(7L, today)).containsExactly(3, 1, 1);
+        assertThat(rollups.openTasksByAssignee()).containsEntry(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Tickets and logins land in the day they were created")
+    void ticketsAndLogins() {
+        SupportTicket ticket = SupportTicket.builder()
+                .priority(SupportTicket.Priority.HIGH)
+                .status(SupportTicket.Status.RESOLVED)
+                .createdAt(LocalDateTime.now().minusHours(5))
+                .resolvedAt(LocalDateTime.now())
+                .build();
+        rollups.totalTasks();
+        rollups.ticketChanged(null, AnalyticsRollupService.TicketFacts.of(ticket));
+        rollups.loginRecorded(LoginAttempt.LoginStatus.SUCCESS, 1L, "a@x.io", "alice");
+        rollups.loginRecorded(LoginAttempt.LoginStatus.SUCCESS, 1L, "a@x.io", "alice");
+        rollups.loginRecorded(LoginAttempt.LoginStatus.FAILURE, 2L, "b@x.io", "bob");
+
+        AnalyticsRollupService.Totals week = rollups.window(today.minusDays(7), today);
+        assertThat(week.getTicketsCreated()).isEqualTo(1);
+        assertThat(week.getTicketsResolved()).isEqualTo(1);
+        assertThat(week.getResolutionHours()).isEqualTo(5);
+        assertThat(week.ticketsWithPriority(SupportTicket.Priority.HIGH)).isEqualTo(1);
+        assertThat(rollups.dailyActiveUsers(today, 30)[29]).isEqualTo(1);
+    }
+}
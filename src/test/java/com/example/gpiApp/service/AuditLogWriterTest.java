@@ -0,0 +1,125 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.ActivityLog;
+import com.example.gpiApp.entity.LoginAttempt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the buffered audit writer: batching per table, the background flush, dropping
+ * when the queue stays full, the row-by-row retry of a refused batch, and callbacks of written rows.
+ */
+class AuditLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Queued rows are written on shutdown with one batch per table")
+    void flushesOnShutdown() {
+        writer = new AuditLogWriter(jdbcTemplate, 100, 50, 60_000, 0);
+        for (int i = 0; i < 3; i++) failedLogin("u" + i);
+        writer.activity(ActivityLog.ActivityType.TASK_CREATED, "created", 7L, "TASK", 1L, "10.0.0.1");
+        writer.activity(ActivityLog.ActivityType.TASK_UPDATED, "updated", 7L, "TASK", 1L, "10.0.0.1");
+        assertThat(writer.queued()).isEqualTo(5);
+
+        writer.shutdown();
+
+        verify(jdbcTemplate).batchUpdate(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql), argThat((List<Object[]> rows) -> rows.size() == 3));
+        verify(jdbcTemplate).batchUpdate(eq(AuditLogWriter.Kind.ACTIVITY_LOG.sql), argThat((List<Object[]> rows) -> rows.size() == 2));
+        assertThat(writer.queued()).isZero();
+    }
+
+    @Test
+    @DisplayName("The background writer sends a batch as soon as it is full")
+    void backgroundBatch() {
+        writer = new AuditLogWriter(jdbcTemplate, 100, 2, 60_000, 0);
+        writer.start();
+
+        failedLogin("a");
+        failedLogin("b");
+
+        verify(jdbcTemplate, timeout(2_000)).batchUpdate(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Rows are dropped and counted once the queue stays full")
+    void dropsWhenFull() {
+        writer = new AuditLogWriter(jdbcTemplate, 2, 50, 60_000, 0);
+
+        failedLogin("a");
+        failedLogin("b");
+        failedLogin("c");
+
+        assertThat(writer.queued()).isEqualTo(2);
+        assertThat(writer.dropped()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A refused batch is retried row by row and only the bad row is lost")
+    void retriesRowByRow() {
+        writer = new AuditLogWriter(jdbcTemplate, 100, 50, 60_000, 0);
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql), anyList()))
+                .thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql), any(Object[].class))).thenAnswer(call -> {
+            Object[] values = (Object[]) call.getRawArguments()[1];
+            if ("bad".equals(values[0])) throw new DataIntegrityViolationException("fk");
+            return 1;
+        });
+        failedLogin("good");
+        failedLogin("bad");
+
+        writer.shutdown();
+
+        assertThat(writer.dropped()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A row's callback runs once the row is written, and never for a row that is lost")
+    void callbackAfterWrite() {
+        writer = new AuditLogWriter(jdbcTemplate, 100, 50, 60_000, 0);
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql), anyList()))
+                .thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(eq(AuditLogWriter.Kind.LOGIN_ATTEMPT.sql), any(Object[].class))).thenAnswer(call -> {
+            Object[] values = (Object[]) call.getRawArguments()[1];
+            if ("bad".equals(values[0])) throw new DataIntegrityViolationException("fk");
+            return 1;
+        });
+        List<String> written = new CopyOnWriteArrayList<>();
+        for (String username : List.of("good", "bad")) {
+            writer.loginAttempt(username, username + "@x.io", LoginAttempt.LoginStatus.SUCCESS, "10.0.0.1", "curl",
+                    null, "ok", () -> written.add(username));
+        }
+        assertThat(written).as("still queued").isEmpty();
+
+        writer.shutdown();
+
+        assertThat(written).containsExactly("good");
+    }
+
+    private void failedLogin(String username) {
+        writer.loginAttempt(username, username + "@x.io", LoginAttempt.LoginStatus.FAILURE, "10.0.0.1", "curl", null, "bad");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.ConversationDTO;
+import com.example.gpiApp.dto.CursorResponse;
+import com.example.gpiApp.entity.Message;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.ConversationRepository;
+import com.example.gpiApp.repository.MessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the conversation inbox: per-participant upserts, keyset paging and reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTest {
+
+    @Mock private ConversationRepository conversationRepository;
+    @Mock private MessageRepository messageRepository;
+    @InjectMocks private ConversationService conversations;
+
+    private final allUsers alice = allUsers.builder().id(1L).firstName("Alice").lastName("Ngo").build();
+    private final allUsers bob = allUsers.builder().id(2L).firstName("Bob").lastName("Eto").build();
+    private final Project apollo = Project.builder().id(7L).name("Apollo").build();
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private <T> T row(Class<T> type, Object... keyValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put((String) keyValues[i], keyValues[i + 1]);
+        return projections.createProjection(type, values);
+    }
+
+    @Test
+    @DisplayName("A direct message advances both participants' rows; only the recipient gains an unread")
+    void directMessage() {
+        conversations.messageSent(Message.builder().id(40L).sender(alice).recipient(bob).build());
+
+        verify(conversationRepository).advance(1L, "user_2", 2L, null, 40L, 0);
+        verify(conversationRepository).advance(2L, "user_1", 1L, null, 40L, 1);
+        verifyNoMoreInteractions(conversationRepository);
+    }
+
+    @Test
+    @DisplayName("A project message moves the sender's project thread")
+    void projectMessage() {
+        conversations.messageSent(Message.builder().id(41L).sender(alice).project(apollo).build());
+
+        verify(conversationRepository).advance(1L, "project_7", null, 7L, 41L, 0);
+        verifyNoMoreInteractions(conversationRepository);
+    }
+
+    @Test
+    @DisplayName("The inbox fetches one extra row to decide whether another page follows")
+    void keysetPage() {
+        when(conversationRepository.findInbox(1L, Long.MAX_VALUE, PageRequest.of(0, 3))).thenReturn(List.of(
+                inboxRow("user_2", 90L, 3), inboxRow("user_3", 70L, 0), inboxRow("user_4", 50L, 1)));
+
+        CursorResponse<ConversationDTO> page = conversations.getInbox(1L, null, 2);
+
+        assertThat(page.getData()).extracting(ConversationDTO::getLastMessageId).containsExactly(90L, 70L);
+        assertThat(page.getData().get(0).getOtherUserName()).isEqualTo("Bob Eto");
+        assertThat(page.getData().get(0).getUnreadCount()).isEqualTo(3);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(70L);
+
+        when(conversationRepository.findInbox(1L, 70L, PageRequest.of(0, 3))).thenReturn(List.of(inboxRow("user_4", 50L, 1)));
+        CursorResponse<ConversationDTO> last = conversations.getInbox(1L, 70L, 2);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deleting a thread's only message removes the row; otherwise the previous message becomes the head")
+    void delete() {
+        when(messageRepository.findDirectThreadHead(1L, 2L, PageRequest.of(0, 1))).thenReturn(List.of());
+        when(messageRepository.findDirectThreadHead(2L, 1L, PageRequest.of(0, 1))).thenReturn(List.of(12L));
+        when(messageRepository.countUnreadDirect(2L, 1L)).thenReturn(1L);
+
+        conversations.messageDeleted(Message.builder().id(40L).sender(alice).recipient(bob).build());
+
+        verify(conversationRepository).deleteThread(1L, "user_2");
+        verify(conversationRepository).setThread(2L, "user_1", 1L, null, 12L, 1);
+    }
+
+    @Test
+    @DisplayName("Reconciliation backfills missing rows, fixes drifted ones and drops stale ones")
+    void reconcile() {
+        when(messageRepository.findDirectPairStats()).thenReturn(List.of(
+                row(MessageRepository.DirectPairStat.class, "senderId", 1L, "recipientId", 2L, "lastMessageId", 30L, "unread", 2L),
+                row(MessageRepository.DirectPairStat.class, "senderId", 2L, "recipientId", 1L, "lastMessageId", 35L, "unread", 0L)));
+        when(messageRepository.findProjectSenderStats()).thenReturn(List.of(
+                row(MessageRepository.ProjectThreadStat.class, "userId", 1L, "projectId", 7L, "lastMessageId", 20L, "unread", 0L)));
+        when(messageRepository.findProjectRecipientStats()).thenReturn(List.of());
+        when(conversationRepository.findSummaryRows()).thenReturn(List.of(
+                row(ConversationRepository.SummaryRow.class, "userId", 1L, "threadKey", "user_2", "lastMessageId", 35L, "unreadCount", 0),
+                row(ConversationRepository.SummaryRow.class, "userId", 2L, "threadKey", "user_1", "lastMessageId", 30L, "unreadCount", 2),
+                row(ConversationRepository.SummaryRow.class, "userId", 3L, "threadKey", "user_9", "lastMessageId", 5L, "unreadCount", 0)));
+
+        conversations.reconcile();
+
+        verify(conversationRepository, never()).reconcileThread(eq(1L), eq("user_2"), any(), any(), anyLong(), anyInt(), any());
+        verify(conversationRepository).reconcileThread(2L, "user_1", 1L, null, 35L, 2, 30L);
+        verify(conversationRepository).reconcileThread(1L, "project_7", null, 7L, 20L, 0, null);
+        verify(conversationRepository, never()).setThread(any(), any(), any(), any(), any(), anyInt());
+        verify(conversationRepository).deleteThread(3L, "user_9");
+        verify(conversationRepository, never()).advance(anyLong(), anyString(), any(), any(), anyLong(), anyInt());
+    }
+
+    private ConversationRepository.InboxRow inboxRow(String threadKey, long lastMessageId, int unread) {
+        return row(ConversationRepository.InboxRow.class,
+                "threadKey", threadKey, "otherUserId", 2L, "otherFirstName", "Bob", "otherLastName", "Eto",
+                "lastMessageId", lastMessageId, "lastMessage", "hi", "lastSenderId", 2L,
+                "lastSenderFirstName", "Bob", "lastSenderLastName", "Eto", "unreadCount", unread);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.gpiApp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the local GeoIP lookups: range parsing in both CSV flavours, bisection at range
+ * bounds, the background online batch that fills the cache, and the retry of a failed batch.
+ */
+class GeoIpServiceTest {
+
+    private static final String CSV = String.join("\n",
+            "# comment",
+            "\"1.0.0.0\",\"1.0.0.255\",\"AU\"",
+            "16778240,16779263,\"AU\",\"Australia\"",
+            "81.0.0.0,81.255.255.255,FR",
+            "2001:db8::,2001:db8::ffff,DE",
+            "41.202.192.0,41.202.223.255,CM",
+            "100.64.0.0,100.127.255.255,Réseau local");
+
+    private final HttpClient http = mock(HttpClient.class);
+    private GeoIpService geoIp;
+
+    @AfterEach
+    void tearDown() {
+        if (geoIp != null) geoIp.shutdown();
+    }
+
+    @Test
+    @DisplayName("Addresses are matched to ranges by bisection, bounds included, IPv6 rows skipped")
+    void findsRanges() {
+        geoIp = service(false);
+
+        assertThat(geoIp.country("1.0.0.0")).isEqualTo("Australie");
+        assertThat(geoIp.country("1.0.4.10")).as("integer bounds").isEqualTo("Australie");
+        assertThat(geoIp.country("81.255.255.255")).isEqualTo("France");
+        assertThat(geoIp.country("::ffff:41.202.200.1")).isEqualTo("Cameroun");
+        assertThat(geoIp.country("100.100.1.1")).isEqualTo("Réseau local");
+        assertThat(geoIp.country("82.0.0.0")).isEqualTo(GeoIpService.UNKNOWN);
+        assertThat(geoIp.country("0.9.9.9")).isEqualTo(GeoIpService.UNKNOWN);
+        assertThat(geoIp.country("2001:db8::1")).isEqualTo(GeoIpService.UNKNOWN);
+        assertThat(geoIp.country("1.0.0.256")).isEqualTo(GeoIpService.UNKNOWN);
+        verifyNoInteractions(http);
+    }
+
+    @Test
+    @DisplayName("Unknown addresses are resolved online in one background batch, then served from the cache")
+    @SuppressWarnings("unchecked")
+    void resolvesOnlineInBackground() throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn("[{\"status\":\"success\",\"query\":\"8.8.8.8\",\"countryCode\":\"US\"},"
+                + "{\"status\":\"fail\",\"query\":\"9.9.9.9\"}]");
+        when(http.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+        geoIp = service(true);
+
+        Map<String, String> first = geoIp.countries(List.of("81.1.2.3", "8.8.8.8", "9.9.9.9", "8.8.8.8"));
+        assertThat(first).containsEntry("81.1.2.3", "France")
+                .containsEntry("8.8.8.8", GeoIpService.UNKNOWN)
+                .containsEntry("9.9.9.9", GeoIpService.UNKNOWN);
+
+        verify(http, timeout(2_000)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (geoIp.country("8.8.8.8").equals(GeoIpService.UNKNOWN) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(geoIp.country("8.8.8.8")).isEqualTo("États-Unis");
+        assertThat(geoIp.country("9.9.9.9")).isEqualTo(GeoIpService.UNKNOWN);
+        Thread.sleep(50);
+        verify(http, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("A failed batch is not cached: its addresses are asked again once the pause ends")
+    @SuppressWarnings("unchecked")
+    void retriesFailedBatch() throws Exception {
+        HttpResponse<String> limited = mock(HttpResponse.class);
+        when(limited.statusCode()).thenReturn(429);
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("[{\"status\":\"success\",\"query\":\"8.8.8.8\",\"countryCode\":\"US\"}]");
+        when(http.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(limited, ok);
+        geoIp = service(true);
+
+        assertThat(geoIp.country("8.8.8.8")).isEqualTo(GeoIpService.UNKNOWN);
+        verify(http, timeout(2_000)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (geoIp.onlinePausedUntil == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertThat(geoIp.onlinePausedUntil).isGreaterThan(System.currentTimeMillis());
+
+        geoIp.country("8.8.8.8");
+        Thread.sleep(50);
+        verify(http, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)); // paused
+
+        geoIp.onlinePausedUntil = 0; // the pause is over
+        geoIp.country("8.8.8.8");
+        deadline = System.currentTimeMillis() + 2_000;
+        while (geoIp.country("8.8.8.8").equals(GeoIpService.UNKNOWN) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(geoIp.country("8.8.8.8")).isEqualTo("États-Unis");
+    }
+
+    @Test
+    @DisplayName("Without a database every lookup is unknown and nothing fails")
+    void missingDatabase() {
+        geoIp = new GeoIpService(new ByteArrayResource(new byte[0]) {
+            @Override
+            public java.io.InputStream getInputStream() throws java.io.IOException {
+                throw new java.io.FileNotFoundException("gone");
+            }
+        }, 10, false, http);
+        geoIp.load();
+
+        assertThat(geoIp.country("81.1.2.3")).isEqualTo(GeoIpService.UNKNOWN);
+    }
+
+    private GeoIpService service(boolean online) {
+        GeoIpService service = new GeoIpService(new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)), 10, online, http);
+        service.load();
+        return service;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.BlockedIp;
+import com.example.gpiApp.repository.BlockedIpRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory IP blocklist: exact addresses, CIDR ranges in both address
+ * families, and reloads that drop entries removed from the table but keep those added meanwhile.
+ */
+class IpBlocklistServiceTest {
+
+    private final BlockedIpRepository repository = mock(BlockedIpRepository.class);
+    private final IpBlocklistService blocklist = new IpBlocklistService(repository);
+
+    @Test
+    @DisplayName("Loaded addresses and ranges are matched without touching the database again")
+    void matchesAddressesAndRanges() {
+        when(repository.findAll()).thenReturn(List.of(
+                blocked("198.51.100.7"), blocked("10.20.0.0/16"), blocked("2001:db8::/32"), blocked("not-an-ip")));
+
+        blocklist.reload();
+
+        assertThat(blocklist.isBlocked("198.51.100.7")).isTrue();
+        assertThat(blocklist.isBlocked("198.51.100.8")).isFalse();
+        assertThat(blocklist.isBlocked("10.20.255.1")).isTrue();
+        assertThat(blocklist.isBlocked("10.21.0.1")).isFalse();
+        assertThat(blocklist.isBlocked("2001:db8:0:1::42")).isTrue();
+        assertThat(blocklist.isBlocked("2001:db9::1")).isFalse();
+        assertThat(blocklist.isBlocked("::ffff:10.20.3.4")).as("IPv4-mapped IPv6").isTrue();
+        assertThat(blocklist.isBlocked("example.org")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Blocks and unblocks outside a transaction apply at once; a reload drops removed rows")
+    void blockUnblockAndReload() {
+        blocklist.block("192.0.2.0/24");
+        blocklist.block("203.0.113.9");
+        assertThat(blocklist.isBlocked("192.0.2.200")).isTrue();
+        assertThat(blocklist.isBlocked("203.0.113.9")).isTrue();
+
+        blocklist.unblock("192.0.2.0/24");
+        assertThat(blocklist.isBlocked("192.0.2.200")).isFalse();
+
+        when(repository.findAll()).thenReturn(List.of());
+        blocklist.reload();
+        assertThat(blocklist.isBlocked("203.0.113.9")).isFalse();
+    }
+
+    @Test
+    @DisplayName("A block committed while a reload reads the table survives that reload")
+    void keepsBlocksAddedDuringReload() {
+        blocklist.block("203.0.113.9");
+        blocklist.block("192.0.2.0/24");
+        when(repository.findAll()).thenAnswer(call -> {
+            blocklist.block("198.51.100.7");     // commits after the rows were read
+            blocklist.block("10.20.0.0/16");
+            return List.of();
+        });
+
+        blocklist.reload();
+
+        assertThat(blocklist.isBlocked("198.51.100.7")).isTrue();
+        assertThat(blocklist.isBlocked("10.20.1.2")).isTrue();
+        assertThat(blocklist.isBlocked("203.0.113.9")).as("added before the reload, gone from the table").isFalse();
+        assertThat(blocklist.isBlocked("192.0.2.1")).isFalse();
+
+        when(repository.findAll()).thenReturn(List.of());
+        blocklist.reload();
+        assertThat(blocklist.isBlocked("198.51.100.7")).as("the next reload sees it missing").isFalse();
+        assertThat(blocklist.isBlocked("10.20.1.2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Entries are stored in canonical form and garbage is rejected")
+    void normalizesEntries() {
+        assertThat(IpBlocklistService.normalize(" 10.1.2.3/8 ")).isEqualTo("10.0.0.0/8");
+        assertThat(IpBlocklistService.normalize("10.1.2.3/32")).isEqualTo("10.1.2.3");
+        assertThat(IpBlocklistService.normalize("2001:DB8::1")).isEqualTo("2001:db8:0:0:0:0:0:1");
+        assertThatThrownBy(() -> IpBlocklistService.normalize("300.1.1.1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IpBlocklistService.normalize("10.0.0.0/33"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BlockedIp blocked(String ip) {
+        return BlockedIp.builder().ipAddress(ip).build();
+    }
+}
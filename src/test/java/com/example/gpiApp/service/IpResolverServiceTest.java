@@ -0,0 +1,66 @@
+package com.example.gpiApp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for client IP resolution: X-Forwarded-For is left to the servlet container, and
+ * addresses many clients may share are never blocked automatically.
+ */
+class IpResolverServiceTest {
+
+    private final IpResolverService resolver = new IpResolverService(mock(GeoIpService.class),
+            "203\\.0\\.113\\.10|198\\.51\\.100\\.\\d+");
+
+    @Test
+    @DisplayName("Public client addresses may be blocked automatically")
+    void blocksPublicAddresses() {
+        assertThat(resolver.mayAutoBlock("203.0.113.50")).isTrue();
+        assertThat(resolver.mayAutoBlock("2001:db8::1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Loopback, private and trusted-proxy addresses are never blocked automatically")
+    void sparesSharedAddresses() {
+        for (String ip : new String[] {"127.0.0.1", "::1", "10.1.2.3", "172.18.0.5", "192.168.1.20",
+                "169.254.0.1", "fd00::1", "203.0.113.10", "198.51.100.7", "", null}) {
+            assertThat(resolver.mayAutoBlock(ip)).as(String.valueOf(ip)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("The machine address that loopback requests resolve to is never blocked automatically")
+    void sparesMachineAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("127.0.0.1");
+
+        String resolved = resolver.resolveClientIp(request);
+
+        assertThat(resolved).isEqualTo(resolver.getMachineIp());
+        assertThat(resolver.mayAutoBlock(resolved)).isFalse();
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For is ignored; the container applies it for trusted proxies only")
+    void ignoresForwardedHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.50");
+        request.addHeader("X-Forwarded-For", "198.51.100.99");
+
+        assertThat(resolver.resolveClientIp(request)).isEqualTo("203.0.113.50");
+    }
+
+    @Test
+    @DisplayName("Without a trusted proxy pattern only shared and own addresses are spared")
+    void withoutProxyPattern() {
+        IpResolverService plain = new IpResolverService(mock(GeoIpService.class), "");
+
+        assertThat(plain.mayAutoBlock("203.0.113.10")).isTrue();
+        assertThat(plain.mayAutoBlock("10.0.0.1")).isFalse();
+        assertThat(new IpResolverService(mock(GeoIpService.class), "[").mayAutoBlock("203.0.113.10")).isTrue();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.SystemSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory login rate limiter: progressive backoff, account lockout, the
+ * automatic IP block and the sliding window. Time is passed in explicitly.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Mock private SystemSettingsService settingsService;
+    @Mock private LoginAttemptService loginAttemptService;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        when(settingsService.getSettings()).thenReturn(SystemSettings.builder()
+                .maxLoginAttempts(5).lockoutDurationMinutes(15).ipMaxFailedLogins(8).ipBlockMinutes(60).build());
+        limiter = new LoginRateLimiter(settingsService, loginAttemptService, 1000);
+    }
+
+    @Test
+    @DisplayName("The first failures are free, then each attempt must wait twice as long")
+    void progressiveBackoff() {
+        long now = 1_000_000;
+        for (int i = 0; i < LoginRateLimiter.FREE_FAILURES; i++) limiter.recordFailure("198.51.100.1", "alice", now);
+        assertThat(limiter.check("198.51.100.1", "alice", now).allowed()).isTrue();
+
+        limiter.recordFailure("198.51.100.1", "alice", now);
+        LoginRateLimiter.Verdict verdict = limiter.check("198.51.100.1", "alice", now + 100);
+        assertThat(verdict.allowed()).isFalse();
+        assertThat(verdict.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.check("198.51.100.1", "alice", now + 1_000).allowed()).isTrue();
+
+        assertThat(LoginRateLimiter.delayAfter(5)).isEqualTo(2_000);
+        assertThat(LoginRateLimiter.delayAfter(50)).isEqualTo(LoginRateLimiter.MAX_DELAY_MS);
+    }
+
+    @Test
+    @DisplayName("An account reaching the limit is locked for the lockout duration, from any IP")
+    void accountLockout() {
+        long now = 1_000_000;
+        for (int i = 0; i < 5; i++) limiter.recordFailure("198.51.100." + i, "Alice@Example.com", now + i);
+
+        LoginRateLimiter.Verdict verdict = limiter.check("203.0.113.50", "alice@example.com", now + 60_000);
+        assertThat(verdict.allowed()).isFalse();
+        assertThat(verdict.scope()).isEqualTo(LoginRateLimiter.Scope.ACCOUNT);
+        assertThat(limiter.check("203.0.113.50", "alice@example.com", now + 16 * MINUTE).allowed()).isTrue();
+        assertThat(limiter.check("203.0.113.50", "bob", now + 60_000).allowed()).isTrue();
+        verify(loginAttemptService, never()).autoBlockIp(anyString(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("An IP spraying accounts is blocked once, when it reaches its threshold")
+    void ipAutoBlock() {
+        long now = 1_000_000;
+        for (int i = 0; i < 10; i++) limiter.recordFailure("198.51.100.9", "user" + i, now + i);
+
+        verify(loginAttemptService, times(1)).autoBlockIp(eq("198.51.100.9"), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    @DisplayName("The IP and the account can be checked separately, before and after the user lookup")
+    void checksEachKeyAlone() {
+        long now = 1_000_000;
+        for (int i = 0; i < 5; i++) limiter.recordFailure("198.51.100.1", "alice@example.com", now);
+
+        assertThat(limiter.check("198.51.100.1", null, now + 10).scope()).isEqualTo(LoginRateLimiter.Scope.IP);
+        assertThat(limiter.check("203.0.113.50", null, now + 10).allowed()).isTrue();
+        assertThat(limiter.check(null, "alice@example.com", now + 10).scope()).isEqualTo(LoginRateLimiter.Scope.ACCOUNT);
+        assertThat(limiter.check(null, "bob@example.com", now + 10).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Failures older than the window stop counting, and a success clears the account")
+    void slidingWindow() {
+        long now = 1_000_000;
+        for (int i = 0; i < 4; i++) limiter.recordFailure("198.51.100.1", "alice", now);
+        limiter.recordSuccess("alice");
+        assertThat(limiter.check(null, "alice", now + 10).allowed()).isTrue();
+
+        for (int i = 0; i < 4; i++) limiter.recordFailure("198.51.100.2", "bob", now);
+        limiter.recordFailure("198.51.100.3", "bob", now + 31 * MINUTE);
+        assertThat(limiter.check(null, "bob", now + 31 * MINUTE).allowed()).isTrue();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.ChatEventDTO;
+import com.example.gpiApp.dto.MessageDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for STOMP chat delivery: per-conversation coalescing and routing.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageDeliveryServiceTest {
+
+    @Mock private SimpMessagingTemplate messagingTemplate;
+    @InjectMocks private MessageDeliveryService delivery;
+
+    @Test
+    @DisplayName("A burst in one conversation leaves as a single frame per receiver")
+    void coalescesBurst() {
+        delivery.typing(1L, 2L, null);
+        delivery.messageSent(direct(10L));
+        delivery.messageSent(direct(11L));
+        delivery.messageSent(direct(12L));
+
+        delivery.flush();
+
+        ArgumentCaptor<Object> toBob = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/messages"), toBob.capture());
+        ChatEventDTO frame = (ChatEventDTO) toBob.getValue();
+        assertThat(frame.getThreadKey()).isEqualTo("user_1");
+        assertThat(frame.getMessages()).extracting(MessageDTO::getId).containsExactly(10L, 11L, 12L);
+        assertThat(frame.getUnreadDelta()).isEqualTo(3);
+        assertThat(frame.getTypingUserIds()).containsExactly(1L);
+
+        // The sender's other sessions get the messages, without an unread delta.
+        ArgumentCaptor<Object> toAlice = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/messages"), toAlice.capture());
+        assertThat(((ChatEventDTO) toAlice.getValue()).getUnreadDelta()).isNull();
+
+        delivery.flush();
+        verify(messagingTemplate, times(2)).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+        assertThat(delivery.pendingFrames()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reading a conversation sends a receipt to the sender and a negative delta to the reader")
+    void readReceipt() {
+        delivery.conversationRead(2L, 1L, 12L, 3);
+        delivery.messageRead(2L, 1L, 13L);
+
+        delivery.flush();
+
+        ArgumentCaptor<Object> receipt = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/messages"), receipt.capture());
+        ChatEventDTO toSender = (ChatEventDTO) receipt.getValue();
+        assertThat(toSender.getReadBy()).isEqualTo(2L);
+        assertThat(toSender.getReadUpTo()).isEqualTo(12L);
+        assertThat(toSender.getReadMessageIds()).containsExactly(13L);
+
+        ArgumentCaptor<Object> delta = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/messages"), delta.capture());
+        assertThat(((ChatEventDTO) delta.getValue()).getUnreadDelta()).isEqualTo(-4);
+    }
+
+    @Test
+    @DisplayName("Project chat goes to the project topic only")
+    void projectTopic() {
+        delivery.messageSent(MessageDTO.builder().id(20L).senderId(1L).projectId(7L).build());
+        delivery.typing(3L, null, 7L);
+
+        delivery.flush();
+
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/project.7"), frame.capture());
+        assertThat(((ChatEventDTO) frame.getValue()).getMessages()).hasSize(1);
+        assertThat(((ChatEventDTO) frame.getValue()).getTypingUserIds()).containsExactly(3L);
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    private static MessageDTO direct(long id) {
+        return MessageDTO.builder().id(id).senderId(1L).recipientId(2L).content("m" + id).build();
+    }
+}
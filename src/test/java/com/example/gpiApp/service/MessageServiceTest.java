@@ -0,0 +1,92 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.CursorResponse;
+import com.example.gpiApp.dto.MessageDTO;
+import com.example.gpiApp.entity.Message;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.MessageRepository;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for cursor-paginated chat history.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageServiceTest {
+
+    @Mock private MessageRepository messageRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ProjectRepository projectRepository;
+    @Mock private ActivityLogService activityLogService;
+    @Mock private NotificationService notificationService;
+    @Mock private ConversationService conversationService;
+    @Mock private MessageDeliveryService messageDeliveryService;
+    @Mock private UnreadCounterService unreadCounters;
+    @InjectMocks private MessageService messageService;
+
+    private final allUsers alice = allUsers.builder().id(1L).firstName("Alice").lastName("Ngo").build();
+    private final allUsers bob = allUsers.builder().id(2L).firstName("Bob").lastName("Eto").build();
+    private final Project apollo = Project.builder().id(7L).name("Apollo").build();
+
+    @Test
+    @DisplayName("The latest project page comes back oldest first with a cursor to older messages")
+    void latestProjectPage() {
+        when(messageRepository.findProjectPageBefore(7L, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(inProject(30L), inProject(20L), inProject(10L)));
+
+        CursorResponse<MessageDTO> page = messageService.getProjectHistory(7L, null, null, 2);
+
+        assertThat(page.getData()).extracting(MessageDTO::getId).containsExactly(20L, 30L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("Polling after a cursor returns only newer messages")
+    void newerProjectMessages() {
+        when(messageRepository.findProjectPageAfter(7L, 30L, PageRequest.of(0, 51)))
+                .thenReturn(List.of(inProject(31L), inProject(32L)));
+
+        CursorResponse<MessageDTO> page = messageService.getProjectHistory(7L, null, 30L, 0);
+
+        assertThat(page.getData()).extracting(MessageDTO::getId).containsExactly(31L, 32L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Both directions of a direct conversation are merged into one window")
+    void directConversationMerge() {
+        when(messageRepository.findDirectPageBefore(1L, 2L, 100L, PageRequest.of(0, 4)))
+                .thenReturn(List.of(direct(alice, bob, 90L), direct(alice, bob, 60L)));
+        when(messageRepository.findDirectPageBefore(2L, 1L, 100L, PageRequest.of(0, 4)))
+                .thenReturn(List.of(direct(bob, alice, 80L), direct(bob, alice, 70L), direct(bob, alice, 50L)));
+
+        CursorResponse<MessageDTO> page = messageService.getDirectHistory(1L, 2L, 100L, null, 3);
+
+        assertThat(page.getData()).extracting(MessageDTO::getId).containsExactly(70L, 80L, 90L);
+        assertThat(page.getData()).extracting(MessageDTO::getSenderName).containsExactly("Bob Eto", "Bob Eto", "Alice Ngo");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(70L);
+    }
+
+    private Message inProject(long id) {
+        return Message.builder().id(id).sender(alice).project(apollo).content("m" + id).build();
+    }
+
+    private Message direct(allUsers from, allUsers to, long id) {
+        return Message.builder().id(id).sender(from).recipient(to).content("m" + id).build();
+    }
+}
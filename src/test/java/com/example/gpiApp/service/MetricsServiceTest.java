@@ -0,0 +1,102 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.analytics.PerformanceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for the request metrics store and its latency histograms.
+ */
+class MetricsServiceTest {
+
+    @Test
+    @DisplayName("Histogram buckets report every value within 12.5%")
+    void histogramPrecision() {
+        for (long v = 0; v < 200_000; v += 7) {
+            long reported = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(v));
+            assertThat(reported).isGreaterThanOrEqualTo(v);
+            assertThat((double) reported).isCloseTo(v, within(v * 0.125 + 1));
+        }
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    @DisplayName("Snapshot reports window percentiles overall and per endpoint")
+    void percentiles() {
+        MetricsService metrics = new MetricsService();
+        for (int ms = 1; ms <= 100; ms++) metrics.record("GET", "/api/tasks/{id}", 200, ms);
+        for (int i = 0; i < 50; i++) metrics.record("GET", "/api/users", 200, 5);
+        metrics.record("GET", "/api/users", 500, 2000);
+
+        PerformanceDTO snapshot = metrics.snapshot(5);
+
+        assertThat(snapshot.getWindowMinutes()).isEqualTo(5);
+        assertThat(snapshot.getP99Ms()).isBetween(96L, 103L); // 150th of 151 values is 100 ms
+
+        PerformanceDTO.SlowEndpoint tasks = snapshot.getSlowest().stream()
+                .filter(e -> e.getEndpoint().equals("GET /api/tasks/{id}")).findFirst().orElseThrow();
+        assertThat(tasks.getCount()).isEqualTo(100);
+        assertThat(tasks.getP50Ms()).isBetween(50L, 56L);
+        assertThat(tasks.getP95Ms()).isBetween(95L, 103L);
+        assertThat(tasks.getMaxMs()).isEqualTo(100);
+
+        PerformanceDTO.SlowEndpoint users = snapshot.getSlowest().stream()
+                .filter(e -> e.getEndpoint().equals("GET /api/users")).findFirst().orElseThrow();
+        assertThat(users.getP50Ms()).isEqualTo(5);
+        assertThat(users.getP99Ms()).isEqualTo(2000); // capped at the largest recorded value
+        assertThat(snapshot.getSlowest().get(0).getEndpoint()).isEqualTo("GET /api/tasks/{id}");
+    }
+
+    @Test
+    @DisplayName("Handler patterns are tracked per method; requests without a handler share one route")
+    void routeTemplates() {
+        MetricsService metrics = new MetricsService();
+        metrics.record("GET", "/api/projects/{id}/tasks", 200, 10);
+        metrics.record("GET", "/api/projects/{id}/tasks", 200, 2);
+        metrics.record("GET", null, 404, 2);
+        metrics.record("DELETE", "/api/projects/{id}/tasks", 204, 4);
+
+        PerformanceDTO snapshot = metrics.snapshot();
+
+        assertThat(snapshot.getTotalRequests()).isEqualTo(4);
+        assertThat(snapshot.getRequestsPerMin()).isEqualTo(4);
+        assertThat(snapshot.getServerLoad()).hasSize(60);
+        assertThat(snapshot.getSlowest())
+                .extracting(PerformanceDTO.SlowEndpoint::getEndpoint, PerformanceDTO.SlowEndpoint::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("GET /api/projects/{id}/tasks", 2L),
+                        tuple("GET /api/**", 1L),
+                        tuple("DELETE /api/projects/{id}/tasks", 1L));
+    }
+
+    @Test
+    @DisplayName("A crawl of unknown paths does not crowd out handler patterns seen later")
+    void unmatchedPathsDoNotGrowRoutes() {
+        MetricsService metrics = new MetricsService();
+        for (int i = 0; i < 5_000; i++) metrics.record("GET", null, 404, 1);
+        metrics.record("GET", "/api/tasks/{id}", 200, 3);
+
+        assertThat(metrics.snapshot().getSlowest())
+                .extracting(PerformanceDTO.SlowEndpoint::getEndpoint, PerformanceDTO.SlowEndpoint::getCount)
+                .containsExactlyInAnyOrder(tuple("GET /api/**", 5_000L), tuple("GET /api/tasks/{id}", 1L));
+    }
+
+    @Test
+    @DisplayName("Request and error totals are published to Micrometer")
+    void bindsToMeterRegistry() {
+        MetricsService metrics = new MetricsService();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        metrics.record("GET", "/api/tasks", 200, 3);
+        metrics.record("GET", "/api/tasks", 503, 3);
+
+        assertThat(registry.get("app.api.requests").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("app.api.errors").functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.NotificationDTO;
+import com.example.gpiApp.entity.Notification;
+import com.example.gpiApp.repository.NotificationRepository;
+import com.example.gpiApp.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for bulk notification fan-out.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private WebSocketNotificationService webSocketNotificationService;
+    @Mock private UnreadCounterService unreadCounters;
+    @InjectMocks private NotificationService notificationService;
+
+    @Test
+    @DisplayName("A broadcast is one batched insert for the known users, then one async push")
+    @SuppressWarnings("unchecked")
+    void broadcast() {
+        when(userRepository.findExistingIds(Set.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+
+        int stored = notificationService.createNotifications(List.of(1L, 2L, 99L, 2L), "Hello", "All hands",
+                Notification.NotificationType.SYSTEM, 5L, "EVENT");
+
+        assertThat(stored).isEqualTo(2);
+        ArgumentCaptor<List<NotificationDTO>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(NotificationService.BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getValue()).extracting(NotificationDTO::getUserId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(rows.getValue()).allSatisfy(n -> {
+            assertThat(n.getCreatedAt()).isNotNull();
+            assertThat(n.getIsRead()).isFalse();
+        });
+        verify(webSocketNotificationService).pushNotifications(rows.getValue());
+        verify(unreadCounters).add(UnreadCounterService.Kind.NOTIFICATIONS, 1L, 1L);
+        verify(unreadCounters).add(UnreadCounterService.Kind.NOTIFICATIONS, 2L, 1L);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("No known recipient means no insert and no push")
+    void nobodyToNotify() {
+        when(userRepository.findExistingIds(Set.of(99L))).thenReturn(List.of());
+
+        assertThat(notificationService.createNotifications(List.of(99L), "t", "m",
+                Notification.NotificationType.SYSTEM, null, null)).isZero();
+        assertThat(notificationService.createNotifications(List.of())).isZero();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(webSocketNotificationService);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the per-project task counters: deltas per transition and drift reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProjectProgressServiceTest {
+
+    @Mock private ProjectRepository projectRepository;
+    @Mock private TaskRepository taskRepository;
+    @InjectMocks private ProjectProgressService progress;
+
+    private final Project apollo = Project.builder().id(7L).build();
+    private final Project gemini = Project.builder().id(8L).build();
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private <T> T row(Class<T> type, Object... keyValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put((String) keyValues[i], keyValues[i + 1]);
+        return projections.createProjection(type, values);
+    }
+
+    @Test
+    @DisplayName("Create, complete, move and delete each apply one O(1) delta")
+    void transitions() {
+        progress.taskChanged(null, false, apollo, false);
+        verify(projectRepository).adjustTaskCounters(7L, 1, 0);
+
+        progress.taskChanged(apollo, false, apollo, true);
+        verify(projectRepository).adjustTaskCounters(7L, 0, 1);
+
+        progress.taskChanged(apollo, true, gemini, true);
+        verify(projectRepository).adjustTaskCounters(7L, -1, -1);
+        verify(projectRepository).adjustTaskCounters(8L, 1, 1);
+
+        progress.taskChanged(gemini, true, null, false);
+        verify(projectRepository).adjustTaskCounters(8L, -1, -1);
+    }
+
+    @Test
+    @DisplayName("Edits that keep project and completion leave the counters alone")
+    void noOpTransition() {
+        progress.taskChanged(apollo, false, apollo, false);
+        progress.taskChanged(null, false, null, true);
+
+        verifyNoInteractions(projectRepository);
+    }
+
+    @Test
+    @DisplayName("Reconciliation rewrites only projects whose counters drifted")
+    void reconcile() {
+        when(taskRepository.countPerProject()).thenReturn(List.of(
+                row(TaskRepository.ProjectTaskCount.class, "projectId", 7L, "total", 4L, "completed", 1L),
+                row(TaskRepository.ProjectTaskCount.class, "projectId", 8L, "total", 2L, "completed", 2L)));
+        when(projectRepository.findCounterRows()).thenReturn(List.of(
+                row(ProjectRepository.CounterRow.class, "id", 7L, "taskCount", 4, "completedTaskCount", 1, "progress", 60),
+                row(ProjectRepository.CounterRow.class, "id", 8L, "taskCount", 0, "completedTaskCount", 0, "progress", 0),
+                row(ProjectRepository.CounterRow.class, "id", 9L, "taskCount", 0, "completedTaskCount", 0, "progress", 0)));
+
+        progress.reconcile();
+
+        verify(projectRepository).setTaskCounters(8L, 2, 2, 100);
+        verify(projectRepository, never()).setTaskCounters(eq(7L), anyInt(), anyInt(), anyInt());
+        verify(projectRepository, never()).setTaskCounters(eq(9L), anyInt(), anyInt(), anyInt());
+        verify(projectRepository, never()).adjustTaskCounters(anyLong(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.report.ReportJobDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the background report queue. Rendering is mocked; artifacts go to a temp dir.
+ */
+class ReportJobServiceTest {
+
+    @TempDir Path uploadDir;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final WebSocketNotificationService webSocket = mock(WebSocketNotificationService.class);
+    private ReportJobService jobs;
+
+    @AfterEach
+    void tearDown() {
+        if (jobs != null) jobs.shutdown();
+    }
+
+    @Test
+    @DisplayName("A job renders in the background, notifies its owner and serves the file only to them")
+    void rendersAndNotifies() throws Exception {
+        jobs = new ReportJobService(reportService, webSocket, uploadDir.toString(), 1, 5, 60);
+        when(reportService.generateProjectHealthReport()).thenReturn(new byte[] {'%', 'P', 'D', 'F'});
+
+        ReportJobDTO queued = jobs.submit(ReportJobService.ReportType.PROJECT_HEALTH, null, 1L);
+
+        ArgumentCaptor<ReportJobDTO> pushed = ArgumentCaptor.forClass(ReportJobDTO.class);
+        verify(webSocket, timeout(5000)).sendReportJobUpdate(eq(1L), pushed.capture());
+        assertThat(pushed.getValue().getStatus()).isEqualTo("COMPLETED");
+        assertThat(pushed.getValue().getDownloadUrl()).endsWith(queued.getId() + "/download");
+
+        Path artifact = jobs.getArtifact(queued.getId(), 1L).orElseThrow();
+        assertThat(artifact).startsWith(uploadDir.resolve("report-jobs"));
+        assertThat(Files.readAllBytes(artifact)).hasSize(4);
+        assertThat(jobs.getJob(queued.getId(), 2L)).isEmpty();
+        assertThat(jobs.getArtifact(queued.getId(), 2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Rendering errors mark the job failed instead of losing it")
+    void failedJob() throws Exception {
+        jobs = new ReportJobService(reportService, webSocket, uploadDir.toString(), 1, 5, 60);
+        when(reportService.generateUsersReport()).thenThrow(new IllegalStateException("JRXML not found"));
+
+        ReportJobDTO queued = jobs.submit(ReportJobService.ReportType.USERS, null, 1L);
+
+        verify(webSocket, timeout(5000)).sendReportJobUpdate(eq(1L), any());
+        ReportJobDTO job = jobs.getJob(queued.getId(), 1L).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo("FAILED");
+        assertThat(job.getError()).isEqualTo(ReportJobService.FAILURE_MESSAGE).doesNotContain("JRXML");
+        assertThat(jobs.getArtifact(queued.getId(), 1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A full queue rejects new jobs instead of growing")
+    void boundedQueue() throws Exception {
+        jobs = new ReportJobService(reportService, webSocket, uploadDir.toString(), 1, 1, 60);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(reportService.generateProjectsReport()).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new byte[0];
+        });
+
+        jobs.submit(ReportJobService.ReportType.PROJECTS, null, 1L);   // running
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        jobs.submit(ReportJobService.ReportType.PROJECTS, null, 1L);   // waiting
+
+        assertThatThrownBy(() -> jobs.submit(ReportJobService.ReportType.PROJECTS, null, 1L))
+                .isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Report types are resolved from the endpoint slugs")
+    void slugs() {
+        assertThat(ReportJobService.ReportType.fromSlug("milestone-delivery"))
+                .contains(ReportJobService.ReportType.MILESTONE_DELIVERY);
+        assertThat(ReportJobService.ReportType.fromSlug("nope")).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.repository.ProjectRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the streamed CSV exports. Repositories are mocked and return projection rows.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private ProjectRepository projectRepository;
+    @InjectMocks private ReportService reportService;
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private <T> T row(Class<T> type, Object... keyValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put((String) keyValues[i], keyValues[i + 1]);
+        return projections.createProjection(type, values);
+    }
+
+    @Test
+    @DisplayName("Task export walks keyset pages until a short page and escapes values")
+    void tasksCsvPagesByKeyset() throws Exception {
+        List<TaskRepository.CsvRow> full = new ArrayList<>();
+        for (long id = 1; id <= ReportService.CSV_PAGE_SIZE; id++) {
+            full.add(row(TaskRepository.CsvRow.class, "id", id, "name", "t" + id,
+                    "status", Task.TaskStatus.TODO, "priority", Task.TaskPriority.LOW, "progress", 0));
+        }
+        when(taskRepository.findCsvPage(eq(0L), any(Pageable.class))).thenReturn(full);
+        when(taskRepository.findCsvPage(eq((long) ReportService.CSV_PAGE_SIZE), any(Pageable.class))).thenReturn(List.of(
+                row(TaskRepository.CsvRow.class, "id", 5000L, "name", "Fix, \"quoted\"",
+                        "status", Task.TaskStatus.COMPLETED, "priority", Task.TaskPriority.HIGH, "progress", 100,
+                        "deadline", LocalDate.of(2026, 1, 31), "projectName", "Apollo",
+                        "assigneeFirstName", "Alice", "assigneeLastName", "Wu")));
+
+        StringWriter out = new StringWriter();
+        reportService.writeTasksCsv(out);
+
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize(ReportService.CSV_PAGE_SIZE + 2);
+        assertThat(lines[0]).isEqualTo("Task Name,Status,Priority,Progress,Deadline,Project,Assignee");
+        assertThat(lines[1]).isEqualTo("t1,TODO,LOW,0,,,");
+        assertThat(lines[lines.length - 1])
+                .isEqualTo("\"Fix, \"\"quoted\"\"\",COMPLETED,HIGH,100,2026-01-31,Apollo,Alice Wu");
+        verify(taskRepository).findCsvPage(eq((long) ReportService.CSV_PAGE_SIZE), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Project export takes task totals from the page query")
+    void projectsCsvUsesAggregates() throws Exception {
+        when(projectRepository.findCsvPage(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                row(ProjectRepository.CsvRow.class, "id", 7L, "name", "Apollo", "status", Project.ProjectStatus.ACTIVE,
+                        "progress", 40, "startDate", LocalDate.of(2026, 1, 1), "totalTasks", 5L, "completedTasks", 2L)));
+
+        StringWriter out = new StringWriter();
+        reportService.writeProjectsCsv(out);
+
+        assertThat(out.toString()).isEqualTo(
+                "Project Name,Status,Progress,Start Date,End Date,Total Tasks,Completed Tasks\n"
+                + "Apollo,ACTIVE,40,2026-01-01,,5,2\n");
+    }
+}
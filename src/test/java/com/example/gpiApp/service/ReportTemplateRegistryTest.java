@@ -0,0 +1,63 @@
+package com.example.gpiApp.service;
+
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the compiled-template registry. Uses the real JRXML files from {@code /reports}.
+ */
+class ReportTemplateRegistryTest {
+
+    @TempDir Path compiledDir;
+
+    @Test
+    @DisplayName("A template is compiled once and the same instance is reused")
+    void compilesOnce() throws Exception {
+        ReportTemplateRegistry registry = new ReportTemplateRegistry("", false);
+
+        JasperReport first = registry.get("tasks_report");
+
+        assertThat(registry.get("tasks_report")).isSameAs(first);
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Compiled templates are persisted and loaded by the next instance")
+    void persistsCompiledTemplates() throws Exception {
+        new ReportTemplateRegistry(compiledDir.toString(), false).get("users_report");
+
+        try (Stream<Path> files = Files.list(compiledDir)) {
+            assertThat(files.map(f -> f.getFileName().toString()))
+                    .singleElement().asString().startsWith("users_report-").endsWith(".jasper");
+        }
+        JasperReport reloaded = new ReportTemplateRegistry(compiledDir.toString(), false).get("users_report");
+        assertThat(reloaded.getName()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Warm-up compiles every report template")
+    void warmUpCompilesAll() {
+        ReportTemplateRegistry registry = new ReportTemplateRegistry("", true);
+
+        registry.warmUp();
+
+        assertThat(registry.size()).isEqualTo(ReportTemplateRegistry.TEMPLATES.size());
+    }
+
+    @Test
+    @DisplayName("Unknown templates fail clearly")
+    void unknownTemplate() {
+        assertThatThrownBy(() -> new ReportTemplateRegistry("", false).get("missing"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing.jrxml");
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.ActivityLog;
+import com.example.gpiApp.entity.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the retention purge: per-type cutoffs, batching, monthly archives and unread release.
+ */
+class RetentionServiceTest {
+
+    @TempDir Path archiveDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SystemSettingsService settingsService = mock(SystemSettingsService.class);
+    private final UnreadCounterService unreadCounters = mock(UnreadCounterService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private RetentionService service(int batchSize) {
+        return new RetentionService(jdbcTemplate, settingsService, unreadCounters, objectMapper,
+                archiveDir.toString(), batchSize, 100);
+    }
+
+    @Test
+    @DisplayName("Old rows are archived by creation month, deleted in batches, and unread ones leave the badge")
+    void purgeNotifications() throws IOException {
+        policy(Map.of(Notification.NotificationType.MESSAGE, 30), Map.of());
+        Map<String, Object> june = notification(1L, 7L, false, LocalDateTime.of(2026, 6, 30, 23, 0));
+        Map<String, Object> july = notification(2L, 7L, true, LocalDateTime.of(2026, 7, 1, 8, 0));
+        Map<String, Object> july2 = notification(3L, 8L, false, LocalDateTime.of(2026, 7, 2, 8, 0));
+        when(jdbcTemplate.queryForList(startsWith("SELECT"), eq("MESSAGE"), any(Timestamp.class), eq(2)))
+                .thenReturn(List.of(june, july), List.of(july2));
+        when(jdbcTemplate.update(startsWith("DELETE FROM notifications"), any(Object[].class))).thenReturn(2, 1);
+
+        RetentionService retention = service(2);
+        retention.purge();
+
+        verify(jdbcTemplate).update("DELETE FROM notifications WHERE id IN (?,?)", 1L, 2L);
+        verify(jdbcTemplate).update("DELETE FROM notifications WHERE id IN (?)", 3L);
+        verify(unreadCounters).add(UnreadCounterService.Kind.NOTIFICATIONS, 7L, -1L);
+        verify(unreadCounters).add(UnreadCounterService.Kind.NOTIFICATIONS, 8L, -1L);
+        assertThat(read(archiveDir.resolve("notifications/2026-06.ndjson.gz"))).containsExactly(
+                "{\"id\":1,\"user_id\":7,\"type\":\"MESSAGE\",\"is_read\":false,\"created_at\":\"2026-06-30T23:00:00\"}");
+        // Two batches appended to the same month read back as one stream.
+        assertThat(read(archiveDir.resolve("notifications/2026-07.ndjson.gz"))).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("A type kept forever is never queried, and archiving can be switched off")
+    void keepForeverAndNoArchive() {
+        Map<ActivityLog.ActivityType, Integer> activity = new EnumMap<>(ActivityLog.ActivityType.class);
+        activity.put(ActivityLog.ActivityType.SECURITY_ALERT, 0);
+        activity.put(ActivityLog.ActivityType.USER_LOGIN, 90);
+        when(settingsService.getRetentionPolicy()).thenReturn(
+                new SystemSettingsService.RetentionPolicy(Map.of(), activity, false));
+        when(jdbcTemplate.queryForList(startsWith("SELECT"), eq("USER_LOGIN"), any(Timestamp.class), eq(10)))
+                .thenReturn(List.of(Map.of("id", 5L, "created_at", Timestamp.valueOf(LocalDateTime.now().minusDays(100)))));
+
+        service(10).purge();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq("SECURITY_ALERT"), any(), any());
+        verify(jdbcTemplate).update("DELETE FROM activity_logs WHERE id IN (?)", 5L);
+        assertThat(archiveDir.resolve("activity_logs")).doesNotExist();
+    }
+
+    private void policy(Map<Notification.NotificationType, Integer> notifications,
+                        Map<ActivityLog.ActivityType, Integer> activity) {
+        when(settingsService.getRetentionPolicy()).thenReturn(new SystemSettingsService.RetentionPolicy(
+                new EnumMap<>(notifications), activity.isEmpty() ? Map.of() : new EnumMap<>(activity), true));
+    }
+
+    private static Map<String, Object> notification(long id, long userId, boolean read, LocalDateTime createdAt) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("user_id", userId);
+        row.put("type", "MESSAGE");
+        row.put("is_read", read);
+        row.put("created_at", Timestamp.valueOf(createdAt));
+        return row;
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.entity.LoginAttempt;
+import com.example.gpiApp.repository.LoginAttemptRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.example.gpiApp.entity.LoginAttempt.LoginStatus.FAILURE;
+import static com.example.gpiApp.entity.LoginAttempt.LoginStatus.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the rolling security counters: today vs last-24-hours sums, distinct failing IPs,
+ * the active-session window, and the rebuild from the journal.
+ */
+class SecurityMetricsServiceTest {
+
+    private static final long MINUTE = 60_000;
+    /** 2026-03-10 15:00 local time. */
+    private static final long NOW = at(LocalDateTime.of(2026, 3, 10, 15, 0));
+
+    private final LoginAttemptRepository repository = mock(LoginAttemptRepository.class);
+    private final SecurityMetricsService metrics = new SecurityMetricsService(repository, 1_000);
+
+    @Test
+    @DisplayName("Attempts before midnight count for the last 24 hours but not for today")
+    void todayAndLast24Hours() {
+        metrics.recorded(FAILURE, "10.0.0.1", null, NOW - 20 * 60 * MINUTE);   // yesterday 19:00
+        metrics.recorded(FAILURE, "10.0.0.2", null, NOW - 60 * MINUTE);
+        metrics.recorded(SUCCESS, "10.0.0.3", 7L, NOW - 5 * MINUTE);
+        metrics.recorded(FAILURE, "10.0.0.2", null, NOW);
+
+        SecurityMetricsService.Snapshot snapshot = metrics.snapshot(NOW);
+
+        assertThat(snapshot.todayAttempts()).isEqualTo(3);
+        assertThat(snapshot.todayFailures()).isEqualTo(2);
+        assertThat(snapshot.todaySuccesses()).isEqualTo(1);
+        assertThat(snapshot.failures24h()).isEqualTo(3);
+        assertThat(snapshot.failingIps24h()).isEqualTo(2);
+        assertThat(snapshot.totalAttempts()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Minutes, failing IPs and sessions age out of their windows")
+    void windowsExpire() {
+        metrics.recorded(FAILURE, "10.0.0.1", null, NOW);
+        metrics.recorded(SUCCESS, "10.0.0.9", 7L, NOW);
+        metrics.recorded(SUCCESS, "10.0.0.9", 8L, NOW + 20 * MINUTE);
+
+        SecurityMetricsService.Snapshot halfHourLater = metrics.snapshot(NOW + 31 * MINUTE);
+        assertThat(halfHourLater.activeSessions()).isEqualTo(1);
+        assertThat(halfHourLater.failingIps24h()).isEqualTo(1);
+
+        SecurityMetricsService.Snapshot nextDay = metrics.snapshot(NOW + 24 * 60 * MINUTE);
+        assertThat(nextDay.failures24h()).isZero();
+        assertThat(nextDay.failingIps24h()).isZero();
+        assertThat(nextDay.activeSessions()).isZero();
+        assertThat(nextDay.totalAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A recycled ring slot forgets the counts of the minute it held a day earlier")
+    void ringSlotsAreRecycled() {
+        metrics.recorded(FAILURE, "10.0.0.1", null, NOW);
+        metrics.recorded(SUCCESS, "10.0.0.1", 7L, NOW + 24 * 60 * MINUTE);
+
+        SecurityMetricsService.Snapshot snapshot = metrics.snapshot(NOW + 24 * 60 * MINUTE);
+
+        assertThat(snapshot.failures24h()).isZero();
+        assertThat(snapshot.todaySuccesses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The rebuild replays the last 24 hours of the journal and takes the total from the table")
+    void rebuildsFromJournal() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 15, 0);
+        when(repository.findSamplesSince(any())).thenReturn(List.of(
+                sample(now.minusHours(2), FAILURE, "10.0.0.1", null),
+                sample(now.minusHours(1), FAILURE, "10.0.0.1", null),
+                sample(now.minusMinutes(10), SUCCESS, "10.0.0.2", 7L)));
+        when(repository.count()).thenReturn(500L);
+        metrics.recorded(FAILURE, "10.9.9.9", null, NOW);
+
+        metrics.rebuild(NOW);
+        SecurityMetricsService.Snapshot snapshot = metrics.snapshot(NOW);
+
+        assertThat(snapshot.todayAttempts()).isEqualTo(3);
+        assertThat(snapshot.failingIps24h()).isEqualTo(1);
+        assertThat(snapshot.activeSessions()).isEqualTo(1);
+        assertThat(snapshot.totalAttempts()).isEqualTo(500);
+    }
+
+    private static long at(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LoginAttemptRepository.AttemptSample sample(LocalDateTime at, LoginAttempt.LoginStatus status,
+                                                               String ip, Long userId) {
+        return new LoginAttemptRepository.AttemptSample() {
+            public LocalDateTime getAttemptedAt() { return at; }
+            public LoginAttempt.LoginStatus getStatus() { return status; }
+            public String getIpAddress() { return ip; }
+            public Long getUserId() { return userId; }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.PagedResponse;
+import com.example.gpiApp.dto.TaskDTO;
+import com.example.gpiApp.entity.Project;
+import com.example.gpiApp.entity.Task;
+import com.example.gpiApp.entity.allUsers;
+import com.example.gpiApp.repository.CommentRepository;
+import com.example.gpiApp.repository.TaskRepository;
+import com.example.gpiApp.repository.TimeLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for task list conversion: a page costs one finder call plus two batched lookups.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private TimeLogRepository timeLogRepository;
+    @InjectMocks private TaskService taskService;
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    @Test
+    @DisplayName("A task page is enriched with one hours query and one comment query")
+    void pageIsEnrichedInBatch() {
+        Project apollo = Project.builder().id(7L).name("Apollo").build();
+        allUsers alice = allUsers.builder().id(1L).firstName("Alice").lastName("Wu").build();
+        List<Task> tasks = List.of(
+                Task.builder().id(10L).name("a").project(apollo).assignedTo(alice).build(),
+                Task.builder().id(11L).name("b").project(apollo).build());
+        when(taskRepository.findWithDetailsByProjectId(eq(7L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(tasks, PageRequest.of(0, 20), 2));
+        when(timeLogRepository.sumHoursByTaskIds(List.of(10L, 11L))).thenReturn(List.of(
+                projections.createProjection(TimeLogRepository.TaskHours.class, Map.of("taskId", 10L, "hours", 3.5))));
+        when(commentRepository.countByTaskIds(List.of(10L, 11L))).thenReturn(List.of(
+                projections.createProjection(CommentRepository.TaskCount.class, Map.of("taskId", 11L, "count", 2L))));
+
+        PagedResponse<TaskDTO> page = taskService.getTasksByProject(7L, 0, 20);
+
+        assertThat(page.getData()).extracting(TaskDTO::getTotalHoursLogged).containsExactly(3.5, 0.0);
+        assertThat(page.getData()).extracting(TaskDTO::getCommentCount).containsExactly(0, 2);
+        assertThat(page.getData().get(0).getAssignedToName()).isEqualTo("Alice Wu");
+        assertThat(page.getData().get(0).getProjectName()).isEqualTo("Apollo");
+        verify(timeLogRepository, never()).getTotalHoursByTaskId(anyLong());
+        verify(commentRepository, never()).countByTaskId(anyLong());
+    }
+}
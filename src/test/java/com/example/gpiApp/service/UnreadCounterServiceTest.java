@@ -0,0 +1,94 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.repository.MessageRepository;
+import com.example.gpiApp.repository.NotificationRepository;
+import com.example.gpiApp.service.UnreadCounterService.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory unread counters: lazy load, deltas, reset and reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private MessageRepository messageRepository;
+
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private <T> T row(Class<T> type, Object... keyValues) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put((String) keyValues[i], keyValues[i + 1]);
+        return projections.createProjection(type, values);
+    }
+
+    private UnreadCounterService counters(long idleMinutes) {
+        return new UnreadCounterService(notificationRepository, messageRepository, idleMinutes);
+    }
+
+    @Test
+    @DisplayName("The count is loaded once, then moved by deltas without querying again")
+    void lazyLoadThenDeltas() {
+        UnreadCounterService counters = counters(30);
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(4L);
+
+        assertThat(counters.get(Kind.NOTIFICATIONS, 1L)).isEqualTo(4);
+        counters.add(Kind.NOTIFICATIONS, 1L, 3);
+        counters.add(Kind.NOTIFICATIONS, 1L, -1);
+        assertThat(counters.get(Kind.NOTIFICATIONS, 1L)).isEqualTo(6);
+        counters.reset(Kind.NOTIFICATIONS, 1L);
+        assertThat(counters.get(Kind.NOTIFICATIONS, 1L)).isZero();
+        counters.add(Kind.NOTIFICATIONS, 1L, -5);
+        assertThat(counters.get(Kind.NOTIFICATIONS, 1L)).isZero();
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Deltas for users who were never read are ignored; their first read loads the truth")
+    void uncachedDeltas() {
+        UnreadCounterService counters = counters(30);
+        counters.add(Kind.MESSAGES, 2L, 1);
+        assertThat(counters.cachedUsers(Kind.MESSAGES)).isZero();
+
+        when(messageRepository.countUnreadByRecipientId(2L)).thenReturn(1L);
+        assertThat(counters.get(Kind.MESSAGES, 2L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reconciliation rewrites drifted counts with one grouped query and drops idle users")
+    void reconcile() {
+        UnreadCounterService counters = counters(30);
+        when(messageRepository.countUnreadByRecipientId(1L)).thenReturn(2L);
+        when(messageRepository.countUnreadByRecipientId(2L)).thenReturn(5L);
+        counters.get(Kind.MESSAGES, 1L);
+        counters.get(Kind.MESSAGES, 2L);
+        when(messageRepository.countUnreadByRecipientIds(List.of(1L, 2L))).thenReturn(List.of(
+                row(MessageRepository.UnreadCount.class, "userId", 1L, "unread", 3L)));
+
+        counters.reconcile();
+
+        assertThat(counters.get(Kind.MESSAGES, 1L)).isEqualTo(3);
+        assertThat(counters.get(Kind.MESSAGES, 2L)).isZero();
+
+        UnreadCounterService idle = counters(0);
+        when(notificationRepository.countByUserIdAndIsReadFalse(9L)).thenReturn(1L);
+        idle.get(Kind.NOTIFICATIONS, 9L);
+        idle.reconcile();
+        assertThat(idle.cachedUsers(Kind.NOTIFICATIONS)).isZero();
+    }
+}
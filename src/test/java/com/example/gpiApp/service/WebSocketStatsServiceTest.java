@@ -0,0 +1,61 @@
+package com.example.gpiApp.service;
+
+import com.example.gpiApp.dto.analytics.WebSocketStatsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the WebSocket session registry and broker stats.
+ */
+class WebSocketStatsServiceTest {
+
+    private final WebSocketMessageBrokerStats brokerStats = mock(WebSocketMessageBrokerStats.class);
+    private final SubProtocolWebSocketHandler handler = mock(SubProtocolWebSocketHandler.class);
+    private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+    private final AbstractBrokerMessageHandler relay = mock(AbstractBrokerMessageHandler.class);
+
+    private final WebSocketStatsService service =
+            new WebSocketStatsService(brokerStats, handler, userRegistry, List.of(relay), "relay");
+
+    @Test
+    @DisplayName("The snapshot reports the relay's availability and the registry's user count")
+    void snapshot() {
+        when(relay.isBrokerAvailable()).thenReturn(false);
+        when(userRegistry.getUserCount()).thenReturn(12);
+        when(brokerStats.getStompBrokerRelayStatsInfo()).thenReturn("0 sessions, localhost:61613 (not available)");
+
+        WebSocketStatsDTO stats = service.snapshot();
+
+        assertThat(stats.getBrokerMode()).isEqualTo("relay");
+        assertThat(stats.isBrokerAvailable()).isFalse();
+        assertThat(stats.getConnectedUsers()).isEqualTo(12);
+        assertThat(stats.getLocalSessions()).isZero();
+        assertThat(stats.getBrokerRelayStats()).contains("not available");
+    }
+
+    @Test
+    @DisplayName("Session, user and broker meters read zero while no session has been opened")
+    void meters() {
+        when(relay.isBrokerAvailable()).thenReturn(true);
+        when(userRegistry.getUserCount()).thenReturn(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        service.bindTo(registry);
+
+        assertThat(registry.get("websocket.sessions").tag("transport", "websocket").gauge().value()).isZero();
+        assertThat(registry.get("websocket.sessions.opened").functionCounter().count()).isZero();
+        assertThat(registry.get("websocket.users").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("websocket.broker.available").tag("mode", "relay").gauge().value()).isEqualTo(1);
+    }
+}